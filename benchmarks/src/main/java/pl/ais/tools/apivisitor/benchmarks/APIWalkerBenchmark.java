@@ -0,0 +1,75 @@
+package pl.ais.tools.apivisitor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.Visitor;
+
+/**
+ * Walking synthetic APIs of different shapes, with different visitors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class APIWalkerBenchmark {
+
+    @Param
+    private ApiShape shape;
+
+    @Param
+    private BenchmarkVisitor visitor;
+
+    @Param({ "false", "true" })
+    private boolean memoized;
+
+    private Class<?> service;
+
+    private ApiModel model;
+
+    @Setup(Level.Trial)
+    public void compileApi() throws Exception {
+        service = SyntheticApi.compile(shape);
+        model = ApiModel.build(createWalker(), service);
+    }
+
+    @Benchmark
+    public Visitor walk(Blackhole blackhole) {
+        Visitor result = visitor.create(blackhole);
+        APIWalker walker = createWalker();
+        walker.setVisitor(result);
+        walker.visit(service);
+        return result;
+    }
+
+    @Benchmark
+    public Visitor replayModel(Blackhole blackhole) {
+        Visitor result = visitor.create(blackhole);
+        model.accept(result);
+        return result;
+    }
+
+    private APIWalker createWalker() {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(memoized);
+        return walker;
+    }
+
+}
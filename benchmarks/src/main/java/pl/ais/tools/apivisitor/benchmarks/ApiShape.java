@@ -0,0 +1,128 @@
+package pl.ais.tools.apivisitor.benchmarks;
+
+import java.util.Map;
+
+/**
+ * Shapes of synthetic APIs, each generates sources of <code>synthetic.Service</code> class
+ * and types it depends on.
+ */
+public enum ApiShape {
+
+    /**
+     * Service with thousands of methods, using a small pool of simple types.
+     */
+    WIDE {
+        @Override
+        void generate(Map<String, String> sources) {
+            int types = 20;
+            for (int i = 0; i < types; i++) {
+                sources.put("Dto" + i, "public class Dto" + i + " {\n"
+                        + "  private String name;\n"
+                        + "  private long id;\n"
+                        + "  private Integer value;\n"
+                        + "}\n");
+            }
+            StringBuilder service = new StringBuilder("public class Service {\n");
+            for (int i = 0; i < 2000; i++) {
+                service.append("  public Dto").append(i % types).append(" method").append(i)
+                        .append("(Dto").append((i + 7) % types).append(" arg, int flag) { return null; }\n");
+            }
+            sources.put("Service", service.append("}\n").toString());
+        }
+    },
+
+    /**
+     * Long chain of types, each having a property of the next type.
+     */
+    DEEP {
+        @Override
+        void generate(Map<String, String> sources) {
+            int depth = 150;
+            for (int i = 0; i < depth; i++) {
+                sources.put("Dto" + i, "public class Dto" + i + " {\n"
+                        + "  private String name;\n"
+                        + (i + 1 < depth ? "  private Dto" + (i + 1) + " next;\n" : "")
+                        + "}\n");
+            }
+            sources.put("Service", "public class Service {\n"
+                    + "  public Dto0 get(Dto0 arg) { return null; }\n"
+                    + "}\n");
+        }
+    },
+
+    /**
+     * Layers of types, each type refers to both types of next layer - number of paths
+     * grows exponentially with number of layers.
+     */
+    DIAMOND {
+        @Override
+        void generate(Map<String, String> sources) {
+            int layers = 12;
+            for (int layer = 0; layer < layers; layer++) {
+                for (int i = 0; i < 2; i++) {
+                    String name = "Node" + layer + "x" + i;
+                    sources.put(name, "public class " + name + " {\n"
+                            + (layer + 1 < layers
+                                    ? "  private Node" + (layer + 1) + "x0 left;\n  private Node" + (layer + 1) + "x1 right;\n"
+                                    : "  private String value;\n")
+                            + "}\n");
+                }
+            }
+            sources.put("Service", "public class Service {\n"
+                    + "  public Node0x0 get(Node0x1 arg) { return null; }\n"
+                    + "}\n");
+        }
+    },
+
+    /**
+     * Heavily parametrized types of results, arguments and properties.
+     */
+    GENERIC {
+        @Override
+        void generate(Map<String, String> sources) {
+            int types = 50;
+            StringBuilder service = new StringBuilder("import java.util.*;\npublic class Service {\n");
+            for (int i = 0; i < types; i++) {
+                sources.put("Leaf" + i, "public class Leaf" + i + " {\n"
+                        + "  private String value;\n"
+                        + "}\n");
+                sources.put("Holder" + i, "import java.util.*;\npublic class Holder" + i + " {\n"
+                        + "  private Map<String, List<Set<Leaf" + i + ">>> values;\n"
+                        + "  private List<Map<Leaf" + i + ", Leaf" + i + "[]>> pairs;\n"
+                        + "}\n");
+                service.append("  public Map<String, List<Set<Holder").append(i).append(">>> get").append(i)
+                        .append("(List<Holder").append(i).append("> arg) { return null; }\n");
+            }
+            sources.put("Service", service.append("}\n").toString());
+        }
+    },
+
+    /**
+     * Ring of types, each refers to the next one and to the first one.
+     */
+    CYCLIC {
+        @Override
+        void generate(Map<String, String> sources) {
+            int size = 50;
+            for (int i = 0; i < size; i++) {
+                sources.put("Ring" + i, "public class Ring" + i + " {\n"
+                        + "  private String name;\n"
+                        + "  private Ring" + ((i + 1) % size) + " next;\n"
+                        + "  private Ring0 first;\n"
+                        + "}\n");
+            }
+            sources.put("Service", "public class Service {\n"
+                    + "  public Ring0 get(Ring" + (size / 2) + " arg) { return null; }\n"
+                    + "}\n");
+        }
+    };
+
+    /**
+     * Generates sources of classes.
+     *
+     * @param sources map of simple class names (classes are in <code>synthetic</code> package) to
+     *        their sources, without package declaration.
+     */
+    abstract void generate(Map<String, String> sources);
+
+}
@@ -0,0 +1,104 @@
+package pl.ais.tools.apivisitor.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.Visitor;
+
+/**
+ * Visitors used by benchmarks.
+ */
+public enum BenchmarkVisitor {
+
+    /**
+     * No-op visitor, that consumes all events - so whole API is walked.
+     */
+    BASE {
+        @Override
+        Visitor create(Blackhole blackhole) {
+            return new BaseVisitor();
+        }
+    },
+
+    /**
+     * {@link CollectingVisitor}.
+     */
+    COLLECTING {
+        @Override
+        Visitor create(Blackhole blackhole) {
+            return new CollectingVisitor();
+        }
+    },
+
+    /**
+     * Visitor formatting indented lines (like documentation generators do), consumed by blackhole.
+     */
+    PRINTING {
+        @Override
+        Visitor create(Blackhole blackhole) {
+            return new PrintingVisitor(blackhole);
+        }
+    };
+
+    abstract Visitor create(Blackhole blackhole);
+
+    private static final class PrintingVisitor extends BaseVisitor {
+
+        private final Blackhole blackhole;
+
+        private final StringBuilder line = new StringBuilder();
+
+        private int depth;
+
+        PrintingVisitor(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            print("method ", method.getName());
+            depth++;
+        }
+
+        @Override
+        public void finishMethodProcessing(Method method) {
+            depth--;
+        }
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            print("property ", name);
+            depth++;
+        }
+
+        @Override
+        public void finishPropertyProcessing(String name, Type type) {
+            depth--;
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            print("type ", type.getTypeName());
+            depth++;
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            depth--;
+        }
+
+        private void print(String prefix, String name) {
+            line.setLength(0);
+            for (int i = 0; i < depth; i++) {
+                line.append("  ");
+            }
+            blackhole.consume(line.append(prefix).append(name).toString());
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package pl.ais.tools.apivisitor.benchmarks;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles synthetic APIs and loads their service classes.
+ *
+ * Requires JDK (not JRE) - sources are compiled using system Java compiler.
+ */
+final class SyntheticApi {
+
+    private static final String PACKAGE = "synthetic";
+
+    private SyntheticApi() {
+    }
+
+    /**
+     * @param shape shape of API.
+     * @return <code>synthetic.Service</code> class of API.
+     */
+    static Class<?> compile(ApiShape shape) throws IOException, ClassNotFoundException {
+        Map<String, String> sources = new LinkedHashMap<>();
+        shape.generate(sources);
+
+        Path directory = Files.createTempDirectory("api-" + shape.name().toLowerCase());
+        Path sourceDirectory = Files.createDirectories(directory.resolve(PACKAGE));
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-nowarn");
+        arguments.add("-d");
+        arguments.add(directory.toString());
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDirectory.resolve(source.getKey() + ".java");
+            Files.write(file, ("package " + PACKAGE + ";\n" + source.getValue()).getBytes(StandardCharsets.UTF_8));
+            arguments.add(file.toString());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler not available, benchmarks must be run using JDK");
+        }
+        if (compiler.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+            throw new IllegalStateException("unable to compile " + shape + " API");
+        }
+        ClassLoader classLoader = new URLClassLoader(new URL[] { directory.toUri().toURL() },
+                SyntheticApi.class.getClassLoader());
+        return classLoader.loadClass(PACKAGE + ".Service");
+    }
+
+}
@@ -0,0 +1,117 @@
+package pl.ais.tools.apivisitor.jfr;
+
+import java.lang.reflect.Type;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import pl.ais.tools.apivisitor.WalkListener;
+import pl.ais.tools.apivisitor.WalkMetrics;
+
+/**
+ * {@link WalkListener}, that records metrics as Java Flight Recorder events.
+ *
+ * Each walk of service class (or type) is recorded as <code>pl.ais.tools.apivisitor.Walk</code>
+ * event. Each walked type could be recorded as <code>pl.ais.tools.apivisitor.TypeWalk</code>
+ * event - there are many of them, so they are disabled by default and have to be enabled
+ * in recording settings.
+ *
+ * Listener requires JDK 11 or newer (with <code>jdk.jfr</code> module), so it's built as a separate
+ * artifact - API Visitor itself targets Java 8. Events are written only when recording is running.
+ */
+public final class JfrWalkListener implements WalkListener {
+
+    @Override
+    public void typeWalked(Type type, int depth, long nanos) {
+        TypeWalkEvent event = new TypeWalkEvent();
+        if (event.isEnabled()) {
+            event.type = type.getTypeName();
+            event.depth = depth;
+            event.walkTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void walkFinished(WalkMetrics metrics) {
+        WalkEvent event = new WalkEvent();
+        if (event.isEnabled()) {
+            event.element = metrics.getElement().getTypeName();
+            event.walkTime = metrics.getNanos();
+            event.visitorTime = metrics.getVisitorNanos();
+            event.nodes = metrics.getNodes();
+            event.maxDepth = metrics.getMaxDepth();
+            event.cycles = metrics.getCycles();
+            event.alreadyVisited = metrics.getAlreadyVisited();
+            event.metadataHits = metrics.getMetadataHits();
+            event.metadataMisses = metrics.getMetadataMisses();
+            event.reflectionCalls = metrics.getReflectionCalls();
+            event.commit();
+        }
+    }
+
+    @Name("pl.ais.tools.apivisitor.Walk")
+    @Label("API Walk")
+    @Category("API Walker")
+    @Description("Walk of service class or type")
+    static final class WalkEvent extends Event {
+
+        @Label("Service or Type")
+        String element;
+
+        @Label("Walk Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long walkTime;
+
+        @Label("Visitor Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long visitorTime;
+
+        @Label("Walked Types")
+        int nodes;
+
+        @Label("Maximum Depth")
+        int maxDepth;
+
+        @Label("Dependency Cycles")
+        int cycles;
+
+        @Label("Already Visited Types")
+        int alreadyVisited;
+
+        @Label("Metadata Cache Hits")
+        int metadataHits;
+
+        @Label("Metadata Cache Misses")
+        int metadataMisses;
+
+        @Label("Reflection Calls")
+        int reflectionCalls;
+
+    }
+
+    @Name("pl.ais.tools.apivisitor.TypeWalk")
+    @Label("API Type Walk")
+    @Category("API Walker")
+    @Description("Walk of type, including its children")
+    @Enabled(false)
+    static final class TypeWalkEvent extends Event {
+
+        @Label("Type")
+        String type;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("Walk Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long walkTime;
+
+    }
+
+}
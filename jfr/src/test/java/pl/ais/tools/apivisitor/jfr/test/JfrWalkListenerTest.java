@@ -0,0 +1,53 @@
+package pl.ais.tools.apivisitor.jfr.test;
+
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.jfr.JfrWalkListener;
+import pl.ais.tools.apivisitor.jfr.test.objects.OrderService;
+
+public class JfrWalkListenerTest {
+
+    @Test
+    public void testJfrEvents() throws Exception {
+        Path file = Files.createTempFile("walk", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("pl.ais.tools.apivisitor.Walk");
+            recording.enable("pl.ais.tools.apivisitor.TypeWalk");
+            recording.start();
+            APIWalker walker = new APIWalker();
+            walker.setVisitor(new BaseVisitor() {
+
+                @Override
+                public void beginTypeProcessing(Type type) {
+                }
+
+            });
+            walker.setWalkListener(new JfrWalkListener());
+            walker.visit(OrderService.class);
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Assert.assertEquals(1, events.stream()
+                    .filter(event -> event.getEventType().getName().equals("pl.ais.tools.apivisitor.Walk"))
+                    .filter(event -> OrderService.class.getName().equals(event.getString("element")))
+                    .count());
+            Assert.assertTrue(events.stream()
+                    .anyMatch(event -> event.getEventType().getName().equals("pl.ais.tools.apivisitor.TypeWalk")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.jfr.test.objects;
+
+public class Order {
+
+    private String number;
+
+    private Order previous;
+
+}
@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.jfr.test.objects;
+
+public interface OrderService {
+
+    Order find(String number);
+
+}
@@ -1,26 +1,38 @@
 package pl.ais.tools.apivisitor;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.Stack;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
+import pl.ais.tools.apivisitor.ClassModel.MethodModel;
+import pl.ais.tools.apivisitor.ClassModel.PropertyModel;
+import pl.ais.tools.apivisitor.ClassModel.Signature;
+
 /**
  * Service API structure walker.
  *
@@ -130,6 +142,15 @@ import java.util.function.Predicate;
  * Please, see {@link Visitor#unsupportedType(java.util.List, Type)} for a list
  * of supported types.
  *
+ * Type variables are resolved against parametrizations of generic classes: when
+ * <code>OrderService extends Service&lt;Order&gt;</code> is visited, methods declared by
+ * <code>Service</code> are reported with <code>T</code> replaced by <code>Order</code>, and
+ * properties of <code>Page&lt;Order&gt;</code> are walked (as properties of its raw type
+ * <code>Page</code>) with <code>T</code> replaced by <code>Order</code>. Type variables, that
+ * could not be resolved (like ones declared by methods), are walked through their bounds,
+ * wildcards are walked through their upper and lower bounds, generic arrays through their
+ * component types.
+ *
  * In addition, there's a concept of <em>primitive</em> types in API Walker.
  * Java's primitives (<code>int</code>, <code>long</code> etc) does not have
  * fields. But for example <code>String.class</code> has fields.
@@ -151,7 +172,66 @@ import java.util.function.Predicate;
  * <code>java.time.LocalDateTime</code>
  * Additional types could be configured using {@link #addPrimitiveTypes(Type...)} method.
  *
- * <em>Implementation note</em>: this class is not thread-safe.
+ * Other types are classified by their {@link TypeShape}, computed once per class: besides
+ * primitive types, enums, wrappers of Java primitives, <code>java.time</code> classes,
+ * <code>UUID</code> and other JDK value classes are leaves, JDK collections, maps and
+ * <code>Optional</code> are containers (walked only through their type arguments), arrays
+ * are walked through their components and other classes (beans) through their properties.
+ * Classification could be changed using {@link #addShapeRules(ShapeRule...)}.
+ *
+ * By default every occurrence of a type is walked through again, so a type used
+ * by many methods (or shared by many other types) is analyzed many times.
+ * When <em>memoized</em> mode is enabled using {@link #setMemoizeTypes(boolean)},
+ * type is walked only once during single {@link #visit(Class...)} or
+ * {@link #visitTypes(Type...)} call, each subsequent occurrence of that type
+ * is reported using {@link Visitor#typeAlreadyVisited(Type)} instead.
+ * Dependency cycles are still detected: whenever there's a cycle in visited
+ * types, it's reported by {@link Visitor#dependencyCycleDetected(java.util.List)}
+ * while walking the first occurrence of types, that are part of that cycle.
+ *
+ * Types are identified by canonical keys (see {@link TypeInterner}): structurally equal
+ * types share a key with an int id, so checking whether type is terminating, primitive,
+ * already visited or a part of the current path does not compare generic types deeply.
+ * Walker also provides dense ids of service classes and methods (see {@link #getServiceIds()}
+ * and {@link #getMethodIds()}), so visitors could keep collected elements in bit sets
+ * (see {@link CompactCollectingVisitor}).
+ *
+ * Reflection metadata (declared fields and methods, their generic types) is read
+ * once per class and kept in {@link TypeMetadataCache}, shared by default by all
+ * walkers. Separate cache could be configured using {@link #setMetadataCache(TypeMetadataCache)}.
+ * Once types are known to walker, walking them does not allocate: the path of types is a
+ * single buffer reused by all walks (and passed to visitors as a live view), so are frames of
+ * walked types, type arguments and bounds are read once per interned type and members are
+ * iterated over cached arrays.
+ *
+ * Walking is not recursive: walked types and super classes of services are kept on explicit stacks,
+ * so deep type graphs (long inheritance chains, deeply nested generic types) do not overflow
+ * thread's stack, which matters for threads with small stacks (like virtual threads).
+ *
+ * Walking could be limited, so that huge type graphs do not exceed worst-case latency:
+ * see {@link #setMaxDepth(int)}, {@link #setMaxNodes(int)} and {@link #setTimeBudget(long, TimeUnit)}.
+ * Reached limits are reported using {@link Visitor#limitReached(java.util.List, Limit)}.
+ *
+ * Walking could be instrumented using {@link #setWalkListener(WalkListener)}: listener
+ * receives {@link WalkMetrics} of each service (and timing of each type), so it's possible
+ * to tell whether time is spent by walker (for example reading reflection metadata)
+ * or by visitor.
+ *
+ * Visitors receive only events they consume (see {@link Visitor#consumedEvents()}), declared
+ * by {@link ConsumedEvents} annotation - visitors without it consume all events. Methods (and types)
+ * are not walked at all, when visitor does not consume any of their events.
+ *
+ * Service classes of a package or a module could be visited as a single batch, sharing walked
+ * types, see {@link #visitBatch(Collection)}.
+ *
+ * Events could also be pulled, instead of being pushed to visitor, see {@link ApiEventReader}.
+ *
+ * Walking could be controlled by visitor: when {@link PruningVisitor} is supplied
+ * using {@link #setVisitor(PruningVisitor)}, its decisions allow skipping children
+ * or siblings of methods, arguments, properties and types or stopping the walk.
+ *
+ * <em>Implementation note</em>: this class is not thread-safe. In order to visit
+ * service classes concurrently use {@link ParallelAPIWalker}.
  */
 public class APIWalker {
 
@@ -165,17 +245,165 @@ public class APIWalker {
      */
     public static final Predicate<Type> DEFAULT_TYPE_ACCEPTOR = (any) -> true;
 
-    private final Collection<Class<?>> terminatingServices = createTerminatingServices();
+    private final Collection<Class<?>> terminatingServices;
+
+    private final Collection<Type> terminatingTypes;
 
-    private final Collection<Type> terminatingTypes = createTerminatingTypes();
+    private final Collection<Type> primitiveTypes;
 
-    private final Collection<Type> primitiveTypes = createPrimitiveTypes();
+    private final List<ShapeRule> shapeRules;
 
     private Predicate<Method> methodAcceptor = DEFAULT_METHOD_ACCEPTOR;
 
+    /**
+     * Method acceptor, if it's a {@link MethodFilter}.
+     */
+    private MethodFilter methodFilter;
+
+    /**
+     * Signatures of methods walked for current service, if methods are walked once per signature.
+     */
+    private final Set<Signature> signatures = new HashSet<>();
+
     private Predicate<Type> typeAcceptor = DEFAULT_TYPE_ACCEPTOR;
 
-    private Visitor visitor;
+    private PruningVisitor visitor;
+
+    /**
+     * Events consumed by visitor, see {@link EventMask}.
+     */
+    private int events;
+
+    private boolean memoizeTypes;
+
+    private TypeMetadataCache metadataCache = TypeMetadataCache.getDefault();
+
+    private TypeInterner typeInterner = new TypeInterner();
+
+    private final ElementIds<Class<?>> serviceIds = new ElementIds<>();
+
+    private final ElementIds<Method> methodIds = new ElementIds<>();
+
+    /**
+     * Shapes of interned types (indexed by ids), <code>null</code> if not classified yet.
+     */
+    private TypeShape[] typeShapes = new TypeShape[0];
+
+    private final BitSet visitedTypes = new BitSet();
+
+    /**
+     * Child types of interned generic types (indexed by ids): type arguments of parametrized types,
+     * bounds of type variables and wildcards. Reflection clones these arrays on every call.
+     */
+    private Type[][] typeChildren = new Type[0][];
+
+    /**
+     * Models of generic classes resolved against their parametrizations (indexed by ids of owner types).
+     * They're kept by walker, not by shared {@link TypeMetadataCache}, so owner types are not retained.
+     */
+    private ClassModel[] resolvedModels = new ClassModel[0];
+
+    /**
+     * Path of walked types, reused by all walks (it's empty between them).
+     */
+    private final TypePath path = new TypePath();
+
+    /**
+     * Stack of walked types (reused frames, the first <code>frameCount</code> ones are in use).
+     */
+    private Frame[] frames = new Frame[0];
+
+    private int frameCount;
+
+    /**
+     * Stack of walked service classes (service class and its super classes).
+     */
+    private final List<Class<?>> services = new ArrayList<>();
+
+    private int maxDepth;
+
+    private int maxNodes;
+
+    private long timeBudget;
+
+    /**
+     * Walking of current service (or type) is stopped, because visitor requested it or limit was reached.
+     */
+    private boolean stopped;
+
+    /**
+     * Walking of all services (or types) is stopped, because visitor requested it.
+     */
+    private boolean visitStopped;
+
+    /**
+     * Stop requested by visitor of any walker sharing it (workers of {@link ParallelAPIWalker}),
+     * <code>null</code> if it's not shared.
+     */
+    private AtomicBoolean sharedStop;
+
+    private int nodes;
+
+    private long deadline;
+
+    private WalkListener walkListener;
+
+    /**
+     * Metrics of current walk, <code>null</code> if there's no listener.
+     */
+    private WalkMetrics metrics;
+
+    public APIWalker() {
+        terminatingServices = createTerminatingServices();
+        terminatingTypes = createTerminatingTypes();
+        primitiveTypes = createPrimitiveTypes();
+        shapeRules = new ArrayList<>();
+    }
+
+    /**
+     * Creates walker with the same configuration (terminating services and types,
+     * primitive types, shape rules, acceptors, visitor, memoized mode, metadata cache, limits and walk listener)
+     * as given walker.
+     *
+     * @param configuration walker to copy configuration from.
+     */
+    protected APIWalker(APIWalker configuration) {
+        this(configuration, false);
+    }
+
+    /**
+     * Creates walker with the same configuration as given walker. Shared configuration
+     * (terminating services and types, primitive types and shape rules) is not copied,
+     * so given walker must be a private snapshot, which is never configured anymore - like
+     * snapshots taken by {@link WalkerPool} and {@link ParallelAPIWalker}.
+     *
+     * @param configuration walker to copy configuration from, a private snapshot when it's shared.
+     * @param shared <code>true</code> to share configuration instead of copying it.
+     */
+    APIWalker(APIWalker configuration, boolean shared) {
+        if (shared) {
+            terminatingServices = configuration.terminatingServices;
+            terminatingTypes = configuration.terminatingTypes;
+            primitiveTypes = configuration.primitiveTypes;
+            shapeRules = configuration.shapeRules;
+        } else {
+            terminatingServices = new HashSet<>(configuration.terminatingServices);
+            terminatingTypes = new HashSet<>(configuration.terminatingTypes);
+            primitiveTypes = new HashSet<>(configuration.primitiveTypes);
+            shapeRules = new ArrayList<>(configuration.shapeRules);
+        }
+        methodAcceptor = configuration.methodAcceptor;
+        methodFilter = configuration.methodFilter;
+        typeAcceptor = configuration.typeAcceptor;
+        visitor = configuration.visitor;
+        events = configuration.events;
+        memoizeTypes = configuration.memoizeTypes;
+        metadataCache = configuration.metadataCache;
+        maxDepth = configuration.maxDepth;
+        maxNodes = configuration.maxNodes;
+        timeBudget = configuration.timeBudget;
+        walkListener = configuration.walkListener;
+    }
 
     /**
      * Visit service classes.
@@ -186,88 +414,803 @@ public class APIWalker {
      * @throws NullPointerException if there's no visitor.
      */
     public void visit(Class<?>... classes) {
-        if (visitor == null) {
-            throw new NullPointerException("visitor not provided");
+        visitServices(classes);
+    }
+
+    /**
+     * Visits a batch of service classes (like all services of a package or a module, found by
+     * {@link pl.ais.tools.apivisitor.classpath.ClasspathScanner}) sharing a table of visited types:
+     * regardless of <em>memoized</em> mode, each type is walked once per batch - by the first service
+     * class using it - and reported to other service classes using {@link Visitor#typeAlreadyVisited(Type)}.
+     * Types not walked completely (skipped by visitor or cut off by limits) are walked again by following
+     * service classes.
+     *
+     * Service classes are visited by this walker (subclasses, like {@link ParallelAPIWalker}, do not
+     * change it) in order of their names, each once, so events are reported in deterministic order,
+     * independent of order of given service classes.
+     *
+     * @param classes service classes to visit.
+     * @throws NullPointerException if there's no visitor.
+     * @see ApiModel#buildBatch(APIWalker, Collection)
+     */
+    public void visitBatch(Collection<? extends Class<?>> classes) {
+        boolean memoize = memoizeTypes;
+        memoizeTypes = true;
+        try {
+            visitServices(sortBatch(classes));
+        } finally {
+            memoizeTypes = memoize;
         }
-        for (Class<?> clazz : classes) {
-            if (clazz != null && !terminatingServices.contains(clazz)) {
-                visitor.beginServiceProcessing(clazz);
-                Arrays.stream(clazz.getDeclaredMethods()).filter(methodAcceptor).forEach(this::visit);
-                visit(clazz.getSuperclass());
-                visitor.finishServiceProcessing(clazz);
+    }
+
+    /**
+     * @return service classes of batch, in visiting order.
+     */
+    static Class<?>[] sortBatch(Collection<? extends Class<?>> classes) {
+        return classes.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted(Comparator.comparing(Class::getName))
+                .toArray(Class<?>[]::new);
+    }
+
+    private void visitServices(Class<?>... classes) {
+        startVisit();
+        TimingVisitor timing = startTiming();
+        try {
+            for (Class<?> clazz : classes) {
+                if (visitStopped) {
+                    break;
+                }
+                walkService(clazz, timing);
             }
+        } finally {
+            finishTiming(timing);
         }
     }
 
     public void visitTypes(Type ... types) {
+        startVisit();
+        TimingVisitor timing = startTiming();
+        try {
+            for (Type type : types) {
+                if (visitStopped) {
+                    break;
+                }
+                walkType(type, timing);
+            }
+        } finally {
+            finishTiming(timing);
+        }
+    }
+
+    /**
+     * Visits the next service class of a sequence, as if it was a part of a single
+     * {@link #visit(Class...)} call (memoized types are shared by the sequence).
+     *
+     * @param clazz service class to visit.
+     * @param first <code>true</code> if it's the first service class of sequence.
+     * @return <code>false</code> if visitor stopped walking, so the rest of sequence should not be visited.
+     * @see ApiEventReader
+     */
+    boolean visitNext(Class<?> clazz, boolean first) {
+        if (first) {
+            startVisit();
+        }
+        if (sharedStop != null && sharedStop.get()) {
+            visitStopped = true;
+        }
+        if (!visitStopped) {
+            TimingVisitor timing = startTiming();
+            try {
+                walkService(clazz, timing);
+            } finally {
+                finishTiming(timing);
+            }
+        }
+        return !visitStopped;
+    }
+
+    /**
+     * Visits the next type of a sequence, as if it was a part of a single {@link #visitTypes(Type...)} call.
+     *
+     * @param type type to visit.
+     * @param first <code>true</code> if it's the first type of sequence.
+     * @return <code>false</code> if visitor stopped walking, so the rest of sequence should not be visited.
+     * @see ApiEventReader
+     */
+    boolean visitNextType(Type type, boolean first) {
+        if (first) {
+            startVisit();
+        }
+        if (!visitStopped) {
+            TimingVisitor timing = startTiming();
+            try {
+                walkType(type, timing);
+            } finally {
+                finishTiming(timing);
+            }
+        }
+        return !visitStopped;
+    }
+
+    /**
+     * Shares stop of walking with other walkers: when visitor of any of them stops walking
+     * (see {@link Traversal#STOP}), the others stop at their next decision of visitor
+     * and do not start next service classes.
+     *
+     * @param sharedStop flag shared by walkers, <code>null</code> to stop independently.
+     * @see ParallelAPIWalker
+     */
+    void setSharedStop(AtomicBoolean sharedStop) {
+        this.sharedStop = sharedStop;
+    }
+
+    private void startVisit() {
         if (visitor == null) {
             throw new NullPointerException("visitor not provided");
         }
-        for (Type type : types) {
-            visit(new Stack<>(), type);
+        visitedTypes.clear();
+        typeInterner.clearInstances();
+        visitStopped = false;
+    }
+
+    private void walkService(Class<?> clazz, TimingVisitor timing) {
+        startBudget();
+        if (timing == null || clazz == null) {
+            visitService(clazz, clazz);
+        } else {
+            long start = startMetrics(clazz, timing);
+            visitService(clazz, clazz);
+            finishMetrics(start, timing);
+        }
+    }
+
+    private void walkType(Type type, TimingVisitor timing) {
+        startBudget();
+        if (timing == null || type == null) {
+            visitType(type);
+        } else {
+            long start = startMetrics(type, timing);
+            visitType(type);
+            finishMetrics(start, timing);
+        }
+    }
+
+    /**
+     * Starts measuring time spent inside visitor's callbacks, if there's a listener.
+     */
+    private TimingVisitor startTiming() {
+        if (walkListener == null) {
+            return null;
         }
+        TimingVisitor timing = new TimingVisitor(visitor);
+        visitor = timing;
+        return timing;
+    }
+
+    private void finishTiming(TimingVisitor timing) {
+        if (timing != null) {
+            visitor = timing.getTarget();
+            metrics = null;
+        }
+    }
+
+    private long startMetrics(Type element, TimingVisitor timing) {
+        metrics = new WalkMetrics(element);
+        timing.takeNanos();
+        return System.nanoTime();
     }
 
+    private void finishMetrics(long start, TimingVisitor timing) {
+        WalkMetrics result = metrics;
+        result.finish(System.nanoTime() - start, timing.takeNanos());
+        metrics = null;
+        walkListener.walkFinished(result);
+    }
+
+    /**
+     * @param owner generic type of service class, binding its type variables.
+     */
+    private void visitService(Class<?> clazz, Type owner) {
+        int base = services.size();
+        signatures.clear();
+        // super classes are nested in their subclasses - they are finished in reverse order
+        while (clazz != null && !terminatingServices.contains(clazz) && !stopped) {
+            if (consumes(EventMask.BEGIN_SERVICE)) {
+                visitor.beginServiceProcessing(clazz);
+            }
+            services.add(clazz);
+            boolean siblings = true;
+            ClassModel model = modelOf(clazz, owner);
+            if (consumes(EventMask.METHOD_EVENTS)) {
+                MethodModel[] methods;
+                if (metrics != null) {
+                    methods = metrics.methods(model, methodFilter);
+                } else if (methodFilter != null) {
+                    methods = model.getMethods(methodFilter);
+                } else {
+                    methods = model.getMethods();
+                }
+                for (int i = 0; i < methods.length && siblings; i++) {
+                    if (accepts(methods[i])) {
+                        siblings = visit(methods[i]);
+                    }
+                }
+            }
+            if (!siblings) {
+                break;
+            }
+            owner = model.getGenericSuperclass();
+            clazz = clazz.getSuperclass();
+        }
+        for (int i = services.size() - 1; i >= base; i--) {
+            Class<?> service = services.remove(i);
+            if (consumes(EventMask.FINISH_SERVICE)) {
+                visitor.finishServiceProcessing(service);
+            }
+        }
+    }
+
+    /**
+     * Methods accepted by {@link MethodFilter} are already filtered, only their signatures are checked.
+     */
+    private boolean accepts(MethodModel method) {
+        if (methodFilter == null) {
+            return methodAcceptor.test(method.getMethod());
+        }
+        return !methodFilter.isUniqueSignatures() || signatures.add(method.getSignature());
+    }
+
+    private void visitType(Type type) {
+        if (consumes(EventMask.TYPE_EVENTS)) {
+            visit(path, type, null);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if walking should continue with siblings of method.
+     */
     @SuppressWarnings("unchecked")
-    private void visit(Method method) {
-        visitor.beginMethodProcessing(method);
-        Type returnType = method.getGenericReturnType();
-        visitor.beginResultProcessing(method, returnType);
-        visitTypes(returnType);
-        visitor.finishResultProcessing(method, returnType);
-        Type[] argTypes = method.getGenericParameterTypes();
-        for (int i = 0; i < argTypes.length; i++) {
-            visitor.beginArgumentProcessing(method, i, argTypes[i]);
-            visitTypes(argTypes[i]);
-            visitor.finishArgumentProcessing(method, i, argTypes[i]);
-        }
-        for (Class<?> exceptionType : method.getExceptionTypes()) {
-            visitor.beginThrowableProcessing(method, (Class<? extends Throwable>) exceptionType);
-            visitTypes(exceptionType);
-            visitor.finishThrowableProcessing(method, (Class<? extends Throwable>) exceptionType);
-        }
-        visitor.finishMethodProcessing(method);
-    }
-
-    private void visit(Stack<Type> path, Type type) {
-        if (typeAcceptor.test(type) && !terminatingTypes.contains(type)) {
-            if (path.contains(type)) {
-                visitor.dependencyCycleDetected(Collections.unmodifiableList(path));
+    private boolean visit(MethodModel model) {
+        Method method = model.getMethod();
+        Traversal traversal = consumes(EventMask.BEGIN_METHOD)
+                ? visitor.beginMethodProcessing(method) : Traversal.CONTINUE;
+        if (descend(traversal)) {
+            Type returnType = model.getResultType();
+            if (consumes(EventMask.BEGIN_RESULT)) {
+                visitor.beginResultProcessing(method, returnType);
+            }
+            visitType(returnType);
+            if (consumes(EventMask.FINISH_RESULT)) {
+                visitor.finishResultProcessing(method, returnType);
+            }
+            boolean siblings = !stopped;
+            Type[] argTypes = model.getArgumentTypes();
+            for (int i = 0; i < argTypes.length && siblings; i++) {
+                Traversal argTraversal = consumes(EventMask.BEGIN_ARGUMENT)
+                        ? visitor.beginArgumentProcessing(method, i, argTypes[i]) : Traversal.CONTINUE;
+                if (descend(argTraversal)) {
+                    visitType(argTypes[i]);
+                }
+                if (consumes(EventMask.FINISH_ARGUMENT)) {
+                    visitor.finishArgumentProcessing(method, i, argTypes[i]);
+                }
+                siblings = siblings(argTraversal);
+            }
+            Class<?>[] exceptionTypes = model.getExceptionTypes();
+            for (int i = 0; i < exceptionTypes.length && siblings; i++) {
+                Class<? extends Throwable> exceptionType = (Class<? extends Throwable>) exceptionTypes[i];
+                if (consumes(EventMask.BEGIN_THROWABLE)) {
+                    visitor.beginThrowableProcessing(method, exceptionType);
+                }
+                visitType(exceptionType);
+                if (consumes(EventMask.FINISH_THROWABLE)) {
+                    visitor.finishThrowableProcessing(method, exceptionType);
+                }
+                siblings = !stopped;
+            }
+        }
+        if (consumes(EventMask.FINISH_METHOD)) {
+            visitor.finishMethodProcessing(method);
+        }
+        return siblings(traversal);
+    }
+
+    /**
+     * Walks type and its children iteratively: instead of recursion, walked types are kept
+     * on a stack of {@link Frame}s, so the depth of walked types is not limited by thread's stack.
+     *
+     * @param owner parametrized type, which raw type (or super class) is walked, binding
+     *        type variables of walked class; memoized types are distinguished by owner types.
+     * @return <code>true</code> if walking should continue with siblings of type.
+     */
+    private boolean visit(TypePath path, Type type, Type owner) {
+        int base = frameCount;
+        boolean result = enter(path, type, owner);
+        while (frameCount > base) {
+            Frame frame = frames[frameCount - 1];
+            Type child = nextChild(frame, result);
+            if (child != null) {
+                result = enter(path, child, frame.childOwner);
             } else {
-                path.push(type);
-                visitor.beginTypeProcessing(type);
-                if (type instanceof ParameterizedType) {
-                    ParameterizedType pType = (ParameterizedType) type;
-                    visit(path, pType.getRawType());
-                    for (Type argType : pType.getActualTypeArguments()) {
-                        visit(path, argType);
-                    }
-                } else if (type instanceof Class && !primitiveTypes.contains(type)) {
-                    Class<?> cType = (Class<?>) type;
-                    if (cType.isArray()) {
-                        visit(path, cType.getComponentType());
-                    } else {
-                        Field[] fields = cType.getDeclaredFields();
-                        for (Field field : fields) {
-                            visitor.beginPropertyProcessing(field.getName(), field.getGenericType());
-                            visit(path, field.getGenericType());
-                            visitor.finishPropertyProcessing(field.getName(), field.getGenericType());
-                        }
-                        if (cType.getSuperclass() != null) {
-                            visit(path, cType.getSuperclass());
-                        }
-                    }
-                } else {
-                    visitor.unsupportedType(Collections.unmodifiableList(path), type);
+                result = exit(path, frame);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Begins walking of type: reports it and pushes its frame, unless type is not walked
+     * (not accepted, terminating, closing a cycle, already visited or beyond limits).
+     *
+     * @return <code>true</code> if frame was pushed, otherwise whether walking should
+     *         continue with siblings of type.
+     */
+    private boolean enter(TypePath path, Type type, Type owner) {
+        if (!typeAcceptor.test(type)) {
+            return !stopped;
+        }
+        TypeKey typeKey = typeInterner.intern(type);
+        TypeShape shape = shapeOf(typeKey);
+        if (shape == TypeShape.TERMINATING) {
+            return !stopped;
+        }
+        TypeKey key = owner instanceof ParameterizedType ? typeInterner.intern(owner) : typeKey;
+        if (path.contains(typeKey)) {
+            // recursive bounds of type variables (like <T extends Comparable<T>>) are not cycles
+            if (!(type instanceof TypeVariable)) {
+                if (metrics != null) {
+                    metrics.cycleDetected();
+                }
+                cycleDetected(path, type);
+            }
+            return !stopped;
+        } else if (memoizeTypes && visitedTypes.get(key.getId())) {
+            if (metrics != null) {
+                metrics.typeAlreadyVisited();
+            }
+            typeAlreadyVisited(key, type);
+            return !stopped;
+        }
+        path.push(type, typeKey);
+        if (!withinLimits(path)) {
+            path.pop();
+            if (frameCount > 0) {
+                frames[frameCount - 1].complete = false;
+            }
+            return !stopped;
+        }
+        long start = metrics == null ? 0 : metrics.typeStarted(path.size());
+        Traversal traversal = consumes(EventMask.BEGIN_TYPE)
+                ? visitor.beginTypeProcessing(type) : Traversal.CONTINUE;
+        boolean children = descend(traversal);
+        Frame frame = pushFrame();
+        frame.type = type;
+        frame.key = key;
+        frame.traversal = traversal;
+        frame.start = start;
+        frame.complete = children;
+        if (shape == TypeShape.LEAF) {
+            // leaves are reported, but not walked
+        } else if (type instanceof ParameterizedType) {
+            if (children) {
+                frame.children = Frame.PARAMETERIZED;
+                frame.component = ((ParameterizedType) type).getRawType();
+                frame.types = childrenOf(typeKey, type);
+            }
+        } else if (type instanceof Class) {
+            if (children) {
+                enterClass(frame, (Class<?>) type, owner, shape);
+            }
+        } else if (type instanceof TypeVariable || type instanceof WildcardType) {
+            if (children) {
+                frame.children = Frame.TYPES;
+                frame.types = childrenOf(typeKey, type);
+            }
+        } else if (type instanceof GenericArrayType) {
+            if (children) {
+                frame.children = Frame.COMPONENT;
+                frame.component = ((GenericArrayType) type).getGenericComponentType();
+            }
+        } else if (consumes(EventMask.UNSUPPORTED_TYPE)) {
+            visitor.unsupportedType(path, type);
+        }
+        return true;
+    }
+
+    /**
+     * Array is walked through its component type, bean through its properties and super class.
+     * Containers are walked only through type arguments of their parametrizations.
+     */
+    private void enterClass(Frame frame, Class<?> cType, Type owner, TypeShape shape) {
+        if (cType.isArray()) {
+            frame.children = Frame.COMPONENT;
+            frame.component = cType.getComponentType();
+        } else if (shape == TypeShape.BEAN) {
+            ClassModel model = modelOf(cType, owner);
+            frame.children = Frame.BEAN;
+            frame.cType = cType;
+            frame.model = model;
+            frame.properties = metrics == null ? model.getProperties() : metrics.properties(model);
+        }
+    }
+
+    /**
+     * @param result whether walking should continue with siblings of the previous child
+     *        (ignored, when there was no previous child).
+     * @return next child of type, <code>null</code> if there are no more children to walk.
+     */
+    private Type nextChild(Frame frame, boolean result) {
+        int index = frame.index;
+        switch (frame.children) {
+            case Frame.PARAMETERIZED:
+                // raw type first (bound by parametrized type), then type arguments
+                if (index == 0) {
+                    frame.index++;
+                    frame.childOwner = frame.type;
+                    return frame.component;
+                }
+                frame.childOwner = null;
+                if (index > frame.types.length) {
+                    return null;
+                } else if (!result) {
+                    frame.complete = false;
+                    return null;
+                }
+                return frame.types[frame.index++ - 1];
+            case Frame.TYPES:
+                if (index == frame.types.length) {
+                    return null;
+                } else if (index > 0 && !result) {
+                    frame.complete = false;
+                    return null;
                 }
-                visitor.finishTypeProcessing(type);
-                path.pop();
+                return frame.types[frame.index++];
+            case Frame.COMPONENT:
+                frame.index++;
+                return index == 0 ? frame.component : null;
+            case Frame.BEAN:
+                return nextProperty(frame);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reports properties of bean, returns their types and then super class of bean.
+     */
+    private Type nextProperty(Frame frame) {
+        PropertyModel[] properties = frame.properties;
+        if (frame.inProperty) {
+            frame.inProperty = false;
+            PropertyModel property = properties[frame.index - 1];
+            if (consumes(EventMask.FINISH_PROPERTY)) {
+                visitor.finishPropertyProcessing(property.getName(), property.getType());
+            }
+            if (!siblings(frame.propertyTraversal)) {
+                frame.complete = false;
+                return null;
+            }
+        }
+        while (frame.index < properties.length) {
+            PropertyModel property = properties[frame.index++];
+            Traversal traversal = consumes(EventMask.BEGIN_PROPERTY)
+                    ? visitor.beginPropertyProcessing(property.getName(), property.getType()) : Traversal.CONTINUE;
+            if (descend(traversal)) {
+                frame.inProperty = true;
+                frame.propertyTraversal = traversal;
+                frame.childOwner = null;
+                return property.getType();
+            }
+            frame.complete = false;
+            if (consumes(EventMask.FINISH_PROPERTY)) {
+                visitor.finishPropertyProcessing(property.getName(), property.getType());
+            }
+            if (!siblings(traversal)) {
+                return null;
+            }
+        }
+        if (frame.index++ == properties.length && frame.cType.getSuperclass() != null) {
+            frame.childOwner = frame.model.getGenericSuperclass();
+            return frame.cType.getSuperclass();
+        }
+        return null;
+    }
+
+    /**
+     * Finishes walking of type and pops its frame. In <em>memoized</em> mode type is memoized only
+     * if its whole subtree was walked - not skipped by visitor, nor cut off by limits.
+     *
+     * @return <code>true</code> if walking should continue with siblings of type.
+     */
+    private boolean exit(TypePath path, Frame frame) {
+        Type type = frame.type;
+        if (consumes(EventMask.FINISH_TYPE)) {
+            visitor.finishTypeProcessing(type);
+        }
+        if (metrics != null) {
+            walkListener.typeWalked(type, path.size(), System.nanoTime() - frame.start);
+        }
+        path.pop();
+        if (!frame.complete || stopped) {
+            // subtree of incomplete type is incomplete subtree of its parent
+            if (frameCount > 1) {
+                frames[frameCount - 2].complete = false;
+            }
+        } else if (memoizeTypes) {
+            typeVisited(frame.key);
+        }
+        Traversal traversal = frame.traversal;
+        frame.clear();
+        frameCount--;
+        return siblings(traversal);
+    }
+
+    private Frame pushFrame() {
+        if (frameCount == frames.length) {
+            frames = Arrays.copyOf(frames, Math.max(16, frames.length * 2));
+        }
+        Frame frame = frames[frameCount];
+        if (frame == null) {
+            frame = new Frame();
+            frames[frameCount] = frame;
+        }
+        frameCount++;
+        return frame;
+    }
+
+    /**
+     * @return type arguments of parametrized type, bounds of type variable or upper and then
+     *         lower bounds of wildcard type - read once per interned type.
+     */
+    private Type[] childrenOf(TypeKey key, Type type) {
+        int id = key.getId();
+        if (id >= typeChildren.length) {
+            typeChildren = Arrays.copyOf(typeChildren, Math.max(typeInterner.size(), typeChildren.length * 2));
+        }
+        Type[] result = typeChildren[id];
+        if (result == null) {
+            if (type instanceof ParameterizedType) {
+                result = ((ParameterizedType) type).getActualTypeArguments();
+            } else if (type instanceof TypeVariable) {
+                result = ((TypeVariable<?>) type).getBounds();
+            } else {
+                WildcardType wType = (WildcardType) type;
+                Type[] upperBounds = wType.getUpperBounds();
+                Type[] lowerBounds = wType.getLowerBounds();
+                result = Arrays.copyOf(upperBounds, upperBounds.length + lowerBounds.length);
+                System.arraycopy(lowerBounds, 0, result, upperBounds.length, lowerBounds.length);
+            }
+            typeChildren[id] = result;
+        }
+        return result;
+    }
+
+    private void startBudget() {
+        stopped = false;
+        nodes = 0;
+        deadline = System.nanoTime() + timeBudget;
+    }
+
+    /**
+     * Checks limits before walking last type of path, stops walking if limit is reached.
+     */
+    private boolean withinLimits(TypePath path) {
+        Limit limit;
+        if (maxDepth > 0 && path.size() > maxDepth) {
+            limit = Limit.MAX_DEPTH;
+        } else if (maxNodes > 0 && ++nodes > maxNodes) {
+            limit = Limit.MAX_NODES;
+        } else if (timeBudget > 0 && System.nanoTime() - deadline > 0) {
+            limit = Limit.TIME_BUDGET;
+        } else {
+            return true;
+        }
+        if (consumes(EventMask.LIMIT_REACHED)) {
+            visitor.limitReached(path, limit);
+        }
+        if (limit != Limit.MAX_DEPTH) {
+            stopped = true;
+        }
+        return false;
+    }
+
+    private boolean consumes(int event) {
+        return (events & event) != 0;
+    }
+
+    /**
+     * Checks, if children of element should be visited, stops walking if requested.
+     */
+    private boolean descend(Traversal traversal) {
+        if (traversal == Traversal.STOP) {
+            stopped = true;
+            visitStopped = true;
+            if (sharedStop != null) {
+                sharedStop.set(true);
             }
+        } else if (sharedStop != null && sharedStop.get()) {
+            // other walker was stopped
+            stopped = true;
+            visitStopped = true;
+        }
+        return !stopped && (traversal == Traversal.CONTINUE || traversal == Traversal.SKIP_SIBLINGS);
+    }
+
+    /**
+     * Checks, if siblings of element should be visited.
+     */
+    private boolean siblings(Traversal traversal) {
+        return !stopped && traversal != Traversal.SKIP_SIBLINGS;
+    }
+
+    /**
+     * Reports dependency cycle, closed by given type.
+     *
+     * @param path path to cycle of dependencies.
+     * @param type type, that is already a part of path.
+     */
+    void cycleDetected(TypePath path, Type type) {
+        if (consumes(EventMask.DEPENDENCY_CYCLE)) {
+            visitor.dependencyCycleDetected(path);
+        }
+    }
+
+    /**
+     * Reports type, that has been already walked in <em>memoized</em> mode.
+     *
+     * @param key key of memoized type - type, or owner type binding its type variables.
+     * @param type already visited type.
+     */
+    void typeAlreadyVisited(TypeKey key, Type type) {
+        if (consumes(EventMask.TYPE_ALREADY_VISITED)) {
+            visitor.typeAlreadyVisited(type);
+        }
+    }
+
+    /**
+     * Memoizes walked type.
+     *
+     * @param key key of memoized type - type, or owner type binding its type variables.
+     */
+    void typeVisited(TypeKey key) {
+        visitedTypes.set(key.getId());
+    }
+
+    /**
+     * @param owner parametrized type of class, binding its type variables, or any other type.
+     * @return model of class, resolved against owner once per interned owner type.
+     */
+    private ClassModel modelOf(Class<?> clazz, Type owner) {
+        ClassModel model = metadataCache.getModel(clazz);
+        if (!(owner instanceof ParameterizedType)) {
+            return model;
+        }
+        int id = typeInterner.intern(owner).getId();
+        if (id >= resolvedModels.length) {
+            resolvedModels = Arrays.copyOf(resolvedModels, Math.max(typeInterner.size(), resolvedModels.length * 2));
+        }
+        ClassModel result = resolvedModels[id];
+        // declared model differs, when metadata was invalidated or cache was changed
+        if (result == null || result.getDeclared() != model) {
+            result = model.resolve(owner);
+            resolvedModels[id] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Classifies type once per interned type.
+     */
+    private TypeShape shapeOf(TypeKey key) {
+        int id = key.getId();
+        if (id >= typeShapes.length) {
+            typeShapes = Arrays.copyOf(typeShapes, Math.max(typeInterner.size(), typeShapes.length * 2));
+        }
+        TypeShape shape = typeShapes[id];
+        if (shape == null) {
+            shape = classify(key.getType());
+            typeShapes[id] = shape;
+        }
+        return shape;
+    }
+
+    /**
+     * Terminating and primitive types take precedence over shape rules, which take precedence
+     * over built-in classification of classes.
+     */
+    private TypeShape classify(Type type) {
+        if (terminatingTypes.contains(type)) {
+            return TypeShape.TERMINATING;
+        } else if (primitiveTypes.contains(type)) {
+            return TypeShape.LEAF;
+        } else if (type instanceof Class) {
+            Class<?> cType = (Class<?>) type;
+            for (int i = 0; i < shapeRules.size(); i++) {
+                TypeShape shape = shapeRules.get(i).classify(cType);
+                if (shape != null) {
+                    return shape;
+                }
+            }
+            return TypeShape.of(cType);
+        }
+        return type instanceof GenericArrayType ? TypeShape.ARRAY : TypeShape.CONTAINER;
+    }
+
+    boolean isMemoizeTypes() {
+        return memoizeTypes;
+    }
+
+    /**
+     * @return <code>true</code> if any limit (depth, nodes or time budget) is set.
+     */
+    boolean isLimited() {
+        return maxDepth > 0 || maxNodes > 0 || timeBudget > 0;
+    }
+
+    boolean hasWalkListener() {
+        return walkListener != null;
+    }
+
+    /**
+     * Describes configuration, that affects walked structure: terminating services and types, primitive
+     * types, shape rules, acceptors and memoized mode. Shape rules and acceptors are described by names
+     * of their classes (method filters by their conditions), so it's the same for walkers configured
+     * in the same way, also in different runs.
+     *
+     * @return description of configuration.
+     */
+    String describeConfiguration() {
+        StringBuilder result = new StringBuilder();
+        result.append("terminatingServices=").append(typeNames(terminatingServices));
+        result.append("\nterminatingTypes=").append(typeNames(terminatingTypes));
+        result.append("\nprimitiveTypes=").append(typeNames(primitiveTypes));
+        result.append("\nshapeRules=[");
+        for (int i = 0; i < shapeRules.size(); i++) {
+            result.append(i > 0 ? ", " : "").append(describe(shapeRules.get(i)));
+        }
+        result.append("]\nmethodAcceptor=").append(describe(methodAcceptor));
+        result.append("\ntypeAcceptor=").append(describe(typeAcceptor));
+        result.append("\nmemoizeTypes=").append(memoizeTypes);
+        return result.toString();
+    }
+
+    private static Set<String> typeNames(Collection<? extends Type> types) {
+        Set<String> result = new TreeSet<>();
+        for (Type type : types) {
+            result.add(type.getTypeName());
         }
+        return result;
+    }
+
+    private static String describe(Object element) {
+        if (element instanceof MethodFilter) {
+            return element.toString();
+        }
+        // names of hidden classes (like lambdas) end with a suffix, which differs between runs
+        String name = element.getClass().getName();
+        int suffix = name.indexOf('/');
+        return suffix < 0 ? name : name.substring(0, suffix);
     }
 
+    /**
+     * @param type type to classify.
+     * @return shape of type, according to configuration of this walker.
+     */
+    public TypeShape getShape(Type type) {
+        return shapeOf(typeInterner.intern(type));
+    }
+
+    /**
+     * Sets acceptor of methods. Acceptors are called for each walked method, except of
+     * {@link MethodFilter}s - methods accepted by them are computed once per class.
+     *
+     * @param methodAcceptor acceptor of methods.
+     */
     public void setMethodAcceptor(Predicate<Method> methodAcceptor) {
         this.methodAcceptor = methodAcceptor;
+        this.methodFilter = methodAcceptor instanceof MethodFilter ? (MethodFilter) methodAcceptor : null;
     }
 
     public void setTypeAcceptor(Predicate<Type> typeAcceptor) {
@@ -275,7 +1218,130 @@ public class APIWalker {
     }
 
     public void setVisitor(Visitor visitor) {
+        this.visitor = VisitorAdapter.adapt(visitor);
+        this.events = EventMask.of(visitor);
+    }
+
+    /**
+     * Sets visitor, that controls walking, see {@link PruningVisitor}.
+     *
+     * @param visitor pruning visitor.
+     */
+    public void setVisitor(PruningVisitor visitor) {
         this.visitor = visitor;
+        this.events = EventMask.of(visitor);
+    }
+
+    /**
+     * Sets interner of types, used to identify types while walking. It could be shared
+     * with visitors (like {@link CollectingVisitor#CollectingVisitor(APIWalker)}), so that
+     * they could identify types using ids of their keys. Interner must not be shared with
+     * walkers used concurrently.
+     *
+     * @param typeInterner interner of types.
+     */
+    public void setTypeInterner(TypeInterner typeInterner) {
+        this.typeInterner = typeInterner;
+        this.typeShapes = new TypeShape[0];
+        this.typeChildren = new Type[0][];
+        this.resolvedModels = new ClassModel[0];
+    }
+
+    /**
+     * @return interner of types, each walker has its own one by default.
+     */
+    public TypeInterner getTypeInterner() {
+        return typeInterner;
+    }
+
+    /**
+     * @return dense ids of service classes, assigned on request (for example by
+     *         {@link CompactCollectingVisitor}) and kept by walker until {@link ElementIds#clear()}.
+     */
+    public ElementIds<Class<?>> getServiceIds() {
+        return serviceIds;
+    }
+
+    /**
+     * @return dense ids of methods, assigned on request (for example by
+     *         {@link CompactCollectingVisitor}) and kept by walker until {@link ElementIds#clear()}.
+     */
+    public ElementIds<Method> getMethodIds() {
+        return methodIds;
+    }
+
+    /**
+     * Sets cache of reflection metadata, by default {@link TypeMetadataCache#getDefault()} is used.
+     *
+     * @param metadataCache cache to use, could be shared with other walkers.
+     */
+    public void setMetadataCache(TypeMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    /**
+     * @return visitor (plain {@link Visitor}s are adapted to {@link PruningVisitor}).
+     */
+    protected PruningVisitor getVisitor() {
+        return visitor;
+    }
+
+    /**
+     * Sets maximum depth of types: types nested deeper are not walked, but reported using
+     * {@link Visitor#limitReached(java.util.List, Limit)}.
+     *
+     * @param maxDepth maximum number of nested types (1 means only types of results, arguments
+     *        and throwables), <code>0</code> (default) means unlimited.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets maximum number of types walked per service (or per type, when visiting types).
+     * When it's reached, walking of service is stopped and reported using
+     * {@link Visitor#limitReached(java.util.List, Limit)}.
+     *
+     * @param maxNodes maximum number of walked types, <code>0</code> (default) means unlimited.
+     */
+    public void setMaxNodes(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Sets time budget per service (or per type, when visiting types). When it's exceeded,
+     * walking of service is stopped and reported using {@link Visitor#limitReached(java.util.List, Limit)}.
+     * Time is checked before walking each type.
+     *
+     * @param budget time budget, <code>0</code> (default) means unlimited.
+     * @param unit unit of budget.
+     */
+    public void setTimeBudget(long budget, TimeUnit unit) {
+        this.timeBudget = unit.toNanos(budget);
+    }
+
+    /**
+     * Sets listener of walking metrics: timing of services and types, numbers of walked
+     * types and detected cycles, metadata cache hits and time spent inside visitor's callbacks.
+     * Metrics are collected only when there's a listener.
+     *
+     * @param walkListener listener, or <code>null</code> to stop collecting metrics.
+     * @see WalkMetricsRegistry
+     * @see "JfrWalkListener of ais-tools-apivisitor-jfr"
+     */
+    public void setWalkListener(WalkListener walkListener) {
+        this.walkListener = walkListener;
+    }
+
+    /**
+     * Enables or disables <em>memoized</em> mode. Only types walked completely are memoized -
+     * types, which children were skipped by visitor or cut off by limits, are walked again.
+     *
+     * @param memoizeTypes if <code>true</code>, each type is walked once per
+     *        {@link #visit(Class...)} or {@link #visitTypes(Type...)} call.
+     */
+    public void setMemoizeTypes(boolean memoizeTypes) {
+        this.memoizeTypes = memoizeTypes;
     }
 
     public void addTerminatingServices(Class<?>... terminating) {
@@ -288,12 +1354,27 @@ public class APIWalker {
         for (Type terminatingType : terminating) {
             terminatingTypes.add(terminatingType);
         }
+        Arrays.fill(typeShapes, null);
     }
 
     public void addPrimitiveTypes(Type ... primitive) {
         for (Type primitiveType : primitive) {
             primitiveTypes.add(primitiveType);
         }
+        Arrays.fill(typeShapes, null);
+    }
+
+    /**
+     * Adds rules classifying classes, consulted in order of registration,
+     * see {@link ShapeRule}.
+     *
+     * @param rules rules to add, like {@link ShapeRule#JAVA_LEAVES}.
+     */
+    public void addShapeRules(ShapeRule... rules) {
+        for (ShapeRule rule : rules) {
+            shapeRules.add(rule);
+        }
+        Arrays.fill(typeShapes, null);
     }
 
     private Collection<Class<?>> createTerminatingServices() {
@@ -339,4 +1420,86 @@ public class APIWalker {
         return result;
     }
 
+    /**
+     * Walked type: its state and children, that are still to be walked.
+     */
+    private static final class Frame {
+
+        static final int NONE = 0;
+
+        /**
+         * Raw type, then type arguments.
+         */
+        static final int PARAMETERIZED = 1;
+
+        /**
+         * Bounds of type variable or wildcard.
+         */
+        static final int TYPES = 2;
+
+        /**
+         * Component type of array.
+         */
+        static final int COMPONENT = 3;
+
+        /**
+         * Properties, then super class.
+         */
+        static final int BEAN = 4;
+
+        private Type type;
+
+        private TypeKey key;
+
+        private Traversal traversal;
+
+        private long start;
+
+        /**
+         * Whether all children of type are walked (so far).
+         */
+        private boolean complete;
+
+        private int children;
+
+        private int index;
+
+        /**
+         * Owner of the last returned child (parametrized type of raw type or generic super class).
+         */
+        private Type childOwner;
+
+        private Type component;
+
+        private Type[] types;
+
+        private Class<?> cType;
+
+        private ClassModel model;
+
+        private PropertyModel[] properties;
+
+        private boolean inProperty;
+
+        private Traversal propertyTraversal;
+
+        void clear() {
+            type = null;
+            key = null;
+            traversal = null;
+            complete = false;
+            children = NONE;
+            index = 0;
+            childOwner = null;
+            component = null;
+            types = null;
+            cType = null;
+            model = null;
+            properties = null;
+            inProperty = false;
+            propertyTraversal = null;
+        }
+
+    }
+
 }
@@ -0,0 +1,464 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Cursor over events of walk - events are pulled by caller, instead of being pushed to {@link Visitor}.
+ *
+ * Reader works like StAX stream reader: {@link #next()} moves to the next event and returns its kind,
+ * accessor methods return arguments of the current event:
+ * <pre>{@code
+ * ApiEventReader reader = new ApiEventReader(configuration, Service.class);
+ * while (reader.hasNext()) {
+ *     if (reader.next() == EventKind.BEGIN_PROPERTY_PROCESSING) {
+ *         print(reader.getPath().size(), reader.getPropertyName());
+ *     }
+ * }
+ * }</pre>
+ *
+ * Reader is lazy: service classes (or types) are walked one by one, when caller pulls their
+ * first event, so service classes never reached by caller are never walked. Events are kept
+ * in a buffer reused for each service class, without creating event objects - {@link #toEvent()}
+ * creates immutable {@link VisitorEvent} of the current event on request.
+ *
+ * Events could also be processed as a {@link Stream} (see {@link #stream()}): its spliterator splits
+ * service classes, that are not walked yet, so parallel streams walk them by separate walkers -
+ * like {@link ParallelAPIWalker}, in <em>memoized</em> mode types are memoized per split.
+ *
+ * <em>Implementation note</em>: this class is not thread-safe.
+ */
+public class ApiEventReader {
+
+    private final APIWalker configuration;
+
+    private final APIWalker walker;
+
+    private final Type[] elements;
+
+    private final boolean services;
+
+    private int nextElement;
+
+    private int endElement;
+
+    private boolean stopped;
+
+    private final Buffer buffer = new Buffer();
+
+    /**
+     * Position of the current event in buffer, <code>-1</code> before the first event.
+     */
+    private int position = -1;
+
+    private final List<Type> path = new ArrayList<>();
+
+    private final List<Type> pathView = Collections.unmodifiableList(path);
+
+    /**
+     * Reader of events of service classes.
+     *
+     * @param configuration walker, which configuration (terminating services and types, primitive types,
+     *        shape rules, acceptors, memoized mode, metadata cache, limits and walk listener) is used;
+     *        its visitor is not used.
+     * @param classes service classes.
+     */
+    public ApiEventReader(APIWalker configuration, Class<?>... classes) {
+        this(configuration, classes.clone(), true);
+    }
+
+    private ApiEventReader(APIWalker configuration, Type[] elements, boolean services) {
+        this.configuration = configuration;
+        this.walker = new APIWalker(configuration);
+        this.walker.setVisitor(buffer);
+        this.elements = elements;
+        this.services = services;
+        this.endElement = elements.length;
+    }
+
+    /**
+     * Reader of events of types, like {@link APIWalker#visitTypes(Type...)}.
+     *
+     * @param configuration walker, which configuration is used, see {@link #ApiEventReader(APIWalker, Class...)}.
+     * @param types types.
+     * @return reader of events of types.
+     */
+    public static ApiEventReader ofTypes(APIWalker configuration, Type... types) {
+        return new ApiEventReader(configuration, types.clone(), false);
+    }
+
+    /**
+     * @return <code>true</code> if there are more events; service classes are walked, until
+     *         one of them reports an event.
+     */
+    public boolean hasNext() {
+        while (position + 1 >= buffer.size) {
+            if (stopped || nextElement >= endElement) {
+                return false;
+            }
+            // the current event is kept, so that accessors still could be used
+            position = buffer.retain(position);
+            Type element = elements[nextElement];
+            boolean first = nextElement++ == 0;
+            stopped = services ? !walker.visitNext((Class<?>) element, first) : !walker.visitNextType(element, first);
+        }
+        return true;
+    }
+
+    /**
+     * Moves to the next event.
+     *
+     * @return kind of the next event.
+     * @throws NoSuchElementException if there are no more events.
+     */
+    public EventKind next() {
+        if (position >= 0 && buffer.kinds[position] == EventKind.FINISH_TYPE_PROCESSING) {
+            path.remove(path.size() - 1);
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        position++;
+        EventKind kind = buffer.kinds[position];
+        if (kind == EventKind.BEGIN_TYPE_PROCESSING) {
+            path.add(buffer.types[position]);
+        }
+        return kind;
+    }
+
+    /**
+     * @return kind of the current event.
+     * @throws IllegalStateException if there's no current event.
+     */
+    public EventKind getEventKind() {
+        return buffer.kinds[current()];
+    }
+
+    /**
+     * @return service class of service events, <code>null</code> for other events.
+     */
+    public Class<?> getService() {
+        return buffer.services[current()];
+    }
+
+    /**
+     * @return method of method, result, argument and throwable events, <code>null</code> for other events.
+     */
+    public Method getMethod() {
+        return buffer.methods[current()];
+    }
+
+    /**
+     * @return type of result, argument, throwable, property, type, unsupported type and already visited
+     *         type events, type, that was not walked, of limit events, <code>null</code> for other events.
+     */
+    public Type getType() {
+        return buffer.types[current()];
+    }
+
+    /**
+     * @return index of argument events, <code>-1</code> for other events.
+     */
+    public int getIndex() {
+        return buffer.indexes[current()];
+    }
+
+    /**
+     * @return name of property events, <code>null</code> for other events.
+     */
+    public String getPropertyName() {
+        return buffer.names[current()];
+    }
+
+    /**
+     * @return limit of limit events, <code>null</code> for other events.
+     */
+    public Limit getLimit() {
+        return buffer.limits[current()];
+    }
+
+    /**
+     * Path of types, like path reported to {@link Visitor#dependencyCycleDetected(List)},
+     * {@link Visitor#unsupportedType(List, Type)} and {@link Visitor#limitReached(List, Limit)}.
+     *
+     * @return path of types walked at the current event (including type of type events); unmodifiable
+     *         view, that reflects the current state of path, except of limit events - their paths
+     *         (ending with type, that was not walked) are copies.
+     */
+    public List<Type> getPath() {
+        int current = current();
+        if (buffer.kinds[current] == EventKind.LIMIT_REACHED) {
+            List<Type> result = new ArrayList<>(path);
+            result.add(buffer.types[current]);
+            return Collections.unmodifiableList(result);
+        }
+        return pathView;
+    }
+
+    /**
+     * @return immutable copy of the current event.
+     */
+    public VisitorEvent toEvent() {
+        int current = current();
+        EventKind kind = buffer.kinds[current];
+        switch (kind) {
+            case BEGIN_SERVICE_PROCESSING:
+            case FINISH_SERVICE_PROCESSING:
+                return VisitorEvent.service(kind, buffer.services[current]);
+            case BEGIN_METHOD_PROCESSING:
+            case FINISH_METHOD_PROCESSING:
+                return VisitorEvent.method(kind, buffer.methods[current]);
+            case BEGIN_PROPERTY_PROCESSING:
+            case FINISH_PROPERTY_PROCESSING:
+                return VisitorEvent.property(kind, buffer.names[current], buffer.types[current]);
+            case BEGIN_TYPE_PROCESSING:
+            case FINISH_TYPE_PROCESSING:
+            case TYPE_ALREADY_VISITED:
+                return VisitorEvent.type(kind, null, buffer.types[current]);
+            case DEPENDENCY_CYCLE_DETECTED:
+                return VisitorEvent.type(kind, path, null);
+            case UNSUPPORTED_TYPE:
+                return VisitorEvent.type(kind, path, buffer.types[current]);
+            case LIMIT_REACHED:
+                return VisitorEvent.limit(getPath(), buffer.limits[current]);
+            default:
+                return VisitorEvent.methodType(kind, buffer.methods[current], buffer.indexes[current],
+                        buffer.types[current]);
+        }
+    }
+
+    /**
+     * Remaining events as stream of {@link VisitorEvent}s - reader must not be used directly afterwards.
+     *
+     * @return stream of events.
+     */
+    public Stream<VisitorEvent> stream() {
+        return StreamSupport.stream(new EventSpliterator(this), false);
+    }
+
+    private int current() {
+        if (position < 0 || position >= buffer.size) {
+            throw new IllegalStateException("there's no current event");
+        }
+        return position;
+    }
+
+    /**
+     * Splits service classes, that are not walked yet.
+     *
+     * @return reader of the second half of them, <code>null</code> if they could not be split.
+     */
+    private ApiEventReader trySplit() {
+        int remaining = endElement - nextElement;
+        if (stopped || remaining < 2) {
+            return null;
+        }
+        int middle = nextElement + remaining / 2;
+        ApiEventReader result = new ApiEventReader(configuration,
+                Arrays.copyOfRange(elements, middle, endElement), services);
+        endElement = middle;
+        return result;
+    }
+
+    private static final class EventSpliterator implements Spliterator<VisitorEvent> {
+
+        private final ApiEventReader reader;
+
+        EventSpliterator(ApiEventReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super VisitorEvent> action) {
+            if (!reader.hasNext()) {
+                return false;
+            }
+            reader.next();
+            action.accept(reader.toEvent());
+            return true;
+        }
+
+        @Override
+        public Spliterator<VisitorEvent> trySplit() {
+            ApiEventReader split = reader.trySplit();
+            return split == null ? null : new EventSpliterator(split);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+    }
+
+    /**
+     * Events of a single service class (or type), kept in columns.
+     */
+    private static final class Buffer implements Visitor {
+
+        private int size;
+
+        private EventKind[] kinds = new EventKind[64];
+
+        private Class<?>[] services = new Class<?>[64];
+
+        private Method[] methods = new Method[64];
+
+        private Type[] types = new Type[64];
+
+        private int[] indexes = new int[64];
+
+        private String[] names = new String[64];
+
+        private Limit[] limits = new Limit[64];
+
+        private void add(EventKind kind, Class<?> service, Method method, Type type, int index, String name,
+                Limit limit) {
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                services = Arrays.copyOf(services, capacity);
+                methods = Arrays.copyOf(methods, capacity);
+                types = Arrays.copyOf(types, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+                names = Arrays.copyOf(names, capacity);
+                limits = Arrays.copyOf(limits, capacity);
+            }
+            kinds[size] = kind;
+            services[size] = service;
+            methods[size] = method;
+            types[size] = type;
+            indexes[size] = index;
+            names[size] = name;
+            limits[size] = limit;
+            size++;
+        }
+
+        /**
+         * Removes events, except of given one, which is moved to the beginning of buffer.
+         *
+         * @return new position of retained event.
+         */
+        private int retain(int position) {
+            if (position >= 0) {
+                kinds[0] = kinds[position];
+                services[0] = services[position];
+                methods[0] = methods[position];
+                types[0] = types[position];
+                indexes[0] = indexes[position];
+                names[0] = names[position];
+                limits[0] = limits[position];
+            }
+            size = position >= 0 ? 1 : 0;
+            return size - 1;
+        }
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            add(EventKind.BEGIN_SERVICE_PROCESSING, clazz, null, null, -1, null, null);
+        }
+
+        @Override
+        public void finishServiceProcessing(Class<?> clazz) {
+            add(EventKind.FINISH_SERVICE_PROCESSING, clazz, null, null, -1, null, null);
+        }
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            add(EventKind.BEGIN_METHOD_PROCESSING, null, method, null, -1, null, null);
+        }
+
+        @Override
+        public void finishMethodProcessing(Method method) {
+            add(EventKind.FINISH_METHOD_PROCESSING, null, method, null, -1, null, null);
+        }
+
+        @Override
+        public void beginResultProcessing(Method method, Type type) {
+            add(EventKind.BEGIN_RESULT_PROCESSING, null, method, type, -1, null, null);
+        }
+
+        @Override
+        public void finishResultProcessing(Method method, Type type) {
+            add(EventKind.FINISH_RESULT_PROCESSING, null, method, type, -1, null, null);
+        }
+
+        @Override
+        public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+            add(EventKind.BEGIN_THROWABLE_PROCESSING, null, method, throwable, -1, null, null);
+        }
+
+        @Override
+        public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+            add(EventKind.FINISH_THROWABLE_PROCESSING, null, method, throwable, -1, null, null);
+        }
+
+        @Override
+        public void beginArgumentProcessing(Method method, int index, Type type) {
+            add(EventKind.BEGIN_ARGUMENT_PROCESSING, null, method, type, index, null, null);
+        }
+
+        @Override
+        public void finishArgumentProcessing(Method method, int index, Type type) {
+            add(EventKind.FINISH_ARGUMENT_PROCESSING, null, method, type, index, null, null);
+        }
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            add(EventKind.BEGIN_PROPERTY_PROCESSING, null, null, type, -1, name, null);
+        }
+
+        @Override
+        public void finishPropertyProcessing(String name, Type type) {
+            add(EventKind.FINISH_PROPERTY_PROCESSING, null, null, type, -1, name, null);
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            add(EventKind.BEGIN_TYPE_PROCESSING, null, null, type, -1, null, null);
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            add(EventKind.FINISH_TYPE_PROCESSING, null, null, type, -1, null, null);
+        }
+
+        @Override
+        public void dependencyCycleDetected(List<Type> path) {
+            // path is the path of walked types, tracked by reader
+            add(EventKind.DEPENDENCY_CYCLE_DETECTED, null, null, null, -1, null, null);
+        }
+
+        @Override
+        public void unsupportedType(List<Type> path, Type type) {
+            add(EventKind.UNSUPPORTED_TYPE, null, null, type, -1, null, null);
+        }
+
+        @Override
+        public void typeAlreadyVisited(Type type) {
+            add(EventKind.TYPE_ALREADY_VISITED, null, null, type, -1, null, null);
+        }
+
+        @Override
+        public void limitReached(List<Type> path, Limit limit) {
+            // path ends with type, that was not walked
+            add(EventKind.LIMIT_REACHED, null, null, path.get(path.size() - 1), -1, null, limit);
+        }
+
+    }
+
+}
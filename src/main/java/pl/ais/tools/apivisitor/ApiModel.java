@@ -0,0 +1,1002 @@
+package pl.ais.tools.apivisitor;
+
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of API structure.
+ *
+ * Model is created by a single walk (see {@link #build(APIWalker, Class...)}) and then
+ * could be queried or replayed to any number of {@link Visitor}s without using
+ * reflection again - replaying the model produces the same sequence of events as
+ * walking service classes with {@link APIWalker} configured in the same way.
+ *
+ * Model is a graph of:
+ * <ul>
+ *   <li>{@link ServiceNode services} - service classes with their methods and super classes</li>
+ *   <li>{@link MethodNode methods} - with references to their results, arguments and throwables</li>
+ *   <li>{@link TypeNode types} - with their properties and components (raw types and type
+ *   arguments of parametrized types, component types of arrays, super classes)</li>
+ * </ul>
+ * Type nodes are interned: there's a single node for all equal types, so graph
+ * of types may contain cycles. The only exception are generic classes walked as raw types
+ * of different parametrizations (or as super classes of different parametrized classes) -
+ * there's a node of such class for each parametrization, with properties resolved against it.
+ *
+ * Types, that are not walked by {@link APIWalker} (not accepted by type acceptor, or terminating
+ * types), are not a part of the model.
+ *
+ * Model could be stored in a file (see {@link #write(Path)}) and read back (see
+ * {@link #read(Path, ClassLoader)}), so it's not needed to walk unchanged classes again.
+ */
+public final class ApiModel {
+
+    /**
+     * Kind of type node.
+     */
+    public enum TypeKind {
+
+        /**
+         * Parametrized type, components are: raw type and type arguments.
+         */
+        PARAMETERIZED,
+
+        /**
+         * Array, component is a type of array elements.
+         */
+        ARRAY,
+
+        /**
+         * Class with properties (fields), component is a super class.
+         */
+        CLASS,
+
+        /**
+         * Leaf class (see {@link TypeShape#LEAF}), like Java primitive or class registered as
+         * primitive type, without properties and components.
+         */
+        PRIMITIVE,
+
+        /**
+         * Type not supported by {@link APIWalker}.
+         */
+        UNSUPPORTED,
+
+        /**
+         * Type variable not resolved by {@link APIWalker}, components are its bounds.
+         */
+        TYPE_VARIABLE,
+
+        /**
+         * Wildcard type, components are its upper and lower bounds.
+         */
+        WILDCARD,
+
+        /**
+         * Generic array, component is a type of array elements.
+         */
+        GENERIC_ARRAY
+
+    }
+
+    private final List<ServiceNode> services;
+
+    private final Map<Class<?>, ServiceNode> serviceIndex;
+
+    private final List<TypeNode> types;
+
+    private final Map<Type, TypeNode> typeIndex = new HashMap<>();
+
+    private final boolean memoizeTypes;
+
+    ApiModel(List<ServiceNode> services, Map<Class<?>, ServiceNode> serviceIndex, List<TypeNode> types,
+            boolean memoizeTypes) {
+        this.services = Collections.unmodifiableList(services);
+        this.serviceIndex = Collections.unmodifiableMap(serviceIndex);
+        this.types = Collections.unmodifiableList(types);
+        this.memoizeTypes = memoizeTypes;
+        for (TypeNode node : types) {
+            typeIndex.putIfAbsent(node.type, node);
+        }
+    }
+
+    /**
+     * Creates model of service classes.
+     *
+     * @param configuration walker, which configuration (terminating services and types, primitive
+     *        types, shape rules, acceptors, metadata cache and memoized mode) is used; its visitor is not used
+     *        and its limits are not applied (model is always complete).
+     * @param classes service classes.
+     * @return model of service classes.
+     */
+    public static ApiModel build(APIWalker configuration, Class<?>... classes) {
+        return build(configuration, classes, configuration.isMemoizeTypes());
+    }
+
+    /**
+     * Creates model of a batch of service classes, like {@link APIWalker#visitBatch(Collection)}: service
+     * classes are sorted by names and types used by many of them are walked once, so replaying the model
+     * produces the same sequence of events as visiting the batch.
+     *
+     * @param configuration walker, which configuration is used, see {@link #build(APIWalker, Class...)}.
+     * @param classes service classes.
+     * @return model of service classes.
+     */
+    public static ApiModel buildBatch(APIWalker configuration, Collection<? extends Class<?>> classes) {
+        return build(configuration, APIWalker.sortBatch(classes), true);
+    }
+
+    /**
+     * @param memoizeTypes whether model is replayed in <em>memoized</em> mode.
+     */
+    private static ApiModel build(APIWalker configuration, Class<?>[] classes, boolean memoizeTypes) {
+        final Builder builder = new Builder(configuration);
+        APIWalker walker = new APIWalker(configuration) {
+
+            @Override
+            void cycleDetected(TypePath path, Type type) {
+                builder.attachOpen(type);
+            }
+
+            @Override
+            void typeAlreadyVisited(TypeKey key, Type type) {
+                builder.attachVisited(key);
+            }
+
+            @Override
+            void typeVisited(TypeKey key) {
+                super.typeVisited(key);
+                builder.visited(key);
+            }
+
+        };
+        walker.setVisitor(builder);
+        walker.setMemoizeTypes(true);
+        walker.setMaxDepth(0);
+        walker.setMaxNodes(0);
+        walker.setTimeBudget(0, TimeUnit.NANOSECONDS);
+        walker.visit(classes);
+        return new ApiModel(builder.services, builder.serviceIndex, builder.types, memoizeTypes);
+    }
+
+    /**
+     * Reads model from a file written by {@link #write(Path)}.
+     *
+     * File is memory-mapped and decoded in a single pass; classes and methods referenced
+     * by the model are looked up by names using given class loader, but classes are not initialized.
+     *
+     * @param file file to read.
+     * @param classLoader class loader used to resolve classes.
+     * @return model read from file.
+     * @throws IOException if file could not be read, it's not a (valid) model file or
+     *         referenced classes (methods) are not available.
+     */
+    public static ApiModel read(Path file, ClassLoader classLoader) throws IOException {
+        return ApiModelCodec.read(file, classLoader);
+    }
+
+    /**
+     * Writes model to a file, in compact binary format: strings and types are
+     * stored once and referenced by their identifiers.
+     *
+     * @param file file to write.
+     * @throws IOException if file could not be written.
+     */
+    public void write(Path file) throws IOException {
+        ApiModelCodec.write(this, file);
+    }
+
+    /**
+     * Replays model to visitor.
+     *
+     * @param visitor visitor to report to.
+     */
+    public void accept(Visitor visitor) {
+        accept(VisitorAdapter.adapt(visitor));
+    }
+
+    /**
+     * Replays model to visitor, that controls walking - decisions are applied
+     * in the same way as by {@link APIWalker#setVisitor(PruningVisitor)}.
+     *
+     * @param visitor visitor to report to.
+     */
+    public void accept(PruningVisitor visitor) {
+        replay(visitor);
+    }
+
+    /**
+     * Replays model to visitor, like {@link #accept(PruningVisitor)}.
+     *
+     * @param visitor visitor to report to.
+     * @return <code>false</code> if visitor stopped walking, so other models should not be replayed.
+     */
+    boolean replay(PruningVisitor visitor) {
+        Replay replay = new Replay(visitor);
+        for (ServiceNode service : services) {
+            replay.service(service);
+        }
+        return !replay.stopped;
+    }
+
+    /**
+     * @return unmodifiable list of visited service classes, in visiting order (super classes
+     * are available through {@link ServiceNode#getSuperService()}).
+     */
+    public List<ServiceNode> getServices() {
+        return services;
+    }
+
+    /**
+     * @param type service class (or its super class).
+     * @return node of service class or <code>null</code> if it's not a part of the model.
+     */
+    public ServiceNode getService(Class<?> type) {
+        return serviceIndex.get(type);
+    }
+
+    /**
+     * @return unmodifiable collection of all type nodes, in discovery order.
+     */
+    public Collection<TypeNode> getTypes() {
+        return types;
+    }
+
+    /**
+     * @param type type.
+     * @return node of type (first discovered one, in case of generic classes) or <code>null</code>
+     * if it's not a part of the model.
+     */
+    public TypeNode getType(Type type) {
+        return typeIndex.get(type);
+    }
+
+    Collection<ServiceNode> getAllServices() {
+        return serviceIndex.values();
+    }
+
+    boolean isMemoizeTypes() {
+        return memoizeTypes;
+    }
+
+    /**
+     * Service class with its methods.
+     */
+    public static final class ServiceNode {
+
+        private final Class<?> type;
+
+        private final List<MethodNode> methods;
+
+        private final ServiceNode superService;
+
+        ServiceNode(Class<?> type, List<MethodNode> methods, ServiceNode superService) {
+            this.type = type;
+            this.methods = Collections.unmodifiableList(methods);
+            this.superService = superService;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return unmodifiable list of accepted methods declared by service class.
+         */
+        public List<MethodNode> getMethods() {
+            return methods;
+        }
+
+        /**
+         * @return node of super class or <code>null</code> if super class is a terminating service.
+         */
+        public ServiceNode getSuperService() {
+            return superService;
+        }
+
+        @Override
+        public String toString() {
+            return type.getName();
+        }
+
+    }
+
+    /**
+     * Service method with its result, arguments and throwables.
+     */
+    public static final class MethodNode {
+
+        private final Method method;
+
+        private final TypeReference result;
+
+        private final List<TypeReference> arguments;
+
+        private final List<TypeReference> throwables;
+
+        MethodNode(Method method, TypeReference result, List<TypeReference> arguments, List<TypeReference> throwables) {
+            this.method = method;
+            this.result = result;
+            this.arguments = Collections.unmodifiableList(arguments);
+            this.throwables = Collections.unmodifiableList(throwables);
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public TypeReference getResult() {
+            return result;
+        }
+
+        public List<TypeReference> getArguments() {
+            return arguments;
+        }
+
+        public List<TypeReference> getThrowables() {
+            return throwables;
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+
+    }
+
+    /**
+     * Type, as used by method result, argument or throwable.
+     */
+    public static final class TypeReference {
+
+        private final Type type;
+
+        private final TypeNode node;
+
+        TypeReference(Type type, TypeNode node) {
+            this.type = type;
+            this.node = node;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return node of type or <code>null</code> if type is not walked.
+         */
+        public TypeNode getNode() {
+            return node;
+        }
+
+    }
+
+    /**
+     * Property (field) of a class.
+     */
+    public static final class PropertyNode {
+
+        private final String name;
+
+        private final Type type;
+
+        private final TypeNode node;
+
+        PropertyNode(String name, Type type, TypeNode node) {
+            this.name = name;
+            this.type = type;
+            this.node = node;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return node of property type or <code>null</code> if type is not walked.
+         */
+        public TypeNode getNode() {
+            return node;
+        }
+
+    }
+
+    /**
+     * Type with its properties and components.
+     */
+    public static final class TypeNode {
+
+        private final Type type;
+
+        private final TypeKind kind;
+
+        private List<PropertyNode> properties = Collections.emptyList();
+
+        private List<TypeNode> components = Collections.emptyList();
+
+        private boolean unsupported;
+
+        TypeNode(Type type, TypeKind kind) {
+            this.type = type;
+            this.kind = kind;
+        }
+
+        void complete(List<PropertyNode> properties, List<TypeNode> components, boolean unsupported) {
+            this.properties = Collections.unmodifiableList(properties);
+            this.components = Collections.unmodifiableList(components);
+            this.unsupported = unsupported;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public TypeKind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return unmodifiable list of properties (declared fields) of class.
+         */
+        public List<PropertyNode> getProperties() {
+            return properties;
+        }
+
+        /**
+         * @return unmodifiable list of walked components of type, see {@link TypeKind}.
+         */
+        public List<TypeNode> getComponents() {
+            return components;
+        }
+
+        boolean isUnsupported() {
+            return unsupported;
+        }
+
+        @Override
+        public String toString() {
+            return type.getTypeName();
+        }
+
+    }
+
+    /**
+     * Visitor, that creates nodes of the model while walking service classes
+     * in memoized mode.
+     */
+    private static final class Builder extends BaseVisitor {
+
+        private final APIWalker configuration;
+
+        private final List<ServiceNode> services = new ArrayList<>();
+
+        private final Map<Class<?>, ServiceNode> serviceIndex = new LinkedHashMap<>();
+
+        private final List<TypeNode> types = new ArrayList<>();
+
+        /**
+         * Nodes of walked types by keys of memoized types.
+         */
+        private final Map<TypeKey, TypeNode> visited = new HashMap<>();
+
+        private final Deque<Object> frames = new ArrayDeque<>();
+
+        private TypeNode finished;
+
+        Builder(APIWalker configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            frames.push(new ServiceFrame());
+        }
+
+        @Override
+        public void finishServiceProcessing(Class<?> clazz) {
+            ServiceFrame frame = (ServiceFrame) frames.pop();
+            ServiceNode node = serviceIndex.get(clazz);
+            if (node == null) {
+                node = new ServiceNode(clazz, frame.methods, frame.superService);
+                serviceIndex.put(clazz, node);
+            }
+            if (frames.peek() instanceof ServiceFrame) {
+                ((ServiceFrame) frames.peek()).superService = node;
+            } else {
+                services.add(node);
+            }
+        }
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            frames.push(new MethodFrame());
+        }
+
+        @Override
+        public void finishMethodProcessing(Method method) {
+            MethodFrame frame = (MethodFrame) frames.pop();
+            ((ServiceFrame) frames.peek()).methods.add(
+                    new MethodNode(method, frame.result, frame.arguments, frame.throwables));
+        }
+
+        @Override
+        public void beginResultProcessing(Method method, Type type) {
+            ((MethodFrame) frames.peek()).node = null;
+        }
+
+        @Override
+        public void finishResultProcessing(Method method, Type type) {
+            MethodFrame frame = (MethodFrame) frames.peek();
+            frame.result = new TypeReference(type, frame.node);
+        }
+
+        @Override
+        public void beginArgumentProcessing(Method method, int index, Type type) {
+            ((MethodFrame) frames.peek()).node = null;
+        }
+
+        @Override
+        public void finishArgumentProcessing(Method method, int index, Type type) {
+            MethodFrame frame = (MethodFrame) frames.peek();
+            frame.arguments.add(new TypeReference(type, frame.node));
+        }
+
+        @Override
+        public void beginThrowableProcessing(Method method, Class<? extends Throwable> exception) {
+            ((MethodFrame) frames.peek()).node = null;
+        }
+
+        @Override
+        public void finishThrowableProcessing(Method method, Class<? extends Throwable> exception) {
+            MethodFrame frame = (MethodFrame) frames.peek();
+            frame.throwables.add(new TypeReference(exception, frame.node));
+        }
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            TypeFrame frame = (TypeFrame) frames.peek();
+            frame.inProperty = true;
+            frame.propertyNode = null;
+        }
+
+        @Override
+        public void finishPropertyProcessing(String name, Type type) {
+            TypeFrame frame = (TypeFrame) frames.peek();
+            frame.properties.add(new PropertyNode(name, type, frame.propertyNode));
+            frame.inProperty = false;
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            TypeNode node = new TypeNode(type, kindOf(type));
+            types.add(node);
+            frames.push(new TypeFrame(node));
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            TypeFrame frame = (TypeFrame) frames.pop();
+            frame.node.complete(frame.properties, frame.components, frame.unsupported);
+            attach(frame.node);
+            finished = frame.node;
+        }
+
+        @Override
+        public void unsupportedType(List<Type> path, Type type) {
+            ((TypeFrame) frames.peek()).unsupported = true;
+        }
+
+        /**
+         * Attaches node of type being walked (closing a dependency cycle).
+         */
+        void attachOpen(Type type) {
+            for (Object frame : frames) {
+                if (frame instanceof TypeFrame && ((TypeFrame) frame).node.type.equals(type)) {
+                    attach(((TypeFrame) frame).node);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Attaches node of already walked type.
+         */
+        void attachVisited(TypeKey key) {
+            attach(visited.get(key));
+        }
+
+        /**
+         * Registers just finished node under key of memoized type.
+         */
+        void visited(TypeKey key) {
+            visited.put(key, finished);
+        }
+
+        private void attach(TypeNode node) {
+            Object frame = frames.peek();
+            if (frame instanceof TypeFrame) {
+                TypeFrame typeFrame = (TypeFrame) frame;
+                if (typeFrame.inProperty) {
+                    typeFrame.propertyNode = node;
+                } else {
+                    typeFrame.components.add(node);
+                }
+            } else if (frame instanceof MethodFrame) {
+                ((MethodFrame) frame).node = node;
+            }
+        }
+
+        private TypeKind kindOf(Type type) {
+            if (type instanceof ParameterizedType) {
+                return TypeKind.PARAMETERIZED;
+            }
+            if (type instanceof Class) {
+                Class<?> cType = (Class<?>) type;
+                if (cType.isArray()) {
+                    return TypeKind.ARRAY;
+                }
+                if (configuration.getShape(type) == TypeShape.LEAF) {
+                    return TypeKind.PRIMITIVE;
+                }
+                return TypeKind.CLASS;
+            }
+            if (type instanceof TypeVariable) {
+                return TypeKind.TYPE_VARIABLE;
+            }
+            if (type instanceof WildcardType) {
+                return TypeKind.WILDCARD;
+            }
+            if (type instanceof GenericArrayType) {
+                return TypeKind.GENERIC_ARRAY;
+            }
+            return TypeKind.UNSUPPORTED;
+        }
+
+    }
+
+    private static final class ServiceFrame {
+
+        private final List<MethodNode> methods = new ArrayList<>();
+
+        private ServiceNode superService;
+
+    }
+
+    private static final class MethodFrame {
+
+        private TypeReference result;
+
+        private final List<TypeReference> arguments = new ArrayList<>();
+
+        private final List<TypeReference> throwables = new ArrayList<>();
+
+        private TypeNode node;
+
+    }
+
+    private static final class TypeFrame {
+
+        private final TypeNode node;
+
+        private final List<PropertyNode> properties = new ArrayList<>();
+
+        private final List<TypeNode> components = new ArrayList<>();
+
+        private boolean inProperty;
+
+        private TypeNode propertyNode;
+
+        private boolean unsupported;
+
+        TypeFrame(TypeNode node) {
+            this.node = node;
+        }
+
+    }
+
+    /**
+     * Reports model to visitor, in the same order as {@link APIWalker} does.
+     *
+     * Like {@link APIWalker}, replay is iterative: super services are kept on a list and replayed
+     * types on a stack of {@link ReplayFrame}s, so the depth of model is not limited by thread's stack.
+     */
+    private final class Replay {
+
+        private final PruningVisitor visitor;
+
+        private final TypePath path = new TypePath();
+
+        private final TypeInterner interner = new TypeInterner();
+
+        private final Set<TypeNode> visitedTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * Replayed service and its super services.
+         */
+        private final List<ServiceNode> serviceChain = new ArrayList<>();
+
+        /**
+         * Stack of replayed types (reused frames, the first <code>frameCount</code> ones are in use).
+         */
+        private ReplayFrame[] frames = new ReplayFrame[16];
+
+        private int frameCount;
+
+        private boolean stopped;
+
+        /**
+         * Whether subtree of the last replayed type was replayed completely, so it could be memoized.
+         */
+        private boolean complete;
+
+        Replay(PruningVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        void service(ServiceNode service) {
+            if (stopped) {
+                return;
+            }
+            // super services are nested in their subclasses - they are finished in reverse order
+            for (ServiceNode node = service; node != null; node = node.superService) {
+                visitor.beginServiceProcessing(node.type);
+                serviceChain.add(node);
+                boolean siblings = true;
+                for (MethodNode method : node.methods) {
+                    siblings = method(method);
+                    if (!siblings) {
+                        break;
+                    }
+                }
+                if (!siblings) {
+                    break;
+                }
+            }
+            for (int i = serviceChain.size() - 1; i >= 0; i--) {
+                visitor.finishServiceProcessing(serviceChain.remove(i).type);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean method(MethodNode node) {
+            Method method = node.method;
+            Traversal traversal = visitor.beginMethodProcessing(method);
+            if (descend(traversal)) {
+                visitor.beginResultProcessing(method, node.result.type);
+                type(node.result.node);
+                visitor.finishResultProcessing(method, node.result.type);
+                boolean siblings = !stopped;
+                for (int i = 0; i < node.arguments.size() && siblings; i++) {
+                    TypeReference argument = node.arguments.get(i);
+                    Traversal argTraversal = visitor.beginArgumentProcessing(method, i, argument.type);
+                    if (descend(argTraversal)) {
+                        type(argument.node);
+                    }
+                    visitor.finishArgumentProcessing(method, i, argument.type);
+                    siblings = siblings(argTraversal);
+                }
+                for (int i = 0; i < node.throwables.size() && siblings; i++) {
+                    TypeReference throwable = node.throwables.get(i);
+                    Class<? extends Throwable> exception = (Class<? extends Throwable>) throwable.type;
+                    visitor.beginThrowableProcessing(method, exception);
+                    type(throwable.node);
+                    visitor.finishThrowableProcessing(method, exception);
+                    siblings = !stopped;
+                }
+            }
+            visitor.finishMethodProcessing(method);
+            return siblings(traversal);
+        }
+
+        /**
+         * Replays type and its children iteratively.
+         *
+         * @return <code>true</code> if replay should continue with siblings of type.
+         */
+        private boolean type(TypeNode node) {
+            int base = frameCount;
+            boolean result = enter(node);
+            while (frameCount > base) {
+                ReplayFrame frame = frames[frameCount - 1];
+                if (nextChild(frame, result)) {
+                    result = enter(frame.child);
+                } else {
+                    result = exit(frame);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Begins replay of type: reports it and pushes its frame, unless it closes a cycle
+         * or it's already visited.
+         *
+         * @return <code>true</code> if frame was pushed, otherwise whether replay should
+         *         continue with siblings of type.
+         */
+        private boolean enter(TypeNode node) {
+            complete = true;
+            if (node == null) {
+                return !stopped;
+            }
+            TypeKey key = interner.intern(node.type);
+            if (path.contains(key)) {
+                visitor.dependencyCycleDetected(path);
+                return !stopped;
+            } else if (memoizeTypes && visitedTypes.contains(node)) {
+                visitor.typeAlreadyVisited(node.type);
+                return !stopped;
+            }
+            path.push(node.type, key);
+            Traversal traversal = visitor.beginTypeProcessing(node.type);
+            if (node.unsupported) {
+                visitor.unsupportedType(path, node.type);
+            }
+            if (frameCount == frames.length) {
+                frames = Arrays.copyOf(frames, frames.length * 2);
+            }
+            ReplayFrame frame = frames[frameCount];
+            if (frame == null) {
+                frame = new ReplayFrame();
+                frames[frameCount] = frame;
+            }
+            frameCount++;
+            frame.node = node;
+            frame.traversal = traversal;
+            frame.index = 0;
+            frame.pending = false;
+            frame.inProperty = false;
+            frame.propertyTraversal = null;
+            frame.child = null;
+            frame.descend = descend(traversal);
+            frame.result = frame.descend;
+            return true;
+        }
+
+        /**
+         * Accounts the previous child of type (if any) and reports properties of type.
+         *
+         * @param siblings whether replay should continue with siblings of the previous child.
+         * @return <code>true</code> if there's a next child of type (possibly <code>null</code>,
+         *         if it's not walked) in {@link ReplayFrame#child}.
+         */
+        private boolean nextChild(ReplayFrame frame, boolean siblings) {
+            if (!frame.descend) {
+                return false;
+            }
+            List<PropertyNode> properties = frame.node.properties;
+            List<TypeNode> components = frame.node.components;
+            if (frame.pending) {
+                frame.pending = false;
+                frame.result &= complete;
+                if (frame.inProperty) {
+                    frame.inProperty = false;
+                    PropertyNode property = properties.get(frame.index - 1);
+                    visitor.finishPropertyProcessing(property.name, property.type);
+                    if (!siblings(frame.propertyTraversal)) {
+                        frame.result = false;
+                        return false;
+                    }
+                } else if (!siblings) {
+                    // skipped siblings make type incomplete, unless it was the last component
+                    frame.result &= frame.index == properties.size() + components.size();
+                    return false;
+                }
+            }
+            while (frame.index < properties.size()) {
+                PropertyNode property = properties.get(frame.index++);
+                Traversal traversal = visitor.beginPropertyProcessing(property.name, property.type);
+                if (descend(traversal)) {
+                    frame.pending = true;
+                    frame.inProperty = true;
+                    frame.propertyTraversal = traversal;
+                    frame.child = property.node;
+                    return true;
+                }
+                frame.result = false;
+                visitor.finishPropertyProcessing(property.name, property.type);
+                if (!siblings(traversal)) {
+                    return false;
+                }
+            }
+            int component = frame.index - properties.size();
+            if (component < components.size()) {
+                frame.index++;
+                frame.pending = true;
+                frame.child = components.get(component);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Finishes replay of type and pops its frame, memoizing type replayed completely.
+         *
+         * @return <code>true</code> if replay should continue with siblings of type.
+         */
+        private boolean exit(ReplayFrame frame) {
+            TypeNode node = frame.node;
+            visitor.finishTypeProcessing(node.type);
+            path.pop();
+            complete = frame.result && !stopped;
+            if (memoizeTypes && complete) {
+                visitedTypes.add(node);
+            }
+            Traversal traversal = frame.traversal;
+            frame.node = null;
+            frame.child = null;
+            frameCount--;
+            return siblings(traversal);
+        }
+
+        private boolean descend(Traversal traversal) {
+            if (traversal == Traversal.STOP) {
+                stopped = true;
+            }
+            return !stopped && (traversal == Traversal.CONTINUE || traversal == Traversal.SKIP_SIBLINGS);
+        }
+
+        private boolean siblings(Traversal traversal) {
+            return !stopped && traversal != Traversal.SKIP_SIBLINGS;
+        }
+
+    }
+
+    /**
+     * Type being replayed, with position of its next child: properties first, then components.
+     */
+    private static final class ReplayFrame {
+
+        private TypeNode node;
+
+        private Traversal traversal;
+
+        /**
+         * Whether children of type are replayed.
+         */
+        private boolean descend;
+
+        /**
+         * Whether type was replayed completely so far.
+         */
+        private boolean result;
+
+        private int index;
+
+        /**
+         * Whether the last child (property type or component) was entered and it's not accounted yet.
+         */
+        private boolean pending;
+
+        private boolean inProperty;
+
+        private Traversal propertyTraversal;
+
+        private TypeNode child;
+
+    }
+
+}
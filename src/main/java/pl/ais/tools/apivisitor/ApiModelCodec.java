@@ -0,0 +1,516 @@
+package pl.ais.tools.apivisitor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import pl.ais.tools.apivisitor.ApiModel.MethodNode;
+import pl.ais.tools.apivisitor.ApiModel.PropertyNode;
+import pl.ais.tools.apivisitor.ApiModel.ServiceNode;
+import pl.ais.tools.apivisitor.ApiModel.TypeKind;
+import pl.ais.tools.apivisitor.ApiModel.TypeNode;
+import pl.ais.tools.apivisitor.ApiModel.TypeReference;
+
+/**
+ * Binary format of {@link ApiModel}.
+ *
+ * File consists of:
+ * <ul>
+ *   <li>header - magic number and format version</li>
+ *   <li>string table - each string (class name, method name, property name) stored once</li>
+ *   <li>element table - types and methods, each element refers to strings and previous elements
+ *   by their identifiers (indexes in tables)</li>
+ *   <li>type nodes, service nodes, indexes of top-level services and memoized mode flag</li>
+ * </ul>
+ * All numbers are big-endian integers, <code>-1</code> is used for missing references.
+ */
+final class ApiModelCodec {
+
+    private static final int MAGIC = 0x41504d31;
+
+    private static final int VERSION = 2;
+
+    private static final byte CLASS = 0;
+
+    private static final byte PARAMETERIZED = 1;
+
+    private static final byte GENERIC_ARRAY = 2;
+
+    private static final byte WILDCARD = 3;
+
+    private static final byte CLASS_TYPE_VARIABLE = 4;
+
+    private static final byte METHOD_TYPE_VARIABLE = 5;
+
+    private static final byte NAMED = 6;
+
+    private static final byte METHOD = 7;
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> primitive : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class,
+                long.class, float.class, double.class, void.class }) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    private ApiModelCodec() {
+    }
+
+    static void write(ApiModel model, Path file) throws IOException {
+        Writer writer = new Writer();
+        writer.writeModel(model);
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(writer.strings.size());
+            for (String string : writer.strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(writer.elements.size());
+            writer.elementsBuffer.writeTo(out);
+            writer.bodyBuffer.writeTo(out);
+            out.flush();
+        }
+    }
+
+    static ApiModel read(Path file, ClassLoader classLoader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("not an API model file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported API model file version " + version + ": " + file);
+            }
+            return new Reader(buffer, classLoader).readModel();
+        } catch (RuntimeException e) {
+            // truncated file (BufferUnderflowException) or inconsistency not detected by reader
+            throw new IOException("corrupted API model file: " + file, e);
+        }
+    }
+
+    private static final class Writer {
+
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        private final Map<Object, Integer> elements = new HashMap<>();
+
+        private final ByteArrayOutputStream elementsBuffer = new ByteArrayOutputStream();
+
+        private final DataOutputStream elementsOut = new DataOutputStream(elementsBuffer);
+
+        private final ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(bodyBuffer);
+
+        void writeModel(ApiModel model) throws IOException {
+            Map<TypeNode, Integer> nodes = new IdentityHashMap<>();
+            for (TypeNode node : model.getTypes()) {
+                nodes.put(node, nodes.size());
+            }
+            out.writeInt(nodes.size());
+            for (TypeNode node : model.getTypes()) {
+                out.writeInt(element(node.getType()));
+                out.writeByte(node.getKind().ordinal());
+                out.writeBoolean(node.isUnsupported());
+            }
+            for (TypeNode node : model.getTypes()) {
+                out.writeInt(node.getProperties().size());
+                for (PropertyNode property : node.getProperties()) {
+                    out.writeInt(string(property.getName()));
+                    out.writeInt(element(property.getType()));
+                    out.writeInt(index(nodes, property.getNode()));
+                }
+                out.writeInt(node.getComponents().size());
+                for (TypeNode component : node.getComponents()) {
+                    out.writeInt(index(nodes, component));
+                }
+            }
+
+            Map<ServiceNode, Integer> services = new IdentityHashMap<>();
+            out.writeInt(model.getAllServices().size());
+            for (ServiceNode service : model.getAllServices()) {
+                out.writeInt(element(service.getType()));
+                out.writeInt(service.getSuperService() == null ? -1 : services.get(service.getSuperService()));
+                out.writeInt(service.getMethods().size());
+                for (MethodNode method : service.getMethods()) {
+                    out.writeInt(element(method.getMethod()));
+                    writeReference(nodes, method.getResult());
+                    out.writeInt(method.getArguments().size());
+                    for (TypeReference argument : method.getArguments()) {
+                        writeReference(nodes, argument);
+                    }
+                    out.writeInt(method.getThrowables().size());
+                    for (TypeReference throwable : method.getThrowables()) {
+                        writeReference(nodes, throwable);
+                    }
+                }
+                services.put(service, services.size());
+            }
+            out.writeInt(model.getServices().size());
+            for (ServiceNode service : model.getServices()) {
+                out.writeInt(services.get(service));
+            }
+            out.writeBoolean(model.isMemoizeTypes());
+        }
+
+        private void writeReference(Map<TypeNode, Integer> nodes, TypeReference reference) throws IOException {
+            out.writeInt(element(reference.getType()));
+            out.writeInt(index(nodes, reference.getNode()));
+        }
+
+        private int index(Map<TypeNode, Integer> nodes, TypeNode node) {
+            return node == null ? -1 : nodes.get(node);
+        }
+
+        private int string(String string) {
+            Integer id = strings.get(string);
+            if (id == null) {
+                id = strings.size();
+                strings.put(string, id);
+            }
+            return id;
+        }
+
+        /**
+         * Adds type or method (and all elements it refers to) to element table.
+         */
+        private int element(Object element) throws IOException {
+            Integer id = elements.get(element);
+            if (id != null) {
+                return id;
+            }
+            if (element instanceof Class) {
+                int name = string(((Class<?>) element).getName());
+                elementsOut.writeByte(CLASS);
+                elementsOut.writeInt(name);
+            } else if (element instanceof ParameterizedType) {
+                ParameterizedType type = (ParameterizedType) element;
+                int owner = type.getOwnerType() == null ? -1 : element(type.getOwnerType());
+                int raw = element(type.getRawType());
+                int[] arguments = elements(type.getActualTypeArguments());
+                elementsOut.writeByte(PARAMETERIZED);
+                elementsOut.writeInt(owner);
+                elementsOut.writeInt(raw);
+                writeInts(arguments);
+            } else if (element instanceof GenericArrayType) {
+                int component = element(((GenericArrayType) element).getGenericComponentType());
+                elementsOut.writeByte(GENERIC_ARRAY);
+                elementsOut.writeInt(component);
+            } else if (element instanceof WildcardType) {
+                WildcardType type = (WildcardType) element;
+                int[] upper = elements(type.getUpperBounds());
+                int[] lower = elements(type.getLowerBounds());
+                elementsOut.writeByte(WILDCARD);
+                writeInts(upper);
+                writeInts(lower);
+            } else if (element instanceof TypeVariable && isSupportedDeclaration((TypeVariable<?>) element)) {
+                TypeVariable<?> variable = (TypeVariable<?>) element;
+                int declaration = element(variable.getGenericDeclaration());
+                int name = string(variable.getName());
+                elementsOut.writeByte(variable.getGenericDeclaration() instanceof Class ? CLASS_TYPE_VARIABLE
+                        : METHOD_TYPE_VARIABLE);
+                elementsOut.writeInt(declaration);
+                elementsOut.writeInt(name);
+            } else if (element instanceof Method) {
+                Method method = (Method) element;
+                int declaringClass = element(method.getDeclaringClass());
+                int name = string(method.getName());
+                int[] parameters = elements(method.getParameterTypes());
+                elementsOut.writeByte(METHOD);
+                elementsOut.writeInt(declaringClass);
+                elementsOut.writeInt(name);
+                writeInts(parameters);
+            } else {
+                int name = string(((Type) element).getTypeName());
+                elementsOut.writeByte(NAMED);
+                elementsOut.writeInt(name);
+            }
+            id = elements.size();
+            elements.put(element, id);
+            return id;
+        }
+
+        private boolean isSupportedDeclaration(TypeVariable<?> variable) {
+            GenericDeclaration declaration = variable.getGenericDeclaration();
+            return declaration instanceof Class || declaration instanceof Method;
+        }
+
+        private int[] elements(Object[] elements) throws IOException {
+            int[] result = new int[elements.length];
+            for (int i = 0; i < elements.length; i++) {
+                result[i] = element(elements[i]);
+            }
+            return result;
+        }
+
+        private void writeInts(int[] values) throws IOException {
+            elementsOut.writeInt(values.length);
+            for (int value : values) {
+                elementsOut.writeInt(value);
+            }
+        }
+
+    }
+
+    /**
+     * Decodes model, validating counts and references, so corrupted file is reported
+     * as {@link IOException} instead of failing with unchecked exceptions.
+     */
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+
+        private final ClassLoader classLoader;
+
+        private String[] strings;
+
+        private Object[] elements;
+
+        /**
+         * Number of elements already read - elements refer only to previous ones.
+         */
+        private int elementCount;
+
+        Reader(ByteBuffer buffer, ClassLoader classLoader) {
+            this.buffer = buffer;
+            this.classLoader = classLoader;
+        }
+
+        ApiModel readModel() throws IOException {
+            strings = new String[count()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[count()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            elements = new Object[count()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = readElement();
+                elementCount++;
+            }
+
+            TypeNode[] nodes = new TypeNode[count()];
+            List<TypeNode> types = new ArrayList<>(nodes.length);
+            boolean[] unsupported = new boolean[nodes.length];
+            TypeKind[] kinds = TypeKind.values();
+            for (int i = 0; i < nodes.length; i++) {
+                Type type = element(Type.class);
+                int kind = buffer.get();
+                if (kind < 0 || kind >= kinds.length) {
+                    throw new IOException("unknown type kind " + kind);
+                }
+                nodes[i] = new TypeNode(type, kinds[kind]);
+                unsupported[i] = buffer.get() != 0;
+                types.add(nodes[i]);
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                List<PropertyNode> properties = new ArrayList<>();
+                for (int count = count(); count > 0; count--) {
+                    String name = string();
+                    Type type = element(Type.class);
+                    properties.add(new PropertyNode(name, type, node(nodes)));
+                }
+                List<TypeNode> components = new ArrayList<>();
+                for (int count = count(); count > 0; count--) {
+                    components.add(node(nodes));
+                }
+                nodes[i].complete(properties, components, unsupported[i]);
+            }
+
+            ServiceNode[] services = new ServiceNode[count()];
+            Map<Class<?>, ServiceNode> serviceIndex = new LinkedHashMap<>();
+            for (int i = 0; i < services.length; i++) {
+                Class<?> type = element(Class.class);
+                // super services are written before their subclasses
+                int superService = reference(i);
+                List<MethodNode> methods = new ArrayList<>();
+                for (int count = count(); count > 0; count--) {
+                    Method method = element(Method.class);
+                    TypeReference result = readReference(nodes);
+                    List<TypeReference> arguments = new ArrayList<>();
+                    for (int argument = count(); argument > 0; argument--) {
+                        arguments.add(readReference(nodes));
+                    }
+                    List<TypeReference> throwables = new ArrayList<>();
+                    for (int throwable = count(); throwable > 0; throwable--) {
+                        throwables.add(readReference(nodes));
+                    }
+                    methods.add(new MethodNode(method, result, arguments, throwables));
+                }
+                services[i] = new ServiceNode(type, methods, superService < 0 ? null : services[superService]);
+                serviceIndex.put(type, services[i]);
+            }
+            List<ServiceNode> topLevel = new ArrayList<>();
+            for (int count = count(); count > 0; count--) {
+                int service = reference(services.length);
+                if (service < 0) {
+                    throw new IOException("missing service");
+                }
+                topLevel.add(services[service]);
+            }
+            boolean memoizeTypes = buffer.get() != 0;
+            return new ApiModel(topLevel, serviceIndex, types, memoizeTypes);
+        }
+
+        private TypeReference readReference(TypeNode[] nodes) throws IOException {
+            Type type = element(Type.class);
+            return new TypeReference(type, node(nodes));
+        }
+
+        private TypeNode node(TypeNode[] nodes) throws IOException {
+            int index = reference(nodes.length);
+            return index < 0 ? null : nodes[index];
+        }
+
+        /**
+         * @return number of entries, each of them takes at least a byte.
+         */
+        private int count() throws IOException {
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IOException("invalid number of entries " + count);
+            }
+            return count;
+        }
+
+        /**
+         * @param size size of referenced table.
+         * @return index in table, or <code>-1</code> for missing reference.
+         */
+        private int reference(int size) throws IOException {
+            int index = buffer.getInt();
+            if (index < -1 || index >= size) {
+                throw new IOException("invalid reference " + index);
+            }
+            return index;
+        }
+
+        private String string() throws IOException {
+            int index = reference(strings.length);
+            if (index < 0) {
+                throw new IOException("missing string");
+            }
+            return strings[index];
+        }
+
+        private <T> T element(Class<T> kind) throws IOException {
+            T element = optionalElement(kind);
+            if (element == null) {
+                throw new IOException("missing element");
+            }
+            return element;
+        }
+
+        /**
+         * @return referenced element of given kind, or <code>null</code> for missing reference.
+         */
+        private <T> T optionalElement(Class<T> kind) throws IOException {
+            int index = reference(elementCount);
+            if (index < 0) {
+                return null;
+            }
+            Object element = elements[index];
+            if (!kind.isInstance(element)) {
+                throw new IOException("element " + index + " is not a " + kind.getSimpleName() + ": " + element);
+            }
+            return kind.cast(element);
+        }
+
+        private Object readElement() throws IOException {
+            byte tag = buffer.get();
+            switch (tag) {
+                case CLASS:
+                    return loadClass(string());
+                case PARAMETERIZED: {
+                    Type owner = optionalElement(Type.class);
+                    Class<?> raw = element(Class.class);
+                    return Types.parameterized(owner, raw, readTypes());
+                }
+                case GENERIC_ARRAY:
+                    return Types.genericArray(element(Type.class));
+                case WILDCARD: {
+                    Type[] upper = readTypes();
+                    return Types.wildcard(upper, readTypes());
+                }
+                case CLASS_TYPE_VARIABLE:
+                case METHOD_TYPE_VARIABLE: {
+                    GenericDeclaration declaration = element(GenericDeclaration.class);
+                    String name = string();
+                    for (TypeVariable<?> variable : declaration.getTypeParameters()) {
+                        if (variable.getName().equals(name)) {
+                            return variable;
+                        }
+                    }
+                    throw new IOException("type variable " + name + " not declared by " + declaration);
+                }
+                case METHOD: {
+                    Class<?> declaringClass = element(Class.class);
+                    String name = string();
+                    Class<?>[] parameterTypes = new Class<?>[count()];
+                    for (int i = 0; i < parameterTypes.length; i++) {
+                        parameterTypes[i] = element(Class.class);
+                    }
+                    try {
+                        return declaringClass.getDeclaredMethod(name, parameterTypes);
+                    } catch (NoSuchMethodException e) {
+                        throw new IOException("method " + name + " not found in " + declaringClass.getName(), e);
+                    }
+                }
+                case NAMED:
+                    return Types.named(string());
+                default:
+                    throw new IOException("unknown element type " + tag);
+            }
+        }
+
+        private Type[] readTypes() throws IOException {
+            Type[] result = new Type[count()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = element(Type.class);
+            }
+            return result;
+        }
+
+        private Class<?> loadClass(String name) throws IOException {
+            Class<?> primitive = PRIMITIVES.get(name);
+            if (primitive != null) {
+                return primitive;
+            }
+            try {
+                return Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new IOException("class " + name + " not found", e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,286 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visitor, that delivers events to another visitor asynchronously.
+ *
+ * Events reported by walker are stored as {@link VisitorEvent}s in a bounded buffer and delivered,
+ * in batches, to target visitor by a consumer thread - so walker and (slow) target visitor work
+ * at the same time. When buffer is full, walker waits until target visitor consumes some events.
+ * Target visitor implementing {@link BatchVisitor} receives whole batches, other visitors receive
+ * events one by one.
+ *
+ * Visitor must be closed after visiting, {@link #close()} waits until all events are delivered:
+ * <pre>{@code
+ * try (AsyncVisitor visitor = new AsyncVisitor(documentingVisitor)) {
+ *     walker.setVisitor(visitor);
+ *     walker.visit(Service.class);
+ * }
+ * }</pre>
+ *
+ * If target visitor throws an exception, remaining events are discarded and exception is re-thrown
+ * by next visitor method called by walker (or by {@link #close()}). If consumer thread finishes
+ * prematurely (for example it's interrupted), walker doesn't wait for free space in buffer forever -
+ * failure of consumer is re-thrown as well.
+ *
+ * <em>Implementation note</em>: events must be reported by a single thread.
+ */
+public class AsyncVisitor implements Visitor, AutoCloseable {
+
+    /**
+     * Default capacity of buffer of events.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * Default maximal number of events delivered at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * Interval of checking, whether consumer is still running, while waiting for free space in buffer.
+     */
+    private static final long LIVENESS_CHECK_INTERVAL_MILLIS = 100;
+
+    private static final VisitorEvent END = VisitorEvent.service(EventKind.FINISH_SERVICE_PROCESSING, null);
+
+    private final Visitor target;
+
+    private final BlockingQueue<VisitorEvent> events;
+
+    private final int batchSize;
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile Throwable failure;
+
+    private boolean closed;
+
+    public AsyncVisitor(Visitor target) {
+        this(target, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    public AsyncVisitor(Visitor target, int capacity, int batchSize) {
+        this(target, capacity, batchSize, command -> {
+            Thread thread = new Thread(command, "async-visitor");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * @param target visitor to deliver events to.
+     * @param capacity capacity of buffer of events.
+     * @param batchSize maximal number of events delivered at once.
+     * @param executor executor running consumer of events, it's used to run single, long-running task.
+     */
+    public AsyncVisitor(Visitor target, int capacity, int batchSize, Executor executor) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be positive");
+        }
+        this.target = target;
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        executor.execute(this::consume);
+    }
+
+    @Override
+    public Set<EventKind> consumedEvents() {
+        return target.consumedEvents();
+    }
+
+    /**
+     * Waits until all events are delivered to target visitor.
+     *
+     * @throws RuntimeException thrown by target visitor or consumer (other exceptions are wrapped).
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            put(END);
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for visitor", e);
+            }
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        put(VisitorEvent.service(EventKind.BEGIN_SERVICE_PROCESSING, clazz));
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        put(VisitorEvent.service(EventKind.FINISH_SERVICE_PROCESSING, clazz));
+    }
+
+    @Override
+    public void beginMethodProcessing(Method method) {
+        put(VisitorEvent.method(EventKind.BEGIN_METHOD_PROCESSING, method));
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        put(VisitorEvent.method(EventKind.FINISH_METHOD_PROCESSING, method));
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+        put(VisitorEvent.methodType(EventKind.BEGIN_RESULT_PROCESSING, method, -1, type));
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+        put(VisitorEvent.methodType(EventKind.FINISH_RESULT_PROCESSING, method, -1, type));
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        put(VisitorEvent.methodType(EventKind.BEGIN_THROWABLE_PROCESSING, method, -1, throwable));
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        put(VisitorEvent.methodType(EventKind.FINISH_THROWABLE_PROCESSING, method, -1, throwable));
+    }
+
+    @Override
+    public void beginArgumentProcessing(Method method, int index, Type type) {
+        put(VisitorEvent.methodType(EventKind.BEGIN_ARGUMENT_PROCESSING, method, index, type));
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        put(VisitorEvent.methodType(EventKind.FINISH_ARGUMENT_PROCESSING, method, index, type));
+    }
+
+    @Override
+    public void beginPropertyProcessing(String name, Type type) {
+        put(VisitorEvent.property(EventKind.BEGIN_PROPERTY_PROCESSING, name, type));
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        put(VisitorEvent.property(EventKind.FINISH_PROPERTY_PROCESSING, name, type));
+    }
+
+    @Override
+    public void beginTypeProcessing(Type type) {
+        put(VisitorEvent.type(EventKind.BEGIN_TYPE_PROCESSING, null, type));
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        put(VisitorEvent.type(EventKind.FINISH_TYPE_PROCESSING, null, type));
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        put(VisitorEvent.type(EventKind.DEPENDENCY_CYCLE_DETECTED, path, null));
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+        put(VisitorEvent.type(EventKind.UNSUPPORTED_TYPE, path, type));
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        put(VisitorEvent.type(EventKind.TYPE_ALREADY_VISITED, null, type));
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+        put(VisitorEvent.limit(path, limit));
+    }
+
+    private void put(VisitorEvent event) {
+        checkFailure();
+        if (events.offer(event)) {
+            return;
+        }
+        try {
+            while (!events.offer(event, LIVENESS_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (finished.getCount() == 0) {
+                    // consumer is gone, nobody would free the buffer
+                    checkFailure();
+                    throw new IllegalStateException("consumer of events is not running");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while reporting event", e);
+        }
+    }
+
+    private void checkFailure() {
+        Throwable cause = failure;
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause != null) {
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void consume() {
+        List<VisitorEvent> batch = new ArrayList<>(batchSize);
+        List<VisitorEvent> view = Collections.unmodifiableList(batch);
+        try {
+            boolean end = false;
+            while (!end) {
+                batch.add(events.take());
+                events.drainTo(batch, batchSize - 1);
+                end = batch.get(batch.size() - 1) == END;
+                if (end) {
+                    batch.remove(batch.size() - 1);
+                }
+                if (failure == null && !batch.isEmpty()) {
+                    deliver(batch, view);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            failure = e;
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private void deliver(List<VisitorEvent> batch, List<VisitorEvent> view) {
+        try {
+            if (target instanceof BatchVisitor) {
+                ((BatchVisitor) target).processEvents(view);
+            } else {
+                for (VisitorEvent event : batch) {
+                    event.dispatch(target);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Empty (no-op) implementation of {@link PruningVisitor}, always continues walking.
+ *
+ * This class should be used as a superclass for implementing {@link PruningVisitor}s.
+ */
+public class BasePruningVisitor implements PruningVisitor {
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+    }
+
+    @Override
+    public Traversal beginMethodProcessing(Method method) {
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+    }
+
+    @Override
+    public Traversal beginArgumentProcessing(Method method, int index, Type type) {
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+    }
+
+    @Override
+    public Traversal beginPropertyProcessing(String name, Type type) {
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+    }
+
+    @Override
+    public Traversal beginTypeProcessing(Type type) {
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+    }
+
+}
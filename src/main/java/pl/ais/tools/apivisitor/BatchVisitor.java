@@ -0,0 +1,20 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.List;
+
+/**
+ * Visitor, that processes many events at once.
+ *
+ * When {@link AsyncVisitor} delivers events to visitor implementing this interface,
+ * it calls {@link #processEvents(List)} instead of calling visitor method for each event.
+ */
+public interface BatchVisitor extends Visitor {
+
+    /**
+     * Processes batch of events, in order they were reported.
+     *
+     * @param events unmodifiable list of events, valid only during this call.
+     */
+    void processEvents(List<VisitorEvent> events);
+
+}
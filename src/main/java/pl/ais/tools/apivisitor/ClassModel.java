@@ -0,0 +1,346 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Reflection metadata of a single class, used by {@link APIWalker}.
+ *
+ * Declared fields and methods (together with their generic types) are read
+ * on first access and kept, so subsequent walks don't clone reflection arrays
+ * nor parse generic signatures again.
+ * Returned arrays are shared and must not be modified. Methods are sorted by names and
+ * parameter types, so they are walked in the same order by every JVM.
+ *
+ * Generic classes have also models resolved against their parametrizations (see
+ * {@link #resolve(Type)}), in which type variables of class are replaced by type arguments.
+ * They are not cached by declared model - generic class is usually loaded by a parent class
+ * loader of type arguments, so it would retain them - but by walkers using them.
+ */
+final class ClassModel {
+
+    private static final Comparator<Method> METHOD_ORDER = Comparator.comparing(Method::getName)
+            .thenComparing(method -> Arrays.toString(method.getParameterTypes()))
+            .thenComparing(method -> method.getReturnType().getName());
+
+    /**
+     * Maximum number of filters, which accepted methods are kept.
+     */
+    private static final int MAX_FILTERS = 8;
+
+    private static final AcceptedMethods[] NO_ACCEPTED_METHODS = new AcceptedMethods[0];
+
+    private final Class<?> type;
+
+    /**
+     * Parametrized type, that binds type variables, or <code>null</code> for declared model.
+     */
+    private final ParameterizedType owner;
+
+    private final ClassModel declared;
+
+    private volatile PropertyModel[] properties;
+
+    private volatile MethodModel[] methods;
+
+    /**
+     * Methods accepted by recently used filters, the most recently added first.
+     */
+    private volatile AcceptedMethods[] acceptedMethods = NO_ACCEPTED_METHODS;
+
+    private volatile Type genericSuperclass;
+
+    ClassModel(Class<?> type) {
+        this.type = type;
+        this.owner = null;
+        this.declared = this;
+    }
+
+    private ClassModel(ParameterizedType owner, ClassModel declared) {
+        this.type = declared.type;
+        this.owner = owner;
+        this.declared = declared;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return declared model of class (this model, if it's not resolved against owner type).
+     */
+    ClassModel getDeclared() {
+        return declared;
+    }
+
+    /**
+     * @return <code>true</code> if properties were already read.
+     */
+    boolean hasProperties() {
+        return properties != null;
+    }
+
+    /**
+     * Methods accepted by filters are kept for up to {@link #MAX_FILTERS} filters, so walkers
+     * using different filters (and sharing metadata cache) don't compute them over and over.
+     * Filters are referenced weakly, the least recently added one is dropped first.
+     *
+     * @param filter filter of methods.
+     * @return methods accepted by filter.
+     */
+    MethodModel[] getMethods(MethodFilter filter) {
+        AcceptedMethods[] entries = acceptedMethods;
+        AcceptedMethods entry = find(entries, filter);
+        if (entry != null) {
+            return entry.methods;
+        }
+        MethodModel[] methods = getMethods();
+        MethodModel[] accepted = new MethodModel[methods.length];
+        int count = 0;
+        for (MethodModel method : methods) {
+            if (filter.test(method.method)) {
+                accepted[count++] = method;
+            }
+        }
+        accepted = Arrays.copyOf(accepted, count);
+        // entries added concurrently may be lost - they are computed again
+        AcceptedMethods[] result = new AcceptedMethods[Math.min(entries.length + 1, MAX_FILTERS)];
+        result[0] = new AcceptedMethods(filter, accepted);
+        int size = 1;
+        for (int i = 0; i < entries.length && size < result.length; i++) {
+            if (entries[i].get() != null) {
+                result[size++] = entries[i];
+            }
+        }
+        acceptedMethods = size == result.length ? result : Arrays.copyOf(result, size);
+        return accepted;
+    }
+
+    private static AcceptedMethods find(AcceptedMethods[] entries, MethodFilter filter) {
+        for (AcceptedMethods entry : entries) {
+            if (entry.get() == filter) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if methods were already read.
+     */
+    boolean hasMethods() {
+        return methods != null;
+    }
+
+    /**
+     * @param filter filter of methods.
+     * @return <code>true</code> if methods accepted by filter were already computed.
+     */
+    boolean hasMethods(MethodFilter filter) {
+        return find(acceptedMethods, filter) != null;
+    }
+
+    /**
+     * Returns model of class resolved against given owner type, a new one for each call.
+     *
+     * @param owner parametrized type of this class (or its inner class), or any other type
+     *        (including <code>null</code>) for declared model.
+     */
+    ClassModel resolve(Type owner) {
+        if (!(owner instanceof ParameterizedType) || declared != this) {
+            return this;
+        }
+        return new ClassModel((ParameterizedType) owner, this);
+    }
+
+    PropertyModel[] getProperties() {
+        PropertyModel[] result = properties;
+        if (result == null) {
+            if (owner == null) {
+                Field[] fields = type.getDeclaredFields();
+                result = new PropertyModel[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    result[i] = new PropertyModel(fields[i].getName(), fields[i].getGenericType());
+                }
+            } else {
+                PropertyModel[] declaredProperties = declared.getProperties();
+                result = new PropertyModel[declaredProperties.length];
+                for (int i = 0; i < declaredProperties.length; i++) {
+                    PropertyModel property = declaredProperties[i];
+                    result[i] = new PropertyModel(property.name, TypeResolver.resolve(owner, property.type));
+                }
+            }
+            properties = result;
+        }
+        return result;
+    }
+
+    MethodModel[] getMethods() {
+        MethodModel[] result = methods;
+        if (result == null) {
+            if (owner == null) {
+                Method[] declaredMethods = type.getDeclaredMethods();
+                Arrays.sort(declaredMethods, METHOD_ORDER);
+                result = new MethodModel[declaredMethods.length];
+                for (int i = 0; i < declaredMethods.length; i++) {
+                    Method method = declaredMethods[i];
+                    result[i] = new MethodModel(method, method.getGenericReturnType(),
+                            method.getGenericParameterTypes(), method.getExceptionTypes());
+                }
+            } else {
+                MethodModel[] declaredMethods = declared.getMethods();
+                result = new MethodModel[declaredMethods.length];
+                for (int i = 0; i < declaredMethods.length; i++) {
+                    MethodModel method = declaredMethods[i];
+                    Type[] argumentTypes = method.argumentTypes.clone();
+                    TypeResolver.resolve(owner, argumentTypes);
+                    result[i] = new MethodModel(method.method, TypeResolver.resolve(owner, method.resultType),
+                            argumentTypes, method.exceptionTypes);
+                }
+            }
+            methods = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return generic super class (resolved against owner type), or <code>null</code>.
+     */
+    Type getGenericSuperclass() {
+        Type result = genericSuperclass;
+        if (result == null) {
+            result = TypeResolver.resolve(owner, type.getGenericSuperclass());
+            genericSuperclass = result;
+        }
+        return result;
+    }
+
+    /**
+     * Field of a class, with its generic type.
+     */
+    static final class PropertyModel {
+
+        private final String name;
+
+        private final Type type;
+
+        PropertyModel(String name, Type type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+    }
+
+    /**
+     * Method of a class, with its generic result and argument types and declared exceptions.
+     */
+    static final class MethodModel {
+
+        private final Method method;
+
+        private final Type resultType;
+
+        private final Type[] argumentTypes;
+
+        private final Class<?>[] exceptionTypes;
+
+        private Signature signature;
+
+        MethodModel(Method method, Type resultType, Type[] argumentTypes, Class<?>[] exceptionTypes) {
+            this.method = method;
+            this.resultType = resultType;
+            this.argumentTypes = argumentTypes;
+            this.exceptionTypes = exceptionTypes;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        Type getResultType() {
+            return resultType;
+        }
+
+        Type[] getArgumentTypes() {
+            return argumentTypes;
+        }
+
+        /**
+         * @return name and (resolved) argument types of method, equal for overriding and overridden methods.
+         */
+        Signature getSignature() {
+            Signature result = signature;
+            if (result == null) {
+                result = new Signature(method.getName(), argumentTypes);
+                signature = result;
+            }
+            return result;
+        }
+
+        Class<?>[] getExceptionTypes() {
+            return exceptionTypes;
+        }
+
+    }
+
+    /**
+     * Methods accepted by filter (referent).
+     */
+    private static final class AcceptedMethods extends WeakReference<MethodFilter> {
+
+        private final MethodModel[] methods;
+
+        AcceptedMethods(MethodFilter filter, MethodModel[] methods) {
+            super(filter);
+            this.methods = methods;
+        }
+
+    }
+
+    static final class Signature {
+
+        private final String name;
+
+        private final Type[] argumentTypes;
+
+        private final int hashCode;
+
+        Signature(String name, Type[] argumentTypes) {
+            this.name = name;
+            this.argumentTypes = argumentTypes;
+            this.hashCode = 31 * name.hashCode() + Arrays.hashCode(argumentTypes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            return name.equals(other.name) && Arrays.equals(argumentTypes, other.argumentTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
@@ -2,19 +2,42 @@ package pl.ais.tools.apivisitor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Simple implementation of {@link Visitor}, that collects visited service classes, their methods and visited types.
+ *
+ * By default types are collected in a hash set. Visitor created with {@link #CollectingVisitor(APIWalker)}
+ * collects types as bits of ids of their canonical keys in {@link APIWalker#getTypeInterner() walker's interner},
+ * so types already interned by walker are not hashed again.
  */
 public class CollectingVisitor extends BaseVisitor {
 
-    private Set<Type> visitedTypes = new HashSet<>();
+    private final TypeInterner typeInterner;
+    private final BitSet visitedTypeIds;
+    private final Set<Type> visitedTypes;
     private Set<Class<?>> visitedServices = new HashSet<>();
     private Set<Method> visitedMethods = new HashSet<>();
 
+    public CollectingVisitor() {
+        this.typeInterner = null;
+        this.visitedTypeIds = null;
+        this.visitedTypes = new HashSet<>();
+    }
+
+    /**
+     * @param walker walker, which interner is used to identify types. Visitor must be used
+     *               only with this walker.
+     */
+    public CollectingVisitor(APIWalker walker) {
+        this.typeInterner = walker.getTypeInterner();
+        this.visitedTypeIds = new BitSet();
+        this.visitedTypes = null;
+    }
+
     @Override
     public void beginServiceProcessing(Class<?> clazz) {
         visitedServices.add(clazz);
@@ -22,7 +45,11 @@ public class CollectingVisitor extends BaseVisitor {
 
     @Override
     public void beginTypeProcessing(Type type) {
-        visitedTypes.add(type);
+        if (visitedTypes != null) {
+            visitedTypes.add(type);
+        } else {
+            visitedTypeIds.set(typeInterner.intern(type).getId());
+        }
     }
 
     @Override
@@ -31,10 +58,14 @@ public class CollectingVisitor extends BaseVisitor {
     }
 
     /**
-     * @return Unmodifiable set, containing all visited types.
+     * @return Unmodifiable set view, containing all visited types (canonical instances of equal types,
+     *         when types are collected by ids).
      */
     public Set<Type> getVisitedTypes() {
-        return Collections.unmodifiableSet(visitedTypes);
+        if (visitedTypes != null) {
+            return Collections.unmodifiableSet(visitedTypes);
+        }
+        return new IdSet<>(visitedTypeIds, id -> typeInterner.get(id).getType(), this::findType);
     }
 
     /**
@@ -51,4 +82,9 @@ public class CollectingVisitor extends BaseVisitor {
         return Collections.unmodifiableSet(visitedMethods);
     }
 
+    private int findType(Object type) {
+        TypeKey key = type instanceof Type ? typeInterner.find((Type) type) : null;
+        return key == null ? -1 : key.getId();
+    }
+
 }
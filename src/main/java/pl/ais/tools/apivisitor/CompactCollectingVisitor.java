@@ -0,0 +1,86 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * Implementation of {@link Visitor}, that collects visited service classes, their methods and
+ * visited types (like {@link CollectingVisitor}), keeping them as bit sets of dense ids.
+ *
+ * Ids are assigned by {@link APIWalker#getTypeInterner() interner} and
+ * {@link APIWalker#getServiceIds() id registries} of walker, so collected elements are
+ * stored once (by walker), regardless of number of visitors and visited elements.
+ * Collected sets are exposed as unmodifiable {@link Set} views.
+ *
+ * Visitor must be used only with walker supplied to constructor.
+ */
+public class CompactCollectingVisitor extends BaseVisitor {
+
+    private final TypeInterner typeInterner;
+    private final ElementIds<Class<?>> serviceIds;
+    private final ElementIds<Method> methodIds;
+    private final BitSet visitedTypes = new BitSet();
+    private final BitSet visitedServices = new BitSet();
+    private final BitSet visitedMethods = new BitSet();
+
+    /**
+     * @param walker walker, that assigns ids to elements.
+     */
+    public CompactCollectingVisitor(APIWalker walker) {
+        this.typeInterner = walker.getTypeInterner();
+        this.serviceIds = walker.getServiceIds();
+        this.methodIds = walker.getMethodIds();
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        visitedServices.set(serviceIds.id(clazz));
+    }
+
+    @Override
+    public void beginTypeProcessing(Type type) {
+        visitedTypes.set(typeInterner.intern(type).getId());
+    }
+
+    @Override
+    public void beginMethodProcessing(Method method) {
+        visitedMethods.set(methodIds.id(method));
+    }
+
+    /**
+     * @return unmodifiable set view, containing all visited types (canonical instances
+     * of equal types).
+     */
+    public Set<Type> getVisitedTypes() {
+        return new IdSet<>(visitedTypes, id -> typeInterner.get(id).getType(), this::findType);
+    }
+
+    /**
+     * @return unmodifiable set view, containing all visited service classes.
+     */
+    public Set<Class<?>> getVisitedServices() {
+        return new IdSet<>(visitedServices, serviceIds::get, serviceIds::find);
+    }
+
+    /**
+     * @return unmodifiable set view, containing all visited service methods.
+     */
+    public Set<Method> getVisitedMethods() {
+        return new IdSet<>(visitedMethods, methodIds::get, methodIds::find);
+    }
+
+    /**
+     * @return ids of visited types, see {@link TypeKey#getId()}.
+     */
+    public BitSet getVisitedTypeIds() {
+        return (BitSet) visitedTypes.clone();
+    }
+
+    private int findType(Object type) {
+        TypeKey key = type instanceof Type ? typeInterner.find((Type) type) : null;
+        return key == null ? -1 : key.getId();
+    }
+
+}
@@ -0,0 +1,446 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Visitor, that reports events to many visitors, so they share a single walk.
+ *
+ * Each visitor receives the same events, as it would receive walking alone - including
+ * decisions of {@link PruningVisitor}s: when visitor skips children or siblings of element
+ * (or stops walking), it does not receive events of skipped elements, while other visitors
+ * still do. Composite descends into children (or siblings) of element only while
+ * at least one of visitors is interested in them, and stops walking when all visitors stopped.
+ * In <em>memoized</em> mode types are memoized for the whole walk, so visitor may receive
+ * {@link #typeAlreadyVisited(Type)} for a type, that was walked only for other visitors.
+ * Visitors receive only events they consume (see {@link ConsumedEvents}).
+ *
+ * Visitors could be run on separate threads using {@link #addAsync(Visitor)} - they are wrapped
+ * in {@link AsyncVisitor}s, so composite must be closed after visiting:
+ * <pre>{@code
+ * try (CompositeVisitor visitor = new CompositeVisitor().add(namingVisitor).addAsync(documentingVisitor)) {
+ *     walker.setVisitor(visitor);
+ *     walker.visit(Service.class);
+ * }
+ * }</pre>
+ *
+ * <em>Implementation note</em>: this class is not thread-safe and keeps state of visitors
+ * between walks (visitors, that stopped walking, do not receive any more events), so a new
+ * composite should be used for each walk.
+ */
+public class CompositeVisitor implements PruningVisitor, AutoCloseable {
+
+    private static final int CHILDREN = 1;
+
+    private static final int SIBLINGS = 2;
+
+    private PruningVisitor[] visitors = new PruningVisitor[0];
+
+    /**
+     * Events consumed by visitors (indexed by visitors), see {@link ConsumedEvents}.
+     */
+    private int[] masks = new int[0];
+
+    /**
+     * Depths of elements (indexed by visitors), which children are not reported to visitors.
+     */
+    private int[] interestDepths = new int[0];
+
+    /**
+     * Depths of elements (indexed by visitors), which siblings are not reported to visitors.
+     */
+    private BitSet[] skippedSiblings = new BitSet[0];
+
+    private boolean[] stopped = new boolean[0];
+
+    private final List<AsyncVisitor> asyncVisitors = new ArrayList<>();
+
+    private int running;
+
+    /**
+     * Depth of current element (service, method, result, argument, throwable, property or type).
+     */
+    private int depth;
+
+    /**
+     * Adds visitor, that receives events on walking thread.
+     *
+     * @param visitor visitor to add.
+     * @return this composite.
+     */
+    public CompositeVisitor add(Visitor visitor) {
+        return add(VisitorAdapter.adapt(visitor));
+    }
+
+    /**
+     * Adds visitor, that receives events on walking thread and controls walking.
+     *
+     * @param visitor visitor to add.
+     * @return this composite.
+     */
+    public CompositeVisitor add(PruningVisitor visitor) {
+        int count = visitors.length;
+        visitors = Arrays.copyOf(visitors, count + 1);
+        visitors[count] = visitor;
+        masks = Arrays.copyOf(masks, count + 1);
+        masks[count] = EventMask.of(visitor);
+        interestDepths = Arrays.copyOf(interestDepths, count + 1);
+        interestDepths[count] = Integer.MAX_VALUE;
+        skippedSiblings = Arrays.copyOf(skippedSiblings, count + 1);
+        skippedSiblings[count] = new BitSet();
+        stopped = Arrays.copyOf(stopped, count + 1);
+        running++;
+        return this;
+    }
+
+    /**
+     * Adds visitor, that receives events on a separate thread (see {@link AsyncVisitor}).
+     *
+     * @param visitor visitor to add.
+     * @return this composite.
+     */
+    public CompositeVisitor addAsync(Visitor visitor) {
+        return addAsync(new AsyncVisitor(visitor));
+    }
+
+    /**
+     * Adds visitor, that receives events on a thread of given executor (see {@link AsyncVisitor}).
+     *
+     * @param visitor visitor to add.
+     * @param executor executor running consumer of events.
+     * @return this composite.
+     */
+    public CompositeVisitor addAsync(Visitor visitor, Executor executor) {
+        return addAsync(new AsyncVisitor(visitor, AsyncVisitor.DEFAULT_CAPACITY, AsyncVisitor.DEFAULT_BATCH_SIZE,
+                executor));
+    }
+
+    private CompositeVisitor addAsync(AsyncVisitor visitor) {
+        asyncVisitors.add(visitor);
+        return add(visitor);
+    }
+
+    /**
+     * Waits until all events are delivered to visitors added using <code>addAsync</code> methods.
+     *
+     * @throws RuntimeException thrown by any of visitors (other exceptions are wrapped).
+     */
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (AsyncVisitor visitor : asyncVisitors) {
+            try {
+                visitor.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        depth++;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i] && consumes(i, EventMask.BEGIN_SERVICE)) {
+                visitors[i].beginServiceProcessing(clazz);
+            }
+        }
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_SERVICE)) {
+                    visitors[i].finishServiceProcessing(clazz);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public Traversal beginMethodProcessing(Method method) {
+        depth++;
+        int interest = 0;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.BEGIN_METHOD)) {
+                    interest |= decided(i, visitors[i].beginMethodProcessing(method));
+                } else {
+                    interest |= CHILDREN | SIBLINGS;
+                }
+            }
+        }
+        return traversal(interest);
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_METHOD)) {
+                    visitors[i].finishMethodProcessing(method);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+        depth++;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i] && consumes(i, EventMask.BEGIN_RESULT)) {
+                visitors[i].beginResultProcessing(method, type);
+            }
+        }
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_RESULT)) {
+                    visitors[i].finishResultProcessing(method, type);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        depth++;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i] && consumes(i, EventMask.BEGIN_THROWABLE)) {
+                visitors[i].beginThrowableProcessing(method, throwable);
+            }
+        }
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_THROWABLE)) {
+                    visitors[i].finishThrowableProcessing(method, throwable);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public Traversal beginArgumentProcessing(Method method, int index, Type type) {
+        depth++;
+        int interest = 0;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.BEGIN_ARGUMENT)) {
+                    interest |= decided(i, visitors[i].beginArgumentProcessing(method, index, type));
+                } else {
+                    interest |= CHILDREN | SIBLINGS;
+                }
+            }
+        }
+        return traversal(interest);
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_ARGUMENT)) {
+                    visitors[i].finishArgumentProcessing(method, index, type);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public Traversal beginPropertyProcessing(String name, Type type) {
+        depth++;
+        int interest = 0;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.BEGIN_PROPERTY)) {
+                    interest |= decided(i, visitors[i].beginPropertyProcessing(name, type));
+                } else {
+                    interest |= CHILDREN | SIBLINGS;
+                }
+            }
+        }
+        return traversal(interest);
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_PROPERTY)) {
+                    visitors[i].finishPropertyProcessing(name, type);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public Traversal beginTypeProcessing(Type type) {
+        depth++;
+        int interest = 0;
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.BEGIN_TYPE)) {
+                    interest |= decided(i, visitors[i].beginTypeProcessing(type));
+                } else {
+                    interest |= CHILDREN | SIBLINGS;
+                }
+            }
+        }
+        return traversal(interest);
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i]) {
+                if (consumes(i, EventMask.FINISH_TYPE)) {
+                    visitors[i].finishTypeProcessing(type);
+                }
+                finished(i);
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        // reported instead of walking a type - a child of current element
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth < interestDepths[i] && consumes(i, EventMask.DEPENDENCY_CYCLE)) {
+                visitors[i].dependencyCycleDetected(path);
+            }
+        }
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+        // reported while walking current type
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth <= interestDepths[i] && consumes(i, EventMask.UNSUPPORTED_TYPE)) {
+                visitors[i].unsupportedType(path, type);
+            }
+        }
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth < interestDepths[i] && consumes(i, EventMask.TYPE_ALREADY_VISITED)) {
+                visitors[i].typeAlreadyVisited(type);
+            }
+        }
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+        for (int i = 0; i < visitors.length; i++) {
+            if (depth < interestDepths[i] && consumes(i, EventMask.LIMIT_REACHED)) {
+                visitors[i].limitReached(path, limit);
+            }
+        }
+    }
+
+    /**
+     * @return union of events consumed by visitors.
+     */
+    @Override
+    public Set<EventKind> consumedEvents() {
+        int result = 0;
+        for (int mask : masks) {
+            result |= mask;
+        }
+        return EventMask.kinds(result);
+    }
+
+    private boolean consumes(int visitor, int event) {
+        return (masks[visitor] & event) != 0;
+    }
+
+    /**
+     * Applies decision of visitor about current element.
+     *
+     * @return interest of visitor in children and siblings of current element.
+     */
+    private int decided(int visitor, Traversal traversal) {
+        switch (traversal) {
+            case CONTINUE:
+                return CHILDREN | SIBLINGS;
+            case SKIP_CHILDREN:
+                interestDepths[visitor] = depth;
+                return SIBLINGS;
+            case SKIP_SIBLINGS:
+                skippedSiblings[visitor].set(depth);
+                return CHILDREN;
+            default:
+                stopped[visitor] = true;
+                running--;
+                interestDepths[visitor] = depth;
+                return 0;
+        }
+    }
+
+    /**
+     * Updates interest of visitor, that received finish of current element.
+     */
+    private void finished(int visitor) {
+        if (stopped[visitor] || skippedSiblings[visitor].get(depth)) {
+            // visitor receives only finish events of parents
+            skippedSiblings[visitor].clear(depth);
+            interestDepths[visitor] = depth - 1;
+        } else {
+            interestDepths[visitor] = Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @return decision of composite, based on interest of all visitors.
+     */
+    private Traversal traversal(int interest) {
+        if (running == 0) {
+            return Traversal.STOP;
+        }
+        switch (interest) {
+            case CHILDREN | SIBLINGS:
+                return Traversal.CONTINUE;
+            case CHILDREN:
+                return Traversal.SKIP_SIBLINGS;
+            default:
+                // nobody is interested in children (nor in siblings, which are usually cheaper to walk)
+                return Traversal.SKIP_CHILDREN;
+        }
+    }
+
+}
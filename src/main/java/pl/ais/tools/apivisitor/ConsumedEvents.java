@@ -0,0 +1,31 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares kinds of events consumed by visitor ({@link Visitor} or {@link PruningVisitor}).
+ *
+ * Walker does not report other events to visitor - for pruning visitors it means,
+ * that they always continue walking. When visitor does not consume any events of types
+ * (types, properties, cycles etc), types are not walked at all.
+ *
+ * Annotation is read by default implementations of {@link Visitor#consumedEvents()} and
+ * {@link PruningVisitor#consumedEvents()}. Visitors without it consume all events.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConsumedEvents {
+
+    /**
+     * @return kinds of consumed events.
+     */
+    EventKind[] value();
+
+}
@@ -0,0 +1,141 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.Arrays;
+
+/**
+ * Dense int ids of elements (service classes, methods), assigned on first request.
+ *
+ * Ids start with <code>0</code> and have no gaps, so sets of elements could be kept
+ * as bit sets and maps as arrays.
+ *
+ * Ids are kept in an open-addressing table (linear probing), so looking up or assigning
+ * an id doesn't box it nor allocate an entry per element. Elements are compared by identity
+ * first and by {@link Object#equals(Object)} then, since reflection returns copies of equal
+ * methods.
+ *
+ * Ids are kept until {@link #clear()} is called, so they could be resolved after walks.
+ *
+ * <em>Implementation note</em>: this class is not thread-safe.
+ *
+ * @param <T> type of elements.
+ * @see APIWalker#getServiceIds()
+ * @see APIWalker#getMethodIds()
+ */
+public final class ElementIds<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Table of elements, its length is a power of two and it's at most half full. */
+    private Object[] table;
+
+    /** Ids of elements, indexed as table. */
+    private int[] tableIds;
+
+    /** Elements indexed by ids. */
+    private Object[] elements;
+
+    private int size;
+
+    public ElementIds() {
+        clear();
+    }
+
+    /**
+     * @param element element.
+     * @return id of element, assigned if element is not known yet.
+     * @throws NullPointerException if there's no element.
+     */
+    public int id(T element) {
+        if (element == null) {
+            throw new NullPointerException("element not provided");
+        }
+        int slot = slot(element);
+        if (table[slot] != null) {
+            return tableIds[slot];
+        }
+        int result = size++;
+        if (result == elements.length) {
+            elements = Arrays.copyOf(elements, 2 * result);
+        }
+        elements[result] = element;
+        table[slot] = element;
+        tableIds[slot] = result;
+        if (2 * size > table.length) {
+            rehash(2 * table.length);
+        }
+        return result;
+    }
+
+    /**
+     * @param element element.
+     * @return id of element, or <code>-1</code> if element is not known.
+     */
+    public int find(Object element) {
+        if (element == null) {
+            return -1;
+        }
+        int slot = slot(element);
+        return table[slot] == null ? -1 : tableIds[slot];
+    }
+
+    /**
+     * @param id id of element.
+     * @return element with given id.
+     * @throws IndexOutOfBoundsException if there's no such element.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + size);
+        }
+        return (T) elements[id];
+    }
+
+    /**
+     * @return number of known elements (the next id to be assigned).
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forgets all elements, so they're not retained anymore and ids are assigned from
+     * <code>0</code> again. Ids assigned before (for example kept by {@link CompactCollectingVisitor})
+     * are not valid anymore.
+     */
+    public void clear() {
+        table = new Object[INITIAL_CAPACITY];
+        tableIds = new int[INITIAL_CAPACITY];
+        elements = new Object[INITIAL_CAPACITY / 2];
+        size = 0;
+    }
+
+    /**
+     * @return slot of given element in table, or the free slot where it should be put.
+     */
+    private int slot(Object element) {
+        int mask = table.length - 1;
+        int slot = mix(element.hashCode()) & mask;
+        for (Object key = table[slot]; key != null && key != element && !key.equals(element); key = table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        table = new Object[capacity];
+        tableIds = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            int slot = slot(elements[id]);
+            table[slot] = elements[id];
+            tableIds[slot] = id;
+        }
+    }
+
+    private static int mix(int hash) {
+        // spreads hash codes of classes and methods, which differ mostly in higher bits
+        int result = hash * 0x9E3779B9;
+        return result ^ (result >>> 16);
+    }
+
+}
@@ -0,0 +1,44 @@
+package pl.ais.tools.apivisitor;
+
+/**
+ * Kinds of events reported to {@link Visitor}, one per visitor method.
+ */
+public enum EventKind {
+
+    BEGIN_SERVICE_PROCESSING,
+
+    FINISH_SERVICE_PROCESSING,
+
+    BEGIN_METHOD_PROCESSING,
+
+    FINISH_METHOD_PROCESSING,
+
+    BEGIN_RESULT_PROCESSING,
+
+    FINISH_RESULT_PROCESSING,
+
+    BEGIN_THROWABLE_PROCESSING,
+
+    FINISH_THROWABLE_PROCESSING,
+
+    BEGIN_ARGUMENT_PROCESSING,
+
+    FINISH_ARGUMENT_PROCESSING,
+
+    BEGIN_PROPERTY_PROCESSING,
+
+    FINISH_PROPERTY_PROCESSING,
+
+    BEGIN_TYPE_PROCESSING,
+
+    FINISH_TYPE_PROCESSING,
+
+    DEPENDENCY_CYCLE_DETECTED,
+
+    UNSUPPORTED_TYPE,
+
+    TYPE_ALREADY_VISITED,
+
+    LIMIT_REACHED
+
+}
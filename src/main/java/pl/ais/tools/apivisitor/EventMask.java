@@ -0,0 +1,139 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Masks of events consumed by visitors, see {@link ConsumedEvents}.
+ *
+ * Each kind of event is a single bit (<code>1 &lt;&lt; kind.ordinal()</code>). Events declared
+ * by visitor classes are read once per class.
+ */
+final class EventMask {
+
+    static final int ALL = (1 << EventKind.values().length) - 1;
+
+    static final int BEGIN_SERVICE = bit(EventKind.BEGIN_SERVICE_PROCESSING);
+
+    static final int FINISH_SERVICE = bit(EventKind.FINISH_SERVICE_PROCESSING);
+
+    static final int BEGIN_METHOD = bit(EventKind.BEGIN_METHOD_PROCESSING);
+
+    static final int FINISH_METHOD = bit(EventKind.FINISH_METHOD_PROCESSING);
+
+    static final int BEGIN_RESULT = bit(EventKind.BEGIN_RESULT_PROCESSING);
+
+    static final int FINISH_RESULT = bit(EventKind.FINISH_RESULT_PROCESSING);
+
+    static final int BEGIN_THROWABLE = bit(EventKind.BEGIN_THROWABLE_PROCESSING);
+
+    static final int FINISH_THROWABLE = bit(EventKind.FINISH_THROWABLE_PROCESSING);
+
+    static final int BEGIN_ARGUMENT = bit(EventKind.BEGIN_ARGUMENT_PROCESSING);
+
+    static final int FINISH_ARGUMENT = bit(EventKind.FINISH_ARGUMENT_PROCESSING);
+
+    static final int BEGIN_PROPERTY = bit(EventKind.BEGIN_PROPERTY_PROCESSING);
+
+    static final int FINISH_PROPERTY = bit(EventKind.FINISH_PROPERTY_PROCESSING);
+
+    static final int BEGIN_TYPE = bit(EventKind.BEGIN_TYPE_PROCESSING);
+
+    static final int FINISH_TYPE = bit(EventKind.FINISH_TYPE_PROCESSING);
+
+    static final int DEPENDENCY_CYCLE = bit(EventKind.DEPENDENCY_CYCLE_DETECTED);
+
+    static final int UNSUPPORTED_TYPE = bit(EventKind.UNSUPPORTED_TYPE);
+
+    static final int TYPE_ALREADY_VISITED = bit(EventKind.TYPE_ALREADY_VISITED);
+
+    static final int LIMIT_REACHED = bit(EventKind.LIMIT_REACHED);
+
+    /**
+     * Events reported while walking methods - when none of them is consumed, methods are not walked.
+     */
+    static final int METHOD_EVENTS = ALL & ~(BEGIN_SERVICE | FINISH_SERVICE);
+
+    /**
+     * Events reported while walking types - when none of them is consumed, types are not walked.
+     */
+    static final int TYPE_EVENTS = BEGIN_PROPERTY | FINISH_PROPERTY | BEGIN_TYPE | FINISH_TYPE | DEPENDENCY_CYCLE
+            | UNSUPPORTED_TYPE | TYPE_ALREADY_VISITED | LIMIT_REACHED;
+
+    private static final Set<EventKind> ALL_KINDS = Collections.unmodifiableSet(EnumSet.allOf(EventKind.class));
+
+    private static final ClassValue<Set<EventKind>> DECLARED = new ClassValue<Set<EventKind>>() {
+
+        @Override
+        protected Set<EventKind> computeValue(Class<?> type) {
+            ConsumedEvents consumedEvents = type.getAnnotation(ConsumedEvents.class);
+            if (consumedEvents == null) {
+                return ALL_KINDS;
+            }
+            Set<EventKind> result = EnumSet.noneOf(EventKind.class);
+            Collections.addAll(result, consumedEvents.value());
+            return Collections.unmodifiableSet(result);
+        }
+
+    };
+
+    private EventMask() {
+    }
+
+    static int bit(EventKind kind) {
+        return 1 << kind.ordinal();
+    }
+
+    /**
+     * @param visitor visitor, <code>null</code> means there's no visitor.
+     * @return mask of events consumed by visitor, see {@link Visitor#consumedEvents()}.
+     */
+    static int of(Visitor visitor) {
+        return visitor == null ? 0 : of(visitor.consumedEvents());
+    }
+
+    /**
+     * @param visitor visitor, <code>null</code> means there's no visitor.
+     * @return mask of events consumed by visitor, see {@link PruningVisitor#consumedEvents()}.
+     */
+    static int of(PruningVisitor visitor) {
+        return visitor == null ? 0 : of(visitor.consumedEvents());
+    }
+
+    /**
+     * @param kinds kinds of events.
+     * @return mask of given kinds of events.
+     */
+    static int of(Set<EventKind> kinds) {
+        int result = 0;
+        for (EventKind kind : kinds) {
+            result |= bit(kind);
+        }
+        return result;
+    }
+
+    /**
+     * @param mask mask of events.
+     * @return kinds of events of mask.
+     */
+    static Set<EventKind> kinds(int mask) {
+        Set<EventKind> result = EnumSet.noneOf(EventKind.class);
+        for (EventKind kind : EventKind.values()) {
+            if ((mask & bit(kind)) != 0) {
+                result.add(kind);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param type class of visitor.
+     * @return kinds of events declared by {@link ConsumedEvents} annotation of class (computed once per class),
+     *         all kinds of events if class is not annotated.
+     */
+    static Set<EventKind> declared(Class<?> type) {
+        return DECLARED.get(type);
+    }
+
+}
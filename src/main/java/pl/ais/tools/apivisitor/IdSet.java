@@ -0,0 +1,76 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Unmodifiable {@link java.util.Set} view of elements, which ids are members of a bit set.
+ *
+ * View reflects changes of the bit set, it's iterated in order of ids.
+ *
+ * @param <T> type of elements.
+ */
+final class IdSet<T> extends AbstractSet<T> {
+
+    private final BitSet ids;
+
+    private final IntFunction<T> elements;
+
+    private final ToIntFunction<Object> finder;
+
+    /**
+     * @param ids ids of members.
+     * @param elements returns element with given id.
+     * @param finder returns id of given object, or <code>-1</code> if it's not known.
+     */
+    IdSet(BitSet ids, IntFunction<T> elements, ToIntFunction<Object> finder) {
+        this.ids = ids;
+        this.elements = elements;
+        this.finder = finder;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        int id = finder.applyAsInt(element);
+        return id >= 0 && ids.get(id);
+    }
+
+    @Override
+    public int size() {
+        return ids.cardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private int next = ids.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public T next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                T result = elements.apply(next);
+                next = ids.nextSetBit(next + 1);
+                return result;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,285 @@
+package pl.ais.tools.apivisitor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import pl.ais.tools.apivisitor.ApiModel.ServiceNode;
+import pl.ais.tools.apivisitor.ApiModel.TypeNode;
+
+/**
+ * Service API structure walker, that walks again only services affected by changed classes.
+ *
+ * For each visited service class walker stores (in state directory) a {@link ApiModel model}
+ * of the service together with fingerprints (content hashes of class files) of all classes
+ * reachable from service: service class and its super classes, types of results, arguments,
+ * throwables and properties. During next visit the service is walked again only when
+ * fingerprint of any of those classes changed, otherwise stored model is replayed to visitor.
+ * Either way visitor receives the same events. Stored state is also bound to fingerprint of walker
+ * configuration (see {@link #configurationFingerprint()}), services are walked again when it changes.
+ *
+ * Notes:
+ * <ul>
+ *   <li>In <em>memoized</em> mode each type is walked once per service class.</li>
+ *   <li>When visitor stops walking (see {@link Traversal#STOP}), the rest of service classes
+ *   is neither walked nor replayed.</li>
+ *   <li>Limits and walk listener are not supported, since stored models are always complete.</li>
+ * </ul>
+ */
+public class IncrementalAPIWalker extends APIWalker {
+
+    private static final String MODEL_SUFFIX = ".model";
+
+    private static final String FINGERPRINTS_SUFFIX = ".fingerprints";
+
+    private final Path stateDirectory;
+
+    private final Map<String, String> fingerprints = new HashMap<>();
+
+    private final List<Class<?>> walkedServices = new ArrayList<>();
+
+    private final List<Class<?>> reusedServices = new ArrayList<>();
+
+    /**
+     * @param stateDirectory directory, where models and fingerprints of services are stored.
+     */
+    public IncrementalAPIWalker(Path stateDirectory) {
+        this.stateDirectory = stateDirectory;
+    }
+
+    /**
+     * Visit service classes, walking only services affected by changed classes.
+     *
+     * @param classes service classes to visit.
+     * @throws NullPointerException if there's no visitor.
+     * @throws IllegalStateException if limits or walk listener are set.
+     * @throws UncheckedIOException if state of service could not be stored.
+     */
+    @Override
+    public void visit(Class<?>... classes) {
+        PruningVisitor visitor = getVisitor();
+        if (visitor == null) {
+            throw new NullPointerException("visitor not provided");
+        }
+        if (isLimited() || hasWalkListener()) {
+            throw new IllegalStateException("limits and walk listener are not supported by incremental walker");
+        }
+        fingerprints.clear();
+        walkedServices.clear();
+        reusedServices.clear();
+        String configuration = configurationFingerprint();
+        for (Class<?> clazz : classes) {
+            if (clazz != null && !model(clazz, configuration).replay(visitor)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return service classes walked during last visit, because they (or classes they depend on) changed.
+     */
+    public List<Class<?>> getWalkedServices() {
+        return Collections.unmodifiableList(walkedServices);
+    }
+
+    /**
+     * @return service classes, which stored models were reused during last visit.
+     */
+    public List<Class<?>> getReusedServices() {
+        return Collections.unmodifiableList(reusedServices);
+    }
+
+    /**
+     * Calculates fingerprint of class.
+     *
+     * By default it's a SHA-256 hash of class file (or empty string, when class file is not available).
+     *
+     * @param className name of class.
+     * @param classLoader class loader of service, that depends on class.
+     * @return fingerprint of class.
+     * @throws IOException if class file could not be read.
+     */
+    protected String fingerprint(String className, ClassLoader classLoader) throws IOException {
+        try (InputStream classFile = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            if (classFile == null) {
+                return "";
+            }
+            MessageDigest digest = newDigest();
+            byte[] buffer = new byte[8192];
+            for (int read = classFile.read(buffer); read >= 0; read = classFile.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+            return hex(digest.digest());
+        }
+    }
+
+    /**
+     * Calculates fingerprint of walker configuration, that affects walked structure.
+     *
+     * By default it's a SHA-256 hash of terminating services and types, primitive types, shape rules,
+     * acceptors and memoized mode. Shape rules and acceptors (except of {@link MethodFilter}s) are
+     * identified by their classes only - walker should override this method, when they're lambdas
+     * capturing different values, so they're distinguished.
+     *
+     * @return fingerprint of configuration.
+     */
+    protected String configurationFingerprint() {
+        return hex(newDigest().digest(describeConfiguration().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : hash) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return result.toString();
+    }
+
+    private ApiModel model(Class<?> service, String configuration) {
+        ClassLoader classLoader = classLoader(service);
+        Path modelFile = stateDirectory.resolve(service.getName() + MODEL_SUFFIX);
+        Path fingerprintsFile = stateDirectory.resolve(service.getName() + FINGERPRINTS_SUFFIX);
+        try {
+            if (isUpToDate(fingerprintsFile, configuration, classLoader)) {
+                try {
+                    ApiModel model = ApiModel.read(modelFile, classLoader);
+                    reusedServices.add(service);
+                    return model;
+                } catch (IOException e) {
+                    // stored model is not usable, walk service again
+                }
+            }
+            ApiModel model = ApiModel.build(this, service);
+            Files.createDirectories(stateDirectory);
+            model.write(modelFile);
+            writeFingerprints(fingerprintsFile, configuration, classes(model), classLoader);
+            walkedServices.add(service);
+            return model;
+        } catch (IOException e) {
+            throw new UncheckedIOException("unable to store state of " + service.getName(), e);
+        }
+    }
+
+    private boolean isUpToDate(Path fingerprintsFile, String configuration, ClassLoader classLoader) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fingerprintsFile)))) {
+            if (!in.readUTF().equals(configuration)) {
+                return false;
+            }
+            for (int count = in.readInt(); count > 0; count--) {
+                String className = in.readUTF();
+                if (!in.readUTF().equals(cachedFingerprint(className, classLoader))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            // missing or corrupted state, walk service again
+            return false;
+        }
+    }
+
+    private void writeFingerprints(Path fingerprintsFile, String configuration, Iterable<String> classNames,
+            ClassLoader classLoader) throws IOException {
+        Map<String, String> result = new TreeMap<>();
+        for (String className : classNames) {
+            result.put(className, cachedFingerprint(className, classLoader));
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fingerprintsFile)))) {
+            out.writeUTF(configuration);
+            out.writeInt(result.size());
+            for (Map.Entry<String, String> fingerprint : result.entrySet()) {
+                out.writeUTF(fingerprint.getKey());
+                out.writeUTF(fingerprint.getValue());
+            }
+        }
+    }
+
+    private String cachedFingerprint(String className, ClassLoader classLoader) throws IOException {
+        String result = fingerprints.get(className);
+        if (result == null) {
+            result = fingerprint(className, classLoader);
+            fingerprints.put(className, result);
+        }
+        return result;
+    }
+
+    /**
+     * Collects names of all classes, that service model depends on.
+     */
+    private Iterable<String> classes(ApiModel model) {
+        Set<String> result = new TreeSet<>();
+        for (ServiceNode service : model.getAllServices()) {
+            result.add(service.getType().getName());
+        }
+        for (TypeNode node : model.getTypes()) {
+            collectClasses(node.getType(), result);
+        }
+        return result;
+    }
+
+    private void collectClasses(Type type, Set<String> result) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+            if (!clazz.isPrimitive()) {
+                result.add(clazz.getName());
+            }
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            if (pType.getOwnerType() != null) {
+                collectClasses(pType.getOwnerType(), result);
+            }
+            collectClasses(pType.getRawType(), result);
+            for (Type argType : pType.getActualTypeArguments()) {
+                collectClasses(argType, result);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collectClasses(((GenericArrayType) type).getGenericComponentType(), result);
+        } else if (type instanceof WildcardType) {
+            WildcardType wType = (WildcardType) type;
+            for (Type bound : wType.getUpperBounds()) {
+                collectClasses(bound, result);
+            }
+            for (Type bound : wType.getLowerBounds()) {
+                collectClasses(bound, result);
+            }
+        }
+    }
+
+    private ClassLoader classLoader(Class<?> service) {
+        ClassLoader classLoader = service.getClassLoader();
+        return classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+    }
+
+}
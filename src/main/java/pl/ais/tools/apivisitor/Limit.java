@@ -0,0 +1,25 @@
+package pl.ais.tools.apivisitor;
+
+/**
+ * Limits of walking, configured on {@link APIWalker}.
+ *
+ * @see Visitor#limitReached(java.util.List, Limit)
+ */
+public enum Limit {
+
+    /**
+     * Maximum depth of types, see {@link APIWalker#setMaxDepth(int)}.
+     */
+    MAX_DEPTH,
+
+    /**
+     * Maximum number of types walked per service, see {@link APIWalker#setMaxNodes(int)}.
+     */
+    MAX_NODES,
+
+    /**
+     * Time budget per service, see {@link APIWalker#setTimeBudget(long, java.util.concurrent.TimeUnit)}.
+     */
+    TIME_BUDGET
+
+}
@@ -0,0 +1,184 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled acceptor of methods, see {@link APIWalker#setMethodAcceptor(Predicate)}.
+ *
+ * Filter is immutable - each method returns a new filter with additional condition:
+ * <pre>{@code
+ * walker.setMethodAcceptor(MethodFilter.PUBLIC_API.annotatedWith(Operation.class).uniqueSignatures());
+ * }</pre>
+ * Filters are pure functions of methods, so unlike other acceptors they're not called by
+ * walker for each walked method: accepted methods of each class are computed once per filter
+ * and kept together with reflection metadata (see {@link TypeMetadataCache}). Custom conditions
+ * added using {@link #and(Predicate)} must not depend on anything but method.
+ */
+public final class MethodFilter implements Predicate<Method> {
+
+    /**
+     * Accepts all methods.
+     */
+    public static final MethodFilter ALL = new MethodFilter(0, false, false, false,
+            new Class<?>[0], new Pattern[0], newPredicates());
+
+    /**
+     * Accepts public methods, except of synthetic ones (like bodies of lambdas) and bridges.
+     */
+    public static final MethodFilter PUBLIC_API = ALL.publicOnly().withoutSynthetic().withoutBridges();
+
+    private final int requiredModifiers;
+
+    private final boolean withoutSynthetic;
+
+    private final boolean withoutBridges;
+
+    private final boolean uniqueSignatures;
+
+    private final Class<?>[] annotations;
+
+    private final Pattern[] namePatterns;
+
+    private final Predicate<Method>[] predicates;
+
+    private MethodFilter(int requiredModifiers, boolean withoutSynthetic, boolean withoutBridges,
+            boolean uniqueSignatures, Class<?>[] annotations, Pattern[] namePatterns, Predicate<Method>[] predicates) {
+        this.requiredModifiers = requiredModifiers;
+        this.withoutSynthetic = withoutSynthetic;
+        this.withoutBridges = withoutBridges;
+        this.uniqueSignatures = uniqueSignatures;
+        this.annotations = annotations;
+        this.namePatterns = namePatterns;
+        this.predicates = predicates;
+    }
+
+    /**
+     * Generic arrays could not be created, but the array holds only predicates of methods.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Predicate<Method>[] newPredicates() {
+        return new Predicate[0];
+    }
+
+    /**
+     * @return filter accepting only public methods.
+     */
+    public MethodFilter publicOnly() {
+        return new MethodFilter(requiredModifiers | Modifier.PUBLIC, withoutSynthetic, withoutBridges,
+                uniqueSignatures, annotations, namePatterns, predicates);
+    }
+
+    /**
+     * @return filter rejecting synthetic methods (like bodies of lambdas, <code>lambda$...</code>).
+     */
+    public MethodFilter withoutSynthetic() {
+        return new MethodFilter(requiredModifiers, true, withoutBridges, uniqueSignatures, annotations,
+                namePatterns, predicates);
+    }
+
+    /**
+     * @return filter rejecting bridge methods, generated by compiler for overridden generic methods.
+     */
+    public MethodFilter withoutBridges() {
+        return new MethodFilter(requiredModifiers, withoutSynthetic, true, uniqueSignatures, annotations,
+                namePatterns, predicates);
+    }
+
+    /**
+     * @param annotation annotation, that must be present on method.
+     * @return filter accepting only methods annotated with given annotation.
+     */
+    public MethodFilter annotatedWith(Class<? extends Annotation> annotation) {
+        Class<?>[] result = Arrays.copyOf(annotations, annotations.length + 1);
+        result[annotations.length] = annotation;
+        return new MethodFilter(requiredModifiers, withoutSynthetic, withoutBridges, uniqueSignatures, result,
+                namePatterns, predicates);
+    }
+
+    /**
+     * @param regex regular expression, that must match the whole name of method.
+     * @return filter accepting only methods with matching names.
+     */
+    public MethodFilter nameMatches(String regex) {
+        Pattern[] result = Arrays.copyOf(namePatterns, namePatterns.length + 1);
+        result[namePatterns.length] = Pattern.compile(regex);
+        return new MethodFilter(requiredModifiers, withoutSynthetic, withoutBridges, uniqueSignatures, annotations,
+                result, predicates);
+    }
+
+    /**
+     * @param predicate additional condition, depending only on method.
+     * @return filter accepting only methods accepted by predicate.
+     */
+    @Override
+    public MethodFilter and(Predicate<? super Method> predicate) {
+        Predicate<Method>[] result = Arrays.copyOf(predicates, predicates.length + 1);
+        result[predicates.length] = predicate::test;
+        return new MethodFilter(requiredModifiers, withoutSynthetic, withoutBridges, uniqueSignatures, annotations,
+                namePatterns, result);
+    }
+
+    /**
+     * Methods of super classes of service are walked, unless they're overridden: each signature
+     * (name and argument types, resolved against parametrization of super class) is walked once per service,
+     * by the first (the most specific) class declaring it.
+     *
+     * @return filter walking each signature of service once.
+     */
+    public MethodFilter uniqueSignatures() {
+        return new MethodFilter(requiredModifiers, withoutSynthetic, withoutBridges, true, annotations,
+                namePatterns, predicates);
+    }
+
+    boolean isUniqueSignatures() {
+        return uniqueSignatures;
+    }
+
+    @Override
+    public boolean test(Method method) {
+        if ((method.getModifiers() & requiredModifiers) != requiredModifiers
+                || (withoutSynthetic && method.isSynthetic())
+                || (withoutBridges && method.isBridge())) {
+            return false;
+        }
+        for (Pattern namePattern : namePatterns) {
+            if (!namePattern.matcher(method.getName()).matches()) {
+                return false;
+            }
+        }
+        for (Class<?> annotation : annotations) {
+            if (!method.isAnnotationPresent(annotation.asSubclass(Annotation.class))) {
+                return false;
+            }
+        }
+        for (Predicate<Method> predicate : predicates) {
+            if (!predicate.test(method)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return description of conditions of filter, custom conditions are only counted.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("MethodFilter[modifiers=").append(requiredModifiers)
+                .append(", withoutSynthetic=").append(withoutSynthetic)
+                .append(", withoutBridges=").append(withoutBridges)
+                .append(", uniqueSignatures=").append(uniqueSignatures)
+                .append(", annotations=[");
+        for (int i = 0; i < annotations.length; i++) {
+            result.append(i > 0 ? ", " : "").append(annotations[i].getName());
+        }
+        return result.append("], namePatterns=").append(Arrays.toString(namePatterns))
+                .append(", predicates=").append(predicates.length).append(']').toString();
+    }
+
+}
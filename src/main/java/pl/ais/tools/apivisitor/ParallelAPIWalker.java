@@ -0,0 +1,166 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Service API structure walker, that visits service classes concurrently.
+ *
+ * Each service class is visited by a separate, lightweight worker - sharing a snapshot of
+ * configuration of this walker, taken once per visiting method call, like workers of
+ * {@link WalkerPool} - using supplied {@link ExecutorService}
+ * (by default {@link ForkJoinPool#commonPool()}). Workers do not share any walking state
+ * (path of visited types, memoized types), so in <em>memoized</em> mode each type is walked
+ * once per service class.
+ *
+ * There are two ways of collecting results:
+ * <ul>
+ *   <li>{@link #visit(Class...)} - all workers report to the visitor supplied using
+ *   {@link #setVisitor(Visitor)}, so it must be thread-safe; events of different
+ *   services may be interleaved, events of single service are reported in
+ *   the same order as by {@link APIWalker}</li>
+ *   <li>{@link #visitAll(Function, Class...)} - each service gets its own visitor,
+ *   created by supplied factory; visitors are returned, so they could be merged
+ *   by the caller</li>
+ * </ul>
+ *
+ * Configuration methods (terminating and primitive types, acceptors etc) could be called
+ * between visits - changes are not visible to workers already started. Acceptors are shared
+ * by all workers, so they must be thread-safe.
+ *
+ * If visitor of any worker stops walking (see {@link Traversal#STOP}) or any worker fails,
+ * the other workers stop at their next decision of visitor and do not start their service classes.
+ * Visiting methods return (or re-throw exception of the first failing worker, in order of service
+ * classes) only after all started workers are finished, so no event is reported after they return.
+ */
+public class ParallelAPIWalker extends APIWalker {
+
+    private final ExecutorService executor;
+
+    public ParallelAPIWalker() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor executor used to run workers, it's not shut down by walker.
+     */
+    public ParallelAPIWalker(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Visit service classes concurrently, reporting to a shared, thread-safe visitor.
+     *
+     * @param classes service classes to visit.
+     * @throws NullPointerException if there's no visitor.
+     */
+    @Override
+    public void visit(Class<?>... classes) {
+        if (getVisitor() == null) {
+            throw new NullPointerException("visitor not provided");
+        }
+        APIWalker snapshot = new APIWalker(this);
+        List<APIWalker> workers = new ArrayList<>(classes.length);
+        for (int i = 0; i < classes.length; i++) {
+            workers.add(new APIWalker(snapshot, true));
+        }
+        run(workers, classes);
+    }
+
+    /**
+     * Visit service classes concurrently, reporting each of them to its own visitor.
+     *
+     * @param visitorFactory creates visitor for given service class.
+     * @param classes service classes to visit.
+     * @param <V> type of created visitors.
+     * @return visitors, in the same order as service classes.
+     * @throws NullPointerException if there's no visitor factory.
+     */
+    public <V extends Visitor> List<V> visitAll(Function<Class<?>, V> visitorFactory, Class<?>... classes) {
+        if (visitorFactory == null) {
+            throw new NullPointerException("visitor factory not provided");
+        }
+        APIWalker snapshot = new APIWalker(this);
+        List<V> visitors = new ArrayList<>(classes.length);
+        List<APIWalker> workers = new ArrayList<>(classes.length);
+        for (Class<?> clazz : classes) {
+            V visitor = visitorFactory.apply(clazz);
+            APIWalker worker = new APIWalker(snapshot, true);
+            worker.setVisitor(visitor);
+            visitors.add(visitor);
+            workers.add(worker);
+        }
+        run(workers, classes);
+        return visitors;
+    }
+
+    private void run(List<APIWalker> workers, Class<?>[] classes) {
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>(classes.length);
+        RuntimeException rejected = null;
+        try {
+            for (int i = 0; i < classes.length; i++) {
+                APIWalker worker = workers.get(i);
+                Class<?> clazz = classes[i];
+                worker.setSharedStop(stop);
+                futures.add(executor.submit(() -> visit(worker, clazz, stop)));
+            }
+        } catch (RuntimeException e) {
+            stop.set(true);
+            rejected = e;
+        }
+        // workers report to visitors and read configuration, so they're waited for
+        // even if they're stopped - no event is reported after visiting method returns
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    stop.set(true);
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (rejected != null) {
+            throw rejected;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        } else if (interrupted) {
+            throw new IllegalStateException("interrupted while visiting services");
+        }
+    }
+
+    /**
+     * Visits service class by worker, failure of worker stops the others.
+     */
+    private static void visit(APIWalker worker, Class<?> clazz, AtomicBoolean stop) {
+        try {
+            worker.visitNext(clazz, true);
+        } catch (RuntimeException | Error e) {
+            stop.set(true);
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Visitor, that controls walking - prunes elements it's not interested in.
+ *
+ * It's a variant of {@link Visitor} with the same methods, except that methods starting
+ * processing of methods, arguments, properties and types return {@link Traversal} decision.
+ * Siblings of elements are:
+ * <ul>
+ *   <li>for methods - remaining methods of service class and its super classes</li>
+ *   <li>for arguments - remaining arguments and throwables of method</li>
+ *   <li>for properties - remaining properties and super class of type</li>
+ *   <li>for types - remaining type arguments of parametrized type (other types are
+ *   the only children of their parents)</li>
+ * </ul>
+ *
+ * Pruning visitors are used by {@link APIWalker#setVisitor(PruningVisitor)} and
+ * {@link ApiModel#accept(PruningVisitor)}.
+ *
+ * @see BasePruningVisitor
+ */
+public interface PruningVisitor {
+
+    void beginServiceProcessing(Class<?> clazz);
+
+    void finishServiceProcessing(Class<?> clazz);
+
+    Traversal beginMethodProcessing(Method method);
+
+    void finishMethodProcessing(Method method);
+
+    void beginResultProcessing(Method method, Type type);
+
+    void finishResultProcessing(Method method, Type type);
+
+    void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable);
+
+    void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable);
+
+    Traversal beginArgumentProcessing(Method method, int index, Type type);
+
+    void finishArgumentProcessing(Method method, int index, Type type);
+
+    Traversal beginPropertyProcessing(String name, Type type);
+
+    void finishPropertyProcessing(String name, Type type);
+
+    Traversal beginTypeProcessing(Type type);
+
+    void finishTypeProcessing(Type type);
+
+    /**
+     * @param path path to cycle of dependencies.
+     * @see Visitor#dependencyCycleDetected(List)
+     */
+    void dependencyCycleDetected(List<Type> path);
+
+    /**
+     * @param path path to unsupported type.
+     * @param type unsupported type.
+     * @see Visitor#unsupportedType(List, Type)
+     */
+    void unsupportedType(List<Type> path, Type type);
+
+    /**
+     * @param type already visited type.
+     * @see Visitor#typeAlreadyVisited(Type)
+     */
+    void typeAlreadyVisited(Type type);
+
+    /**
+     * @param path path to type, that has not been walked (including that type).
+     * @param limit reached limit.
+     * @see Visitor#limitReached(List, Limit)
+     */
+    void limitReached(List<Type> path, Limit limit);
+
+    /**
+     * @return kinds of consumed events.
+     * @see Visitor#consumedEvents()
+     */
+    default Set<EventKind> consumedEvents() {
+        return EventMask.declared(getClass());
+    }
+
+}
@@ -0,0 +1,25 @@
+package pl.ais.tools.apivisitor;
+
+/**
+ * Rule classifying classes, see {@link APIWalker#addShapeRules(ShapeRule...)}.
+ *
+ * Rules are consulted once per class (and walker), before built-in classification
+ * ({@link TypeShape#of(Class)}), but after terminating and primitive types of walker.
+ */
+@FunctionalInterface
+public interface ShapeRule {
+
+    /**
+     * Treats all classes from <code>java.*</code> packages as leaves, except of arrays,
+     * collections, maps and optionals.
+     */
+    ShapeRule JAVA_LEAVES = (type) -> type.getName().startsWith("java.")
+            && TypeShape.of(type) == TypeShape.BEAN ? TypeShape.LEAF : null;
+
+    /**
+     * @param type classified class.
+     * @return shape of class, or <code>null</code> if rule does not apply to that class.
+     */
+    TypeShape classify(Class<?> type);
+
+}
@@ -0,0 +1,169 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Measures time spent inside callbacks of target visitor, used when {@link WalkListener} is set.
+ */
+final class TimingVisitor implements PruningVisitor {
+
+    private final PruningVisitor target;
+
+    private long nanos;
+
+    TimingVisitor(PruningVisitor target) {
+        this.target = target;
+    }
+
+    PruningVisitor getTarget() {
+        return target;
+    }
+
+    @Override
+    public Set<EventKind> consumedEvents() {
+        return target.consumedEvents();
+    }
+
+    /**
+     * @return time spent inside callbacks since previous call.
+     */
+    long takeNanos() {
+        long result = nanos;
+        nanos = 0;
+        return result;
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        long start = System.nanoTime();
+        target.beginServiceProcessing(clazz);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        long start = System.nanoTime();
+        target.finishServiceProcessing(clazz);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public Traversal beginMethodProcessing(Method method) {
+        long start = System.nanoTime();
+        Traversal result = target.beginMethodProcessing(method);
+        nanos += System.nanoTime() - start;
+        return result;
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        long start = System.nanoTime();
+        target.finishMethodProcessing(method);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+        long start = System.nanoTime();
+        target.beginResultProcessing(method, type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+        long start = System.nanoTime();
+        target.finishResultProcessing(method, type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        long start = System.nanoTime();
+        target.beginThrowableProcessing(method, throwable);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        long start = System.nanoTime();
+        target.finishThrowableProcessing(method, throwable);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public Traversal beginArgumentProcessing(Method method, int index, Type type) {
+        long start = System.nanoTime();
+        Traversal result = target.beginArgumentProcessing(method, index, type);
+        nanos += System.nanoTime() - start;
+        return result;
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        long start = System.nanoTime();
+        target.finishArgumentProcessing(method, index, type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public Traversal beginPropertyProcessing(String name, Type type) {
+        long start = System.nanoTime();
+        Traversal result = target.beginPropertyProcessing(name, type);
+        nanos += System.nanoTime() - start;
+        return result;
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        long start = System.nanoTime();
+        target.finishPropertyProcessing(name, type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public Traversal beginTypeProcessing(Type type) {
+        long start = System.nanoTime();
+        Traversal result = target.beginTypeProcessing(type);
+        nanos += System.nanoTime() - start;
+        return result;
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        long start = System.nanoTime();
+        target.finishTypeProcessing(type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        long start = System.nanoTime();
+        target.dependencyCycleDetected(path);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+        long start = System.nanoTime();
+        target.unsupportedType(path, type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        long start = System.nanoTime();
+        target.typeAlreadyVisited(type);
+        nanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+        long start = System.nanoTime();
+        target.limitReached(path, limit);
+        nanos += System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,30 @@
+package pl.ais.tools.apivisitor;
+
+/**
+ * Decision returned by {@link PruningVisitor}, controlling further walking.
+ */
+public enum Traversal {
+
+    /**
+     * Continue walking: visit children of current element, then its siblings.
+     */
+    CONTINUE,
+
+    /**
+     * Do not visit children of current element, continue with its siblings.
+     */
+    SKIP_CHILDREN,
+
+    /**
+     * Visit children of current element, but skip its remaining siblings.
+     */
+    SKIP_SIBLINGS,
+
+    /**
+     * Stop walking: do not visit children of current element nor any other element.
+     * Elements already visited are finished, so each <em>begin</em> event still
+     * has its <em>finish</em> event.
+     */
+    STOP
+
+}
@@ -0,0 +1,92 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Maps structurally equal types to a single, canonical {@link TypeKey}.
+ *
+ * Reflection creates a new instance of generic type (like <code>List&lt;String&gt;</code>)
+ * for each occurrence in signatures, so using them as keys of hash sets and maps means
+ * computing their hash codes and comparing them deeply over and over. Interner compares
+ * a type deeply only once per instance: instances are remembered by identity, so subsequent
+ * lookups of the same instance (reflection metadata is cached by {@link TypeMetadataCache},
+ * so walker sees the same instances again) are identity lookups. Instances are remembered
+ * until {@link #clearInstances()}, which {@link APIWalker} calls at the start of each visit,
+ * so a long-lived interner keeps only canonical keys (one per distinct type).
+ *
+ * Keys have dense ids, so sets of types could be kept as bit sets and maps as arrays.
+ *
+ * <em>Implementation note</em>: this class is not thread-safe.
+ *
+ * @see APIWalker#getTypeInterner()
+ */
+public final class TypeInterner {
+
+    private final Map<Type, TypeKey> instances = new IdentityHashMap<>();
+
+    private final Map<Type, TypeKey> keys = new HashMap<>();
+
+    private TypeKey[] byId = new TypeKey[64];
+
+    /**
+     * @param type type to intern.
+     * @return canonical key of type, created if type is not known yet.
+     */
+    public TypeKey intern(Type type) {
+        TypeKey result = instances.get(type);
+        if (result == null) {
+            result = keys.get(type);
+            if (result == null) {
+                result = new TypeKey(type, keys.size());
+                keys.put(type, result);
+                if (result.getId() == byId.length) {
+                    byId = Arrays.copyOf(byId, byId.length * 2);
+                }
+                byId[result.getId()] = result;
+            }
+            instances.put(type, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param type type to look up.
+     * @return canonical key of type, or <code>null</code> if type is not known.
+     */
+    public TypeKey find(Type type) {
+        TypeKey result = instances.get(type);
+        return result == null ? keys.get(type) : result;
+    }
+
+    /**
+     * Forgets instances remembered by identity. Canonical keys and their ids are kept,
+     * forgotten instances are compared deeply again when interned next time.
+     */
+    public void clearInstances() {
+        instances.clear();
+    }
+
+    /**
+     * @param id id of key.
+     * @return key with given id.
+     * @throws IndexOutOfBoundsException if there's no such key.
+     */
+    public TypeKey get(int id) {
+        if (id < 0 || id >= keys.size()) {
+            throw new IndexOutOfBoundsException("id: " + id + ", size: " + keys.size());
+        }
+        return byId[id];
+    }
+
+    /**
+     * @return number of interned types (the next id to be assigned).
+     */
+    public int size() {
+        return keys.size();
+    }
+
+}
@@ -0,0 +1,55 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+
+/**
+ * Canonical key of a type, created by {@link TypeInterner}.
+ *
+ * There's a single key for all structurally equal types known to an interner,
+ * so keys are compared by identity (or by their ids) and their hash codes are
+ * computed once.
+ */
+public final class TypeKey {
+
+    private final Type type;
+
+    private final int id;
+
+    private final int hash;
+
+    TypeKey(Type type, int id) {
+        this.type = type;
+        this.id = id;
+        this.hash = type.hashCode();
+    }
+
+    /**
+     * @return canonical type - the first interned instance of structurally equal types.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return dense id of type, unique within its interner (starting with <code>0</code>).
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return type.getTypeName() + "#" + id;
+    }
+
+}
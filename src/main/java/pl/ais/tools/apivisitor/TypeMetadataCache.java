@@ -0,0 +1,47 @@
+package pl.ais.tools.apivisitor;
+
+/**
+ * Cache of reflection metadata (declared fields, methods and their generic types)
+ * used by {@link APIWalker}.
+ *
+ * Cache could be shared by many walkers (also used concurrently) and kept between
+ * walks, so reflection is performed once per class. Entries are attached to classes
+ * using {@link ClassValue}, so cache does not prevent classes (and their class loaders)
+ * from being unloaded - number of entries is bounded by number of loaded classes.
+ *
+ * By default walkers use {@link #getDefault() default} cache instance.
+ */
+public final class TypeMetadataCache {
+
+    private static final TypeMetadataCache DEFAULT = new TypeMetadataCache();
+
+    private final ClassValue<ClassModel> models = new ClassValue<ClassModel>() {
+
+        @Override
+        protected ClassModel computeValue(Class<?> type) {
+            return new ClassModel(type);
+        }
+
+    };
+
+    /**
+     * @return cache shared by all walkers, that were not configured with their own cache.
+     */
+    public static TypeMetadataCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Removes cached metadata of given class.
+     *
+     * @param type class to remove metadata of.
+     */
+    public void invalidate(Class<?> type) {
+        models.remove(type);
+    }
+
+    ClassModel getModel(Class<?> type) {
+        return models.get(type);
+    }
+
+}
@@ -0,0 +1,60 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Path of types, that are currently walked by {@link APIWalker}.
+ *
+ * Path is not synchronized and checks whether type is already a part of path in
+ * constant time, using ids of interned types. It's also an unmodifiable
+ * {@link java.util.List} view, passed to visitors without copying - this view
+ * reflects the current state of the path, so visitors, that need to keep it,
+ * have to copy it.
+ */
+final class TypePath extends AbstractList<Type> implements RandomAccess {
+
+    private Type[] types = new Type[16];
+
+    private int[] ids = new int[16];
+
+    private int size;
+
+    private final BitSet members = new BitSet();
+
+    void push(Type type, TypeKey key) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        types[size] = type;
+        ids[size++] = key.getId();
+        members.set(key.getId());
+    }
+
+    void pop() {
+        members.clear(ids[--size]);
+        types[size] = null;
+    }
+
+    boolean contains(TypeKey key) {
+        return members.get(key.getId());
+    }
+
+    @Override
+    public Type get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return types[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+}
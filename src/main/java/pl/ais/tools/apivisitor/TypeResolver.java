@@ -0,0 +1,100 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+
+/**
+ * Resolves type variables of generic classes against their parametrizations.
+ *
+ * Owner is a parametrized type (like <code>Service&lt;Order&gt;</code>), that binds type
+ * variables of its raw type (and of raw types of its owners) - so that <code>T</code>
+ * declared by <code>Service</code> is resolved to <code>Order</code>. Variables, that are
+ * not bound by owner (declared by methods, or by classes used as raw types), are left intact.
+ */
+final class TypeResolver {
+
+    private TypeResolver() {
+    }
+
+    /**
+     * @param owner owner type, binding type variables.
+     * @param type type to resolve.
+     * @return resolved type, or the same instance if there's nothing to resolve.
+     */
+    static Type resolve(Type owner, Type type) {
+        if (!(owner instanceof ParameterizedType) || type instanceof Class || type == null) {
+            return type;
+        }
+        if (type instanceof TypeVariable) {
+            Type binding = binding((ParameterizedType) owner, (TypeVariable<?>) type);
+            return binding == null ? type : binding;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            Type ownerType = resolve(owner, pType.getOwnerType());
+            Type[] arguments = pType.getActualTypeArguments();
+            boolean changed = ownerType != pType.getOwnerType();
+            for (int i = 0; i < arguments.length; i++) {
+                Type argument = resolve(owner, arguments[i]);
+                changed |= argument != arguments[i];
+                arguments[i] = argument;
+            }
+            return changed ? Types.parameterized(ownerType, (Class<?>) pType.getRawType(), arguments) : type;
+        }
+        if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            Type resolved = resolve(owner, component);
+            if (resolved == component) {
+                return type;
+            }
+            if (resolved instanceof Class) {
+                return Array.newInstance((Class<?>) resolved, 0).getClass();
+            }
+            return Types.genericArray(resolved);
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wType = (WildcardType) type;
+            Type[] upperBounds = wType.getUpperBounds();
+            Type[] lowerBounds = wType.getLowerBounds();
+            if (resolve(owner, upperBounds) | resolve(owner, lowerBounds)) {
+                return Types.wildcard(upperBounds, lowerBounds);
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Resolves types in place.
+     *
+     * @return <code>true</code> if any type has been resolved.
+     */
+    static boolean resolve(Type owner, Type[] types) {
+        boolean changed = false;
+        for (int i = 0; i < types.length; i++) {
+            Type resolved = resolve(owner, types[i]);
+            changed |= resolved != types[i];
+            types[i] = resolved;
+        }
+        return changed;
+    }
+
+    private static Type binding(ParameterizedType owner, TypeVariable<?> variable) {
+        for (Type type = owner; type instanceof ParameterizedType; type = ((ParameterizedType) type).getOwnerType()) {
+            ParameterizedType pType = (ParameterizedType) type;
+            if (pType.getRawType().equals(variable.getGenericDeclaration())) {
+                TypeVariable<?>[] parameters = ((Class<?>) pType.getRawType()).getTypeParameters();
+                for (int i = 0; i < parameters.length; i++) {
+                    if (parameters[i].equals(variable)) {
+                        return pType.getActualTypeArguments()[i];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+}
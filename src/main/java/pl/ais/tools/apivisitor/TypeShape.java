@@ -0,0 +1,137 @@
+package pl.ais.tools.apivisitor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Shapes of types, deciding how {@link APIWalker} walks them.
+ *
+ * Shape of a class is computed once per class (see {@link #of(Class)}), walkers could
+ * override it using terminating and primitive types and {@link ShapeRule}s.
+ * Generic types (parametrized types, type variables and wildcards) are containers,
+ * generic arrays are arrays - unless they are registered as terminating or primitive types.
+ */
+public enum TypeShape {
+
+    /**
+     * Type reported, but not walked: Java primitives, their wrappers, enums, strings,
+     * dates, <code>java.time</code> classes, <code>UUID</code> etc.
+     */
+    LEAF,
+
+    /**
+     * Type walked only through its type arguments: JDK collections, maps and <code>Optional</code>.
+     * Their fields (and super classes) are not walked.
+     */
+    CONTAINER,
+
+    /**
+     * Type neither reported nor walked, see {@link APIWalker#addTerminatingTypes(java.lang.reflect.Type...)}.
+     */
+    TERMINATING,
+
+    /**
+     * Class walked through its properties (fields) and super class.
+     */
+    BEAN,
+
+    /**
+     * Array walked through its component type.
+     */
+    ARRAY;
+
+    private static final Set<Class<?>> LEAVES = createLeaves();
+
+    private static final ClassValue<TypeShape> SHAPES = new ClassValue<TypeShape>() {
+
+        @Override
+        protected TypeShape computeValue(Class<?> type) {
+            return classify(type);
+        }
+
+    };
+
+    /**
+     * Built-in classification of classes, without configuration of walkers.
+     *
+     * @param type classified class.
+     * @return {@link #ARRAY} for arrays, {@link #LEAF} for primitives, enums and known JDK leaves,
+     *         {@link #CONTAINER} for JDK collections, maps and optionals, {@link #BEAN} otherwise.
+     */
+    public static TypeShape of(Class<?> type) {
+        return SHAPES.get(type);
+    }
+
+    private static TypeShape classify(Class<?> type) {
+        if (type.isArray()) {
+            return ARRAY;
+        } else if (type.isPrimitive() || Enum.class.isAssignableFrom(type) || LEAVES.contains(type)
+                || type.getName().startsWith("java.time.")
+                || type.getName().startsWith("java.util.concurrent.atomic.")) {
+            return LEAF;
+        } else if (type.getName().startsWith("java.") && (Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type) || Optional.class == type)) {
+            return CONTAINER;
+        }
+        return BEAN;
+    }
+
+    private static Set<Class<?>> createLeaves() {
+        Set<Class<?>> result = new HashSet<>();
+        result.add(Boolean.class);
+        result.add(Character.class);
+        result.add(Byte.class);
+        result.add(Short.class);
+        result.add(Integer.class);
+        result.add(Long.class);
+        result.add(Float.class);
+        result.add(Double.class);
+        result.add(Void.class);
+        result.add(Number.class);
+        result.add(String.class);
+        result.add(CharSequence.class);
+        result.add(Class.class);
+        result.add(BigDecimal.class);
+        result.add(BigInteger.class);
+        result.add(UUID.class);
+        result.add(Date.class);
+        result.add(Calendar.class);
+        result.add(GregorianCalendar.class);
+        result.add(TimeZone.class);
+        result.add(Locale.class);
+        result.add(Currency.class);
+        result.add(Charset.class);
+        result.add(Pattern.class);
+        result.add(URI.class);
+        result.add(URL.class);
+        result.add(OptionalInt.class);
+        result.add(OptionalLong.class);
+        result.add(OptionalDouble.class);
+        result.add(java.sql.Date.class);
+        result.add(Time.class);
+        result.add(Timestamp.class);
+        return result;
+    }
+
+}
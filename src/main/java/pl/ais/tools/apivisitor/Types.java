@@ -0,0 +1,235 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementations of generic types, created by API Walker (not by reflection).
+ *
+ * They are equal to (and have the same hash codes as) JDK implementations of
+ * the same types, so they could be used interchangeably.
+ */
+final class Types {
+
+    private static final Type[] NO_TYPES = new Type[0];
+
+    private static final Type[] OBJECT_BOUNDS = { Object.class };
+
+    private Types() {
+    }
+
+    static ParameterizedType parameterized(Type ownerType, Class<?> rawType, Type... actualTypeArguments) {
+        return new ParameterizedTypeImpl(ownerType, rawType, actualTypeArguments.clone());
+    }
+
+    static GenericArrayType genericArray(Type componentType) {
+        return new GenericArrayTypeImpl(componentType);
+    }
+
+    static WildcardType wildcard(Type[] upperBounds, Type[] lowerBounds) {
+        return new WildcardTypeImpl(upperBounds.length == 0 ? OBJECT_BOUNDS : upperBounds.clone(),
+                lowerBounds.length == 0 ? NO_TYPES : lowerBounds.clone());
+    }
+
+    /**
+     * Type known only by its name.
+     */
+    static Type named(String typeName) {
+        return new NamedType(typeName);
+    }
+
+    private static final class ParameterizedTypeImpl implements ParameterizedType {
+
+        private final Type ownerType;
+
+        private final Class<?> rawType;
+
+        private final Type[] actualTypeArguments;
+
+        ParameterizedTypeImpl(Type ownerType, Class<?> rawType, Type[] actualTypeArguments) {
+            this.ownerType = ownerType;
+            this.rawType = rawType;
+            this.actualTypeArguments = actualTypeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return actualTypeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof ParameterizedType) {
+                ParameterizedType that = (ParameterizedType) other;
+                return this == that || (Objects.equals(ownerType, that.getOwnerType())
+                        && Objects.equals(rawType, that.getRawType())
+                        && Arrays.equals(actualTypeArguments, that.getActualTypeArguments()));
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            if (ownerType != null) {
+                result.append(ownerType.getTypeName()).append('$');
+                if (ownerType instanceof ParameterizedType) {
+                    Class<?> ownerRawType = (Class<?>) ((ParameterizedType) ownerType).getRawType();
+                    result.append(rawType.getName().replace(ownerRawType.getName() + "$", ""));
+                } else {
+                    result.append(rawType.getSimpleName());
+                }
+            } else {
+                result.append(rawType.getName());
+            }
+            if (actualTypeArguments.length > 0) {
+                result.append('<');
+                for (int i = 0; i < actualTypeArguments.length; i++) {
+                    if (i > 0) {
+                        result.append(", ");
+                    }
+                    result.append(actualTypeArguments[i].getTypeName());
+                }
+                result.append('>');
+            }
+            return result.toString();
+        }
+
+    }
+
+    private static final class GenericArrayTypeImpl implements GenericArrayType {
+
+        private final Type componentType;
+
+        GenericArrayTypeImpl(Type componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return componentType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof GenericArrayType
+                    && Objects.equals(componentType, ((GenericArrayType) other).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(componentType);
+        }
+
+        @Override
+        public String toString() {
+            return componentType.getTypeName() + "[]";
+        }
+
+    }
+
+    private static final class WildcardTypeImpl implements WildcardType {
+
+        private final Type[] upperBounds;
+
+        private final Type[] lowerBounds;
+
+        WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+            this.upperBounds = upperBounds;
+            this.lowerBounds = lowerBounds;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upperBounds.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lowerBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof WildcardType) {
+                WildcardType that = (WildcardType) other;
+                return Arrays.equals(lowerBounds, that.getLowerBounds())
+                        && Arrays.equals(upperBounds, that.getUpperBounds());
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
+        }
+
+        @Override
+        public String toString() {
+            Type[] bounds;
+            StringBuilder result = new StringBuilder();
+            if (lowerBounds.length > 0) {
+                bounds = lowerBounds;
+                result.append("? super ");
+            } else if (upperBounds.length > 0 && !upperBounds[0].equals(Object.class)) {
+                bounds = upperBounds;
+                result.append("? extends ");
+            } else {
+                return "?";
+            }
+            for (int i = 0; i < bounds.length; i++) {
+                if (i > 0) {
+                    result.append(" & ");
+                }
+                result.append(bounds[i].getTypeName());
+            }
+            return result.toString();
+        }
+
+    }
+
+    private static final class NamedType implements Type {
+
+        private final String typeName;
+
+        NamedType(String typeName) {
+            this.typeName = typeName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof NamedType && typeName.equals(((NamedType) other).typeName);
+        }
+
+        @Override
+        public int hashCode() {
+            return typeName.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return typeName;
+        }
+
+    }
+
+}
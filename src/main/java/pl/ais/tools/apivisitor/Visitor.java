@@ -2,6 +2,7 @@ package pl.ais.tools.apivisitor;
 
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Set;
 
 import pl.ais.tools.apivisitor.visitors.ServiceVisitor;
 import pl.ais.tools.apivisitor.visitors.TypeVisitor;
@@ -26,8 +27,9 @@ public interface Visitor extends ServiceVisitor, TypeVisitor {
      * API visitor supports:
      * <ul>
      *   <li>parametrized types</li>
-     *   <li>arrays</li>
+     *   <li>arrays and generic arrays</li>
      *   <li>classes</li>
+     *   <li>type variables and wildcards</li>
      * </ul>
      * In case of code, that cause API Walker to call this method please, submit
      * a ticket to API https://github.com/aispl/ais-tools-apivisitor with a sample code.
@@ -37,4 +39,43 @@ public interface Visitor extends ServiceVisitor, TypeVisitor {
      */
     void unsupportedType(List<Type> path, Type type);
 
+    /**
+     * Invoked in <em>memoized</em> mode, instead of walking the type again,
+     * when type has been already walked. Does nothing by default.
+     *
+     * @param type already visited type.
+     * @see APIWalker#setMemoizeTypes(boolean)
+     */
+    default void typeAlreadyVisited(Type type) {
+    }
+
+    /**
+     * Invoked, when a limit configured on walker is reached.
+     *
+     * In case of {@link Limit#MAX_DEPTH} the type is not walked, walking continues
+     * with its siblings. Other limits stop walking of current service (or type),
+     * elements already visited are finished. Does nothing by default.
+     *
+     * @param path path to type, that has not been walked (including that type).
+     * @param limit reached limit.
+     * @see APIWalker#setMaxDepth(int)
+     * @see APIWalker#setMaxNodes(int)
+     * @see APIWalker#setTimeBudget(long, java.util.concurrent.TimeUnit)
+     */
+    default void limitReached(List<Type> path, Limit limit) {
+    }
+
+    /**
+     * Declares kinds of events consumed by visitor - walker does not report other events, and
+     * does not walk methods (or types) at all, when none of their events is consumed.
+     *
+     * By default these are events declared by {@link ConsumedEvents} annotation of visitor class,
+     * or all events, when class is not annotated. Visitors wrapping other visitors delegate to them.
+     *
+     * @return kinds of consumed events.
+     */
+    default Set<EventKind> consumedEvents() {
+        return EventMask.declared(getClass());
+    }
+
 }
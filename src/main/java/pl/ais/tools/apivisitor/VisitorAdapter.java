@@ -0,0 +1,126 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adapts {@link Visitor} to {@link PruningVisitor}, that always continues walking.
+ */
+final class VisitorAdapter implements PruningVisitor {
+
+    private final Visitor target;
+
+    VisitorAdapter(Visitor target) {
+        this.target = target;
+    }
+
+    static PruningVisitor adapt(Visitor visitor) {
+        return visitor == null ? null : new VisitorAdapter(visitor);
+    }
+
+    Visitor getTarget() {
+        return target;
+    }
+
+    @Override
+    public Set<EventKind> consumedEvents() {
+        return target.consumedEvents();
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        target.beginServiceProcessing(clazz);
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        target.finishServiceProcessing(clazz);
+    }
+
+    @Override
+    public Traversal beginMethodProcessing(Method method) {
+        target.beginMethodProcessing(method);
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        target.finishMethodProcessing(method);
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+        target.beginResultProcessing(method, type);
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+        target.finishResultProcessing(method, type);
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        target.beginThrowableProcessing(method, throwable);
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        target.finishThrowableProcessing(method, throwable);
+    }
+
+    @Override
+    public Traversal beginArgumentProcessing(Method method, int index, Type type) {
+        target.beginArgumentProcessing(method, index, type);
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        target.finishArgumentProcessing(method, index, type);
+    }
+
+    @Override
+    public Traversal beginPropertyProcessing(String name, Type type) {
+        target.beginPropertyProcessing(name, type);
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        target.finishPropertyProcessing(name, type);
+    }
+
+    @Override
+    public Traversal beginTypeProcessing(Type type) {
+        target.beginTypeProcessing(type);
+        return Traversal.CONTINUE;
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        target.finishTypeProcessing(type);
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        target.dependencyCycleDetected(path);
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+        target.unsupportedType(path, type);
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        target.typeAlreadyVisited(type);
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+        target.limitReached(path, limit);
+    }
+
+}
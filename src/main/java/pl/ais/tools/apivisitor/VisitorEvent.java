@@ -0,0 +1,204 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single event reported to {@link Visitor}, with its arguments.
+ *
+ * Events are immutable, paths of types are copied when event is created.
+ * Arguments not used by event's kind are <code>null</code> (or <code>-1</code> for index).
+ */
+public final class VisitorEvent {
+
+    private final EventKind kind;
+
+    private final Class<?> service;
+
+    private final Method method;
+
+    private final Type type;
+
+    private final int index;
+
+    private final String name;
+
+    private final List<Type> path;
+
+    private final Limit limit;
+
+    private VisitorEvent(EventKind kind, Class<?> service, Method method, Type type, int index, String name,
+            List<Type> path, Limit limit) {
+        this.kind = kind;
+        this.service = service;
+        this.method = method;
+        this.type = type;
+        this.index = index;
+        this.name = name;
+        this.path = path;
+        this.limit = limit;
+    }
+
+    static VisitorEvent service(EventKind kind, Class<?> service) {
+        return new VisitorEvent(kind, service, null, null, -1, null, null, null);
+    }
+
+    static VisitorEvent method(EventKind kind, Method method) {
+        return new VisitorEvent(kind, null, method, null, -1, null, null, null);
+    }
+
+    static VisitorEvent methodType(EventKind kind, Method method, int index, Type type) {
+        return new VisitorEvent(kind, null, method, type, index, null, null, null);
+    }
+
+    static VisitorEvent property(EventKind kind, String name, Type type) {
+        return new VisitorEvent(kind, null, null, type, -1, name, null, null);
+    }
+
+    static VisitorEvent type(EventKind kind, List<Type> path, Type type) {
+        return new VisitorEvent(kind, null, null, type, -1, null, copy(path), null);
+    }
+
+    static VisitorEvent limit(List<Type> path, Limit limit) {
+        return new VisitorEvent(EventKind.LIMIT_REACHED, null, null, null, -1, null, copy(path), limit);
+    }
+
+    private static List<Type> copy(List<Type> path) {
+        return path == null ? null : Collections.unmodifiableList(new ArrayList<>(path));
+    }
+
+    public EventKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return service class of service events.
+     */
+    public Class<?> getService() {
+        return service;
+    }
+
+    /**
+     * @return method of method, result, argument and throwable events.
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return type of result, argument, throwable, property and type events.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return index of argument events.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return name of property events.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return unmodifiable path of dependency cycle, unsupported type and limit events.
+     */
+    public List<Type> getPath() {
+        return path;
+    }
+
+    /**
+     * @return limit of limit events.
+     */
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Reports event to visitor, calling visitor method matching event's kind.
+     *
+     * @param visitor visitor to report to.
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatch(Visitor visitor) {
+        switch (kind) {
+            case BEGIN_SERVICE_PROCESSING:
+                visitor.beginServiceProcessing(service);
+                break;
+            case FINISH_SERVICE_PROCESSING:
+                visitor.finishServiceProcessing(service);
+                break;
+            case BEGIN_METHOD_PROCESSING:
+                visitor.beginMethodProcessing(method);
+                break;
+            case FINISH_METHOD_PROCESSING:
+                visitor.finishMethodProcessing(method);
+                break;
+            case BEGIN_RESULT_PROCESSING:
+                visitor.beginResultProcessing(method, type);
+                break;
+            case FINISH_RESULT_PROCESSING:
+                visitor.finishResultProcessing(method, type);
+                break;
+            case BEGIN_THROWABLE_PROCESSING:
+                visitor.beginThrowableProcessing(method, (Class<? extends Throwable>) type);
+                break;
+            case FINISH_THROWABLE_PROCESSING:
+                visitor.finishThrowableProcessing(method, (Class<? extends Throwable>) type);
+                break;
+            case BEGIN_ARGUMENT_PROCESSING:
+                visitor.beginArgumentProcessing(method, index, type);
+                break;
+            case FINISH_ARGUMENT_PROCESSING:
+                visitor.finishArgumentProcessing(method, index, type);
+                break;
+            case BEGIN_PROPERTY_PROCESSING:
+                visitor.beginPropertyProcessing(name, type);
+                break;
+            case FINISH_PROPERTY_PROCESSING:
+                visitor.finishPropertyProcessing(name, type);
+                break;
+            case BEGIN_TYPE_PROCESSING:
+                visitor.beginTypeProcessing(type);
+                break;
+            case FINISH_TYPE_PROCESSING:
+                visitor.finishTypeProcessing(type);
+                break;
+            case DEPENDENCY_CYCLE_DETECTED:
+                visitor.dependencyCycleDetected(path);
+                break;
+            case UNSUPPORTED_TYPE:
+                visitor.unsupportedType(path, type);
+                break;
+            case TYPE_ALREADY_VISITED:
+                visitor.typeAlreadyVisited(type);
+                break;
+            case LIMIT_REACHED:
+                visitor.limitReached(path, limit);
+                break;
+            default:
+                throw new IllegalStateException("unknown event " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(kind.name());
+        for (Object argument : new Object[] { service, method, name, type, path, limit }) {
+            if (argument != null) {
+                result.append(' ').append(argument instanceof Type ? ((Type) argument).getTypeName() : argument);
+            }
+        }
+        return result.toString();
+    }
+
+}
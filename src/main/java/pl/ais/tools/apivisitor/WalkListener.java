@@ -0,0 +1,32 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+
+/**
+ * Listener of walking metrics, see {@link APIWalker#setWalkListener(WalkListener)}.
+ *
+ * Listeners of {@link ParallelAPIWalker} are shared by all workers, so they must be thread-safe.
+ *
+ * @see WalkMetricsRegistry
+ * @see "JfrWalkListener of ais-tools-apivisitor-jfr"
+ */
+public interface WalkListener {
+
+    /**
+     * Called after type (together with its children) has been walked.
+     *
+     * @param type walked type.
+     * @param depth depth of type (<code>1</code> for types of results, arguments and throwables).
+     * @param nanos time of walking type and its children, including visitor's callbacks.
+     */
+    void typeWalked(Type type, int depth, long nanos);
+
+    /**
+     * Called after service class (together with its super classes) has been walked,
+     * or after a type visited using {@link APIWalker#visitTypes(Type...)} has been walked.
+     *
+     * @param metrics metrics of walk.
+     */
+    void walkFinished(WalkMetrics metrics);
+
+}
@@ -0,0 +1,217 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+
+import pl.ais.tools.apivisitor.ClassModel.MethodModel;
+import pl.ais.tools.apivisitor.ClassModel.PropertyModel;
+
+/**
+ * Metrics of walking a single service class (or type), reported to {@link WalkListener}.
+ *
+ * Metrics are not modified once reported, so listeners could keep them.
+ * Metadata reads are counted per access to members of a class: it's a cache hit when
+ * members were already read (by any walker sharing {@link TypeMetadataCache}),
+ * otherwise a miss, that reads them using reflection (or resolves them against generic
+ * owner type). Concurrent walkers sharing cache may both count a miss for the same class.
+ */
+public final class WalkMetrics {
+
+    private final Type element;
+
+    private long nanos;
+
+    private long visitorNanos;
+
+    private int nodes;
+
+    private int maxDepth;
+
+    private int cycles;
+
+    private int alreadyVisited;
+
+    private int metadataHits;
+
+    private int metadataMisses;
+
+    private int reflectionCalls;
+
+    WalkMetrics(Type element) {
+        this.element = element;
+    }
+
+    /**
+     * @return walked service class or type, <code>null</code> for sums of many walks.
+     */
+    public Type getElement() {
+        return element;
+    }
+
+    /**
+     * @return total time of walk.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return time spent inside visitor's callbacks.
+     */
+    public long getVisitorNanos() {
+        return visitorNanos;
+    }
+
+    /**
+     * @return time spent by walker itself (including reflection and listener's callbacks).
+     */
+    public long getWalkerNanos() {
+        return nanos - visitorNanos;
+    }
+
+    /**
+     * @return number of walked types (reported using {@link Visitor#beginTypeProcessing(Type)}).
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return maximum depth of walked types.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return number of detected dependency cycles.
+     */
+    public int getCycles() {
+        return cycles;
+    }
+
+    /**
+     * @return number of types not walked, because they were already walked in <em>memoized</em> mode.
+     */
+    public int getAlreadyVisited() {
+        return alreadyVisited;
+    }
+
+    /**
+     * @return number of accesses to members of classes, that were already cached.
+     */
+    public int getMetadataHits() {
+        return metadataHits;
+    }
+
+    /**
+     * @return number of accesses to members of classes, that were not cached yet.
+     */
+    public int getMetadataMisses() {
+        return metadataMisses;
+    }
+
+    /**
+     * @return ratio of metadata cache hits to all metadata reads, <code>1</code> if there were no reads.
+     */
+    public double getMetadataHitRate() {
+        int reads = metadataHits + metadataMisses;
+        return reads == 0 ? 1 : (double) metadataHits / reads;
+    }
+
+    /**
+     * @return number of reflection calls reading declared fields or methods of classes.
+     */
+    public int getReflectionCalls() {
+        return reflectionCalls;
+    }
+
+    void finish(long nanos, long visitorNanos) {
+        this.nanos = nanos;
+        this.visitorNanos = visitorNanos;
+    }
+
+    long typeStarted(int depth) {
+        nodes++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        return System.nanoTime();
+    }
+
+    void cycleDetected() {
+        cycles++;
+    }
+
+    void typeAlreadyVisited() {
+        alreadyVisited++;
+    }
+
+    /**
+     * @param filter filter of methods, or <code>null</code> for all methods.
+     */
+    MethodModel[] methods(ClassModel model, MethodFilter filter) {
+        if (filter == null ? model.hasMethods() : model.hasMethods(filter)) {
+            metadataHits++;
+        } else {
+            metadataMisses++;
+            if (!model.getDeclared().hasMethods()) {
+                reflectionCalls++;
+            }
+        }
+        return filter == null ? model.getMethods() : model.getMethods(filter);
+    }
+
+    PropertyModel[] properties(ClassModel model) {
+        if (model.hasProperties()) {
+            metadataHits++;
+        } else {
+            metadataMisses++;
+            if (!model.getDeclared().hasProperties()) {
+                reflectionCalls++;
+            }
+        }
+        return model.getProperties();
+    }
+
+    /**
+     * Adds metrics of other walk: sums its counters and times, keeps the greater depth.
+     */
+    void add(WalkMetrics other) {
+        nanos += other.nanos;
+        visitorNanos += other.visitorNanos;
+        nodes += other.nodes;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+        cycles += other.cycles;
+        alreadyVisited += other.alreadyVisited;
+        metadataHits += other.metadataHits;
+        metadataMisses += other.metadataMisses;
+        reflectionCalls += other.reflectionCalls;
+    }
+
+    void clear() {
+        nanos = 0;
+        visitorNanos = 0;
+        nodes = 0;
+        maxDepth = 0;
+        cycles = 0;
+        alreadyVisited = 0;
+        metadataHits = 0;
+        metadataMisses = 0;
+        reflectionCalls = 0;
+    }
+
+    WalkMetrics copy() {
+        WalkMetrics result = new WalkMetrics(element);
+        result.add(this);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return (element == null ? "total" : element.getTypeName()) + ": " + nanos + "ns (visitor "
+                + visitorNanos + "ns), nodes " + nodes + ", max depth " + maxDepth + ", cycles " + cycles
+                + ", already visited " + alreadyVisited + ", metadata hits " + metadataHits + ", misses "
+                + metadataMisses + ", reflection calls " + reflectionCalls;
+    }
+
+}
@@ -0,0 +1,81 @@
+package pl.ais.tools.apivisitor;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe {@link WalkListener}, that aggregates metrics of walks.
+ *
+ * Registry keeps sums of metrics of all walks, metrics of the last walk of each service
+ * class (or type) and total time and number of walks of each type. Times of types include
+ * times of their children, so they should not be summed up.
+ */
+public final class WalkMetricsRegistry implements WalkListener {
+
+    private final WalkMetrics total = new WalkMetrics(null);
+
+    private final Map<Type, WalkMetrics> walks = new HashMap<>();
+
+    private final Map<Type, long[]> types = new HashMap<>();
+
+    @Override
+    public synchronized void typeWalked(Type type, int depth, long nanos) {
+        long[] typeMetrics = types.get(type);
+        if (typeMetrics == null) {
+            typeMetrics = new long[2];
+            types.put(type, typeMetrics);
+        }
+        typeMetrics[0]++;
+        typeMetrics[1] += nanos;
+    }
+
+    @Override
+    public synchronized void walkFinished(WalkMetrics metrics) {
+        total.add(metrics);
+        walks.put(metrics.getElement(), metrics);
+    }
+
+    /**
+     * @return sums of metrics of all walks.
+     */
+    public synchronized WalkMetrics getTotal() {
+        return total.copy();
+    }
+
+    /**
+     * @param element service class or type.
+     * @return metrics of the last walk of given service class (or type), <code>null</code> if it was not walked.
+     */
+    public synchronized WalkMetrics getMetrics(Type element) {
+        return walks.get(element);
+    }
+
+    /**
+     * @param type type.
+     * @return number of walks of given type.
+     */
+    public synchronized long getTypeWalks(Type type) {
+        long[] typeMetrics = types.get(type);
+        return typeMetrics == null ? 0 : typeMetrics[0];
+    }
+
+    /**
+     * @param type type.
+     * @return total time of walks of given type (including its children).
+     */
+    public synchronized long getTypeNanos(Type type) {
+        long[] typeMetrics = types.get(type);
+        return typeMetrics == null ? 0 : typeMetrics[1];
+    }
+
+    /**
+     * Removes all collected metrics.
+     */
+    public synchronized void clear() {
+        total.clear();
+        walks.clear();
+        types.clear();
+    }
+
+}
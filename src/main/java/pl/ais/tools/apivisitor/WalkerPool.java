@@ -0,0 +1,129 @@
+package pl.ais.tools.apivisitor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runner of independent walks, like introspection requests of a service.
+ *
+ * Pool takes a snapshot of configuration (terminating services and types, primitive types,
+ * shape rules, acceptors, memoized mode, metadata cache, limits and walk listener) of given
+ * walker once. Each walk is performed by a separate, lightweight worker sharing the snapshot
+ * and reflection metadata (see {@link TypeMetadataCache}), while walking state (path of visited
+ * types, memoized types, limits) is kept by worker - so walks could be run concurrently:
+ * <pre>{@code
+ * WalkerPool pool = new WalkerPool(walker);
+ * CompletableFuture<CollectingVisitor> result = pool.submit(OrderService.class, new CollectingVisitor());
+ * }</pre>
+ *
+ * By default walks submitted to pool are run on virtual threads (one per walk), if they're
+ * supported by Java runtime, otherwise on a cached pool of daemon threads. Walks could also
+ * be run on the calling thread, see {@link #walk(Class, Visitor)}.
+ *
+ * Acceptors and walk listener are shared by all walks, so they must be thread-safe.
+ */
+public class WalkerPool implements AutoCloseable {
+
+    private final APIWalker configuration;
+
+    private final ExecutorService executor;
+
+    private final boolean ownsExecutor;
+
+    /**
+     * @param configuration walker to take configuration from, later changes are not visible to pool.
+     */
+    public WalkerPool(APIWalker configuration) {
+        this(configuration, newExecutor(), true);
+    }
+
+    /**
+     * @param configuration walker to take configuration from, later changes are not visible to pool.
+     * @param executor executor used to run walks, it's not shut down by pool.
+     */
+    public WalkerPool(APIWalker configuration, ExecutorService executor) {
+        this(configuration, executor, false);
+    }
+
+    private WalkerPool(APIWalker configuration, ExecutorService executor, boolean ownsExecutor) {
+        this.configuration = new APIWalker(configuration);
+        this.configuration.setVisitor((PruningVisitor) null);
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Walks service class on the calling thread.
+     *
+     * @param service service class to walk.
+     * @param visitor visitor of the walk.
+     * @param <V> type of visitor.
+     * @return given visitor.
+     * @throws NullPointerException if there's no visitor.
+     */
+    public <V extends Visitor> V walk(Class<?> service, V visitor) {
+        if (visitor == null) {
+            throw new NullPointerException("visitor not provided");
+        }
+        APIWalker worker = new APIWalker(configuration, true);
+        worker.setVisitor(visitor);
+        worker.visit(service);
+        return visitor;
+    }
+
+    /**
+     * Walks service class asynchronously.
+     *
+     * @param service service class to walk.
+     * @param visitor visitor of the walk, it's not used by other walks.
+     * @param <V> type of visitor.
+     * @return given visitor, completed when the walk is finished.
+     */
+    public <V extends Visitor> CompletableFuture<V> submit(Class<?> service, V visitor) {
+        return CompletableFuture.supplyAsync(() -> walk(service, visitor), executor);
+    }
+
+    /**
+     * Shuts down executor created by pool, waiting walks are finished.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if Java runtime supports virtual threads.
+     */
+    public static boolean isVirtualThreadsSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        // virtual threads are available since Java 21, walker is compiled for Java 8
+        if (isVirtualThreadsSupported()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("unable to create executor of virtual threads", e);
+            }
+        }
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory factory = (task) -> {
+            Thread thread = new Thread(task, "walker-pool-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(factory);
+    }
+
+}
@@ -0,0 +1,137 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Basic information about class, read from class file without loading the class:
+ * its header, class-level annotations and declared members (with their descriptors
+ * and generic signatures).
+ */
+public final class ClassFileInfo {
+
+    /**
+     * Access flag of enum classes, not exposed by {@link Modifier}.
+     */
+    private static final int ENUM = 0x4000;
+
+    private final String name;
+
+    private final String superclassName;
+
+    private final List<String> interfaceNames;
+
+    private final Set<String> annotationNames;
+
+    private final int modifiers;
+
+    private final String signature;
+
+    private final List<FieldInfo> fields;
+
+    private final List<MethodInfo> methods;
+
+    ClassFileInfo(String name, String superclassName, List<String> interfaceNames, Set<String> annotationNames,
+            int modifiers, String signature, List<FieldInfo> fields, List<MethodInfo> methods) {
+        this.name = name;
+        this.superclassName = superclassName;
+        this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+        this.annotationNames = Collections.unmodifiableSet(annotationNames);
+        this.modifiers = modifiers;
+        this.signature = signature;
+        this.fields = Collections.unmodifiableList(fields);
+        this.methods = Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * @return binary name of class, as returned by {@link Class#getName()}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return name of package of class, empty for default package.
+     */
+    public String getPackageName() {
+        int index = name.lastIndexOf('.');
+        return index < 0 ? "" : name.substring(0, index);
+    }
+
+    /**
+     * @return name of class without package name.
+     */
+    public String getSimpleName() {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @return name of super class or <code>null</code> for <code>java.lang.Object</code> and interfaces.
+     */
+    public String getSuperclassName() {
+        return superclassName;
+    }
+
+    /**
+     * @return unmodifiable list of names of directly implemented interfaces.
+     */
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * @return unmodifiable set of names of annotations of class (with both runtime and class retention).
+     */
+    public Set<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    /**
+     * @return class modifiers, see {@link Modifier}.
+     */
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    /**
+     * @return generic signature of class, or <code>null</code> if class is not generic.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return unmodifiable list of declared fields, in order of class file.
+     */
+    List<FieldInfo> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return unmodifiable list of declared methods (including constructors and static initializer),
+     *         in order of class file.
+     */
+    public List<MethodInfo> getMethods() {
+        return methods;
+    }
+
+    public boolean isInterface() {
+        return Modifier.isInterface(modifiers);
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(modifiers);
+    }
+
+    public boolean isEnum() {
+        return (modifiers & ENUM) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
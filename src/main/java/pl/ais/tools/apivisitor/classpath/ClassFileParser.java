@@ -0,0 +1,243 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads {@link ClassFileInfo} from class file.
+ *
+ * Constant pool, class header, class-level annotations, declared fields and methods and
+ * their generic signatures are interpreted, code and other attributes are skipped.
+ * Malformed class files (including invalid indexes of constant pool entries) are reported
+ * as {@link IOException}.
+ */
+final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+
+    private static final int CONSTANT_INTEGER = 3;
+
+    private static final int CONSTANT_FLOAT = 4;
+
+    private static final int CONSTANT_LONG = 5;
+
+    private static final int CONSTANT_DOUBLE = 6;
+
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int CONSTANT_STRING = 8;
+
+    private static final int CONSTANT_FIELDREF = 9;
+
+    private static final int CONSTANT_METHODREF = 10;
+
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+
+    private static final int CONSTANT_METHOD_TYPE = 16;
+
+    private static final int CONSTANT_DYNAMIC = 17;
+
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+    private static final int CONSTANT_MODULE = 19;
+
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String SIGNATURE = "Signature";
+
+    private static final String EXCEPTIONS = "Exceptions";
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    private ClassFileParser() {
+    }
+
+    static ClassFileInfo parse(InputStream classFile) throws IOException {
+        DataInputStream in = new DataInputStream(classFile);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+
+        int constantPoolCount = in.readUnsignedShort();
+        String[] utf8 = new String[constantPoolCount];
+        int[] classNames = new int[constantPoolCount];
+        for (int i = 1; i < constantPoolCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8[i] = in.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    in.skipBytes(2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.skipBytes(3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    in.skipBytes(4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag " + tag);
+            }
+        }
+
+        int modifiers = in.readUnsignedShort();
+        String name = className(utf8, classNames, in.readUnsignedShort());
+        int superclass = in.readUnsignedShort();
+        String superclassName = superclass == 0 ? null : className(utf8, classNames, superclass);
+        List<String> interfaceNames = new ArrayList<>();
+        for (int count = in.readUnsignedShort(); count > 0; count--) {
+            interfaceNames.add(className(utf8, classNames, in.readUnsignedShort()));
+        }
+        List<FieldInfo> fields = new ArrayList<>();
+        for (int count = in.readUnsignedShort(); count > 0; count--) {
+            in.readUnsignedShort();
+            String fieldName = utf8(utf8, in.readUnsignedShort());
+            String descriptor = utf8(utf8, in.readUnsignedShort());
+            String signature = null;
+            for (int attributes = in.readUnsignedShort(); attributes > 0; attributes--) {
+                String attribute = utf8(utf8, in.readUnsignedShort());
+                int length = in.readInt();
+                if (SIGNATURE.equals(attribute)) {
+                    signature = utf8(utf8, in.readUnsignedShort());
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+            fields.add(new FieldInfo(fieldName, descriptor, signature));
+        }
+        List<MethodInfo> methods = new ArrayList<>();
+        for (int count = in.readUnsignedShort(); count > 0; count--) {
+            int methodModifiers = in.readUnsignedShort();
+            String methodName = utf8(utf8, in.readUnsignedShort());
+            String descriptor = utf8(utf8, in.readUnsignedShort());
+            String signature = null;
+            List<String> exceptionNames = new ArrayList<>();
+            for (int attributes = in.readUnsignedShort(); attributes > 0; attributes--) {
+                String attribute = utf8(utf8, in.readUnsignedShort());
+                int length = in.readInt();
+                if (SIGNATURE.equals(attribute)) {
+                    signature = utf8(utf8, in.readUnsignedShort());
+                } else if (EXCEPTIONS.equals(attribute)) {
+                    for (int exceptions = in.readUnsignedShort(); exceptions > 0; exceptions--) {
+                        exceptionNames.add(className(utf8, classNames, in.readUnsignedShort()));
+                    }
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+            methods.add(new MethodInfo(name, methodName, descriptor, signature, exceptionNames, methodModifiers));
+        }
+
+        Set<String> annotationNames = new LinkedHashSet<>();
+        String signature = null;
+        for (int count = in.readUnsignedShort(); count > 0; count--) {
+            String attribute = utf8(utf8, in.readUnsignedShort());
+            int length = in.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attribute) || RUNTIME_INVISIBLE_ANNOTATIONS.equals(attribute)) {
+                for (int annotations = in.readUnsignedShort(); annotations > 0; annotations--) {
+                    annotationNames.add(readAnnotation(in, utf8));
+                }
+            } else if (SIGNATURE.equals(attribute)) {
+                signature = utf8(utf8, in.readUnsignedShort());
+            } else {
+                in.skipBytes(length);
+            }
+        }
+        return new ClassFileInfo(name, superclassName, interfaceNames, annotationNames, modifiers, signature,
+                fields, methods);
+    }
+
+    /**
+     * Reads annotation, returns name of its type.
+     */
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8(utf8, in.readUnsignedShort());
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || !descriptor.endsWith(";")) {
+            throw new IOException("invalid annotation descriptor " + descriptor);
+        }
+        for (int pairs = in.readUnsignedShort(); pairs > 0; pairs--) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+        return className(descriptor.substring(1, descriptor.length() - 1));
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                for (int values = in.readUnsignedShort(); values > 0; values--) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                in.skipBytes(2);
+                break;
+        }
+    }
+
+    /**
+     * @return value of UTF-8 constant at given index of constant pool.
+     */
+    private static String utf8(String[] utf8, int index) throws IOException {
+        if (index <= 0 || index >= utf8.length || utf8[index] == null) {
+            throw new IOException("invalid index of UTF-8 constant " + index);
+        }
+        return utf8[index];
+    }
+
+    /**
+     * @return name of class, referenced by class constant at given index of constant pool.
+     */
+    private static String className(String[] utf8, int[] classNames, int index) throws IOException {
+        if (index <= 0 || index >= classNames.length || classNames[index] == 0) {
+            throw new IOException("invalid index of class constant " + index);
+        }
+        return className(utf8(utf8, classNames[index]));
+    }
+
+    private static String className(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+}
@@ -0,0 +1,93 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds class files by names of classes in directories and jar files, like class loader does
+ * (the first root containing class file wins) - but without loading classes.
+ *
+ * Read class files are kept, so are missing ones. Jar files are kept open until source is closed.
+ */
+final class ClassFileSource implements Closeable {
+
+    private final List<Path> roots;
+
+    private final Map<Path, ZipFile> jars = new HashMap<>();
+
+    private final Map<String, ClassFileInfo> classes = new HashMap<>();
+
+    ClassFileSource(List<Path> roots) {
+        this.roots = roots;
+    }
+
+    /**
+     * @param name binary name of class.
+     * @return class read from class file, or <code>null</code> if there's no such class file.
+     * @throws IOException if class file could not be read.
+     */
+    ClassFileInfo find(String name) throws IOException {
+        ClassFileInfo result = classes.get(name);
+        if (result == null && !classes.containsKey(name)) {
+            result = read(name.replace('.', '/') + ".class");
+            classes.put(name, result);
+        }
+        return result;
+    }
+
+    private ClassFileInfo read(String entryName) throws IOException {
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                Path classFile = root.resolve(entryName);
+                if (Files.isRegularFile(classFile)) {
+                    try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+                        return ClassFileParser.parse(in);
+                    }
+                }
+            } else if (Files.isRegularFile(root)) {
+                ZipFile jar = jars.get(root);
+                if (jar == null) {
+                    jar = new ZipFile(root.toFile());
+                    jars.put(root, jar);
+                }
+                ZipEntry entry = jar.getEntry(entryName);
+                if (entry != null) {
+                    try (InputStream in = new BufferedInputStream(jar.getInputStream(entry))) {
+                        return ClassFileParser.parse(in);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ZipFile jar : jars.values()) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        jars.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.lang.reflect.Type;
+
+/**
+ * Class (or interface) known only by its name, read from class file - the class is not loaded.
+ *
+ * Class file types are equal, when they have equal names. They're never equal to {@link Class}es.
+ */
+public final class ClassFileType implements Type {
+
+    private final String name;
+
+    ClassFileType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return binary name of class, as returned by {@link Class#getName()}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ClassFileType && name.equals(((ClassFileType) other).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
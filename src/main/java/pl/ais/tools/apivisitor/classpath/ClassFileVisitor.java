@@ -0,0 +1,73 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import pl.ais.tools.apivisitor.visitors.TypeVisitor;
+
+/**
+ * Visitor of services walked from class files by {@link ClassFileWalker}.
+ *
+ * Type events are the same as events of {@link pl.ais.tools.apivisitor.Visitor}, but classes are
+ * {@link ClassFileType}s (primitives are {@link Class}es). Service classes and methods, that could
+ * not be reported as {@link Class}es and {@link java.lang.reflect.Method}s without loading them,
+ * are reported as {@link ClassFileInfo}s and {@link MethodInfo}s. All methods do nothing by default.
+ */
+public interface ClassFileVisitor extends TypeVisitor {
+
+    default void beginServiceProcessing(ClassFileInfo service) {
+    }
+
+    default void finishServiceProcessing(ClassFileInfo service) {
+    }
+
+    default void beginMethodProcessing(MethodInfo method) {
+    }
+
+    default void finishMethodProcessing(MethodInfo method) {
+    }
+
+    default void beginResultProcessing(MethodInfo method, Type type) {
+    }
+
+    default void finishResultProcessing(MethodInfo method, Type type) {
+    }
+
+    default void beginThrowableProcessing(MethodInfo method, Type throwable) {
+    }
+
+    default void finishThrowableProcessing(MethodInfo method, Type throwable) {
+    }
+
+    default void beginArgumentProcessing(MethodInfo method, int index, Type type) {
+    }
+
+    default void finishArgumentProcessing(MethodInfo method, int index, Type type) {
+    }
+
+    @Override
+    default void beginPropertyProcessing(String name, Type type) {
+    }
+
+    @Override
+    default void finishPropertyProcessing(String name, Type type) {
+    }
+
+    @Override
+    default void beginTypeProcessing(Type type) {
+    }
+
+    @Override
+    default void finishTypeProcessing(Type type) {
+    }
+
+    /**
+     * Invoked, when there's a dependency cycle in type, see
+     * {@link pl.ais.tools.apivisitor.Visitor#dependencyCycleDetected(List)}.
+     *
+     * @param path path to cycle of dependencies.
+     */
+    default void dependencyCycleDetected(List<Type> path) {
+    }
+
+}
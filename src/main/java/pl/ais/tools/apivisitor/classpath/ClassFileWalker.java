@@ -0,0 +1,500 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import pl.ais.tools.apivisitor.classpath.SignatureTypes.Variable;
+
+/**
+ * Walks service classes from their class files - descriptors and generic signatures of their
+ * methods and fields - without loading any class.
+ *
+ * Services are found by {@link ClasspathScanner} (or given by names) and walked like
+ * {@link pl.ais.tools.apivisitor.APIWalker} does: methods of service class and its super classes,
+ * their results, arguments and declared exceptions, then walked types - raw types and type arguments
+ * of parametrized types, bounds of type variables and wildcards, component types of arrays,
+ * fields (properties) and super classes of beans. Type variables of generic classes are resolved
+ * against their parametrizations. Events are reported to {@link ClassFileVisitor}:
+ * <pre>{@code
+ * ClasspathScanner scanner = new ClasspathScanner(Paths.get("target/classes"));
+ * scanner.setServiceFilter(ClasspathScanner.annotatedWith("com.example.Service"));
+ * ClassFileWalker walker = new ClassFileWalker(scanner);
+ * walker.setVisitor(visitor);
+ * walker.visit();
+ * }</pre>
+ *
+ * Only classes found in directories and jar files of scanner are walked: other classes (like JDK
+ * collections and strings) and enums are reported, but not walked - like leaves of API Walker.
+ * All declared fields of walked classes, including static ones, are their properties (like in API Walker).
+ * Walking of service classes stops at super classes, which are not found. By default
+ * <code>java.lang.Object</code>, <code>java.lang.Throwable</code>, <code>java.lang.Exception</code> and
+ * <code>java.lang.RuntimeException</code> are terminating types (they're not reported at all) and
+ * <code>java.lang.Object</code> is terminating service.
+ *
+ * Constructors and static initializers are not walked, methods are walked sorted by names and descriptors.
+ * Dependency cycles are reported, types are not memoized. Walking is not recursive, walked types are
+ * kept on an explicit stack.
+ *
+ * Classes are not loaded, so options of API Walker defined for loaded classes are not supported,
+ * and the same services could be walked differently:
+ * <ul>
+ * <li>there are no method and type acceptors (nor method filters): all methods, except of constructors
+ * and static initializers, and all types are walked,</li>
+ * <li>there are no primitive types: classes found by scanner are walked, even if they're primitive types of
+ * API Walker,</li>
+ * <li>there are no shape rules: classes found by scanner (except of enums) are beans, while enums and classes
+ * not found by scanner are leaves - JDK beans (like <code>java.io.File</code>), walked by API Walker through
+ * their fields, are not walked,</li>
+ * <li>types are not memoized: each occurrence of type is walked again,</li>
+ * <li>visitor could not prune walking: {@link ClassFileVisitor} methods return nothing, so types are neither
+ * skipped nor walking stopped,</li>
+ * <li>there are no limits of depth, number of types and time, nor walk listener: services are walked completely.</li>
+ * </ul>
+ *
+ * <em>Implementation note</em>: this class is not thread-safe.
+ */
+public class ClassFileWalker {
+
+    private static final Comparator<MethodModel> METHOD_ORDER = Comparator
+            .comparing((MethodModel method) -> method.info.getName())
+            .thenComparing(method -> method.info.getDescriptor());
+
+    private final ClasspathScanner scanner;
+
+    private final Set<String> terminatingServices = new HashSet<>();
+
+    private final Set<String> terminatingTypes = new HashSet<>();
+
+    private ClassFileVisitor visitor;
+
+    /**
+     * Class files of the current visit.
+     */
+    private ClassFileSource source;
+
+    /**
+     * Parsed signatures of classes of the current visit, by names of classes.
+     */
+    private final Map<String, ClassFileModel> models = new HashMap<>();
+
+    private final List<Type> path = new ArrayList<>();
+
+    private final List<Type> pathView = Collections.unmodifiableList(path);
+
+    private final List<Frame> frames = new ArrayList<>();
+
+    /**
+     * @param scanner scanner finding services, class files of walked types are read from its
+     *        directories and jar files.
+     */
+    public ClassFileWalker(ClasspathScanner scanner) {
+        this.scanner = scanner;
+        terminatingServices.add(Object.class.getName());
+        terminatingTypes.add(Object.class.getName());
+        terminatingTypes.add(Throwable.class.getName());
+        terminatingTypes.add(Exception.class.getName());
+        terminatingTypes.add(RuntimeException.class.getName());
+    }
+
+    public void setVisitor(ClassFileVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    /**
+     * @param names binary names of classes, which methods (and methods of their super classes) are not walked.
+     */
+    public void addTerminatingServices(String... names) {
+        Collections.addAll(terminatingServices, names);
+    }
+
+    /**
+     * @param names binary names of classes, which are neither reported, nor walked.
+     */
+    public void addTerminatingTypes(String... names) {
+        Collections.addAll(terminatingTypes, names);
+    }
+
+    /**
+     * Visits services found by scanner.
+     *
+     * @throws IOException if directory, jar or class file could not be read.
+     * @throws NullPointerException if there's no visitor.
+     */
+    public void visit() throws IOException {
+        visitServices(scanner.findServices(), new String[0]);
+    }
+
+    /**
+     * Visits service classes with given names.
+     *
+     * @param serviceNames binary names of service classes.
+     * @throws IOException if jar or class file could not be read, or class file of service is not found.
+     * @throws NullPointerException if there's no visitor.
+     */
+    public void visit(String... serviceNames) throws IOException {
+        visitServices(Collections.<ClassFileInfo> emptyList(), serviceNames);
+    }
+
+    private void visitServices(List<ClassFileInfo> services, String[] serviceNames) throws IOException {
+        if (visitor == null) {
+            throw new NullPointerException("visitor not provided");
+        }
+        try (ClassFileSource classFiles = new ClassFileSource(scanner.getRoots())) {
+            source = classFiles;
+            for (ClassFileInfo service : services) {
+                visitService(service);
+            }
+            for (String serviceName : serviceNames) {
+                ClassFileInfo service = source.find(serviceName);
+                if (service == null) {
+                    throw new FileNotFoundException("class file of " + serviceName + " not found");
+                }
+                visitService(service);
+            }
+        } finally {
+            source = null;
+            models.clear();
+            path.clear();
+            frames.clear();
+        }
+    }
+
+    private void visitService(ClassFileInfo service) throws IOException {
+        List<ClassFileInfo> services = new ArrayList<>();
+        ClassFileInfo clazz = service;
+        Type owner = null;
+        // super classes are nested in their subclasses - they are finished in reverse order
+        while (clazz != null && !terminatingServices.contains(clazz.getName())) {
+            visitor.beginServiceProcessing(clazz);
+            services.add(clazz);
+            ClassFileModel model = modelOf(clazz);
+            Map<TypeVariable<?>, Type> bindings = bindingsOf(model, owner);
+            for (MethodModel method : model.methods) {
+                visit(method, bindings);
+            }
+            owner = resolve(model.superclass, bindings);
+            clazz = clazz.getSuperclassName() == null ? null : source.find(clazz.getSuperclassName());
+        }
+        for (int i = services.size() - 1; i >= 0; i--) {
+            visitor.finishServiceProcessing(services.get(i));
+        }
+    }
+
+    private void visit(MethodModel model, Map<TypeVariable<?>, Type> bindings) throws IOException {
+        MethodInfo method = model.info;
+        visitor.beginMethodProcessing(method);
+        Type resultType = resolve(model.resultType, bindings);
+        visitor.beginResultProcessing(method, resultType);
+        visitType(resultType);
+        visitor.finishResultProcessing(method, resultType);
+        for (int i = 0; i < model.argumentTypes.length; i++) {
+            Type argumentType = resolve(model.argumentTypes[i], bindings);
+            visitor.beginArgumentProcessing(method, i, argumentType);
+            visitType(argumentType);
+            visitor.finishArgumentProcessing(method, i, argumentType);
+        }
+        for (Type exceptionType : model.exceptionTypes) {
+            visitor.beginThrowableProcessing(method, exceptionType);
+            visitType(exceptionType);
+            visitor.finishThrowableProcessing(method, exceptionType);
+        }
+        visitor.finishMethodProcessing(method);
+    }
+
+    /**
+     * Walks type and its children iteratively, like {@link pl.ais.tools.apivisitor.APIWalker}.
+     */
+    private void visitType(Type type) throws IOException {
+        int base = frames.size();
+        enter(type, null);
+        while (frames.size() > base) {
+            Frame frame = frames.get(frames.size() - 1);
+            Type child = nextChild(frame);
+            if (child != null) {
+                enter(child, frame.childOwner);
+            } else {
+                exit(frame);
+            }
+        }
+    }
+
+    /**
+     * Begins walking of type: reports it and pushes its frame, unless type is terminating
+     * or closes a cycle.
+     *
+     * @param owner parametrized type, which raw type (or super class) is walked, binding
+     *        type variables of walked class.
+     */
+    private void enter(Type type, Type owner) throws IOException {
+        if (type instanceof ClassFileType && terminatingTypes.contains(((ClassFileType) type).getName())) {
+            return;
+        }
+        if (path.contains(type)) {
+            // recursive bounds of type variables (like <T extends Comparable<T>>) are not cycles
+            if (!(type instanceof TypeVariable)) {
+                visitor.dependencyCycleDetected(pathView);
+            }
+            return;
+        }
+        path.add(type);
+        visitor.beginTypeProcessing(type);
+        Frame frame = new Frame(type);
+        frames.add(frame);
+        if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            // raw type first (bound by parametrized type), then type arguments
+            frame.add(null, pType.getRawType(), type);
+            for (Type argument : pType.getActualTypeArguments()) {
+                frame.add(null, argument, null);
+            }
+        } else if (type instanceof ClassFileType) {
+            ClassFileInfo clazz = source.find(((ClassFileType) type).getName());
+            if (clazz != null && !clazz.isEnum()) {
+                enterClass(frame, clazz, owner);
+            }
+        } else if (type instanceof TypeVariable) {
+            for (Type bound : ((TypeVariable<?>) type).getBounds()) {
+                frame.add(null, bound, null);
+            }
+        } else if (type instanceof WildcardType) {
+            WildcardType wType = (WildcardType) type;
+            for (Type bound : wType.getUpperBounds()) {
+                frame.add(null, bound, null);
+            }
+            for (Type bound : wType.getLowerBounds()) {
+                frame.add(null, bound, null);
+            }
+        } else if (type instanceof GenericArrayType) {
+            frame.add(null, ((GenericArrayType) type).getGenericComponentType(), null);
+        }
+    }
+
+    /**
+     * Bean is walked through its properties and super class.
+     */
+    private void enterClass(Frame frame, ClassFileInfo clazz, Type owner) throws IOException {
+        ClassFileModel model = modelOf(clazz);
+        Map<TypeVariable<?>, Type> bindings = bindingsOf(model, owner);
+        for (int i = 0; i < model.propertyNames.length; i++) {
+            frame.add(model.propertyNames[i], resolve(model.propertyTypes[i], bindings), null);
+        }
+        if (model.superclass != null && !clazz.isInterface()) {
+            frame.add(null, new ClassFileType(clazz.getSuperclassName()), resolve(model.superclass, bindings));
+        }
+    }
+
+    /**
+     * Reports properties of bean, returns the next child type of frame.
+     *
+     * @return next child of type, <code>null</code> if there are no more children to walk.
+     */
+    private Type nextChild(Frame frame) {
+        if (frame.inProperty) {
+            frame.inProperty = false;
+            visitor.finishPropertyProcessing(frame.names.get(frame.index - 1), frame.children.get(frame.index - 1));
+        }
+        if (frame.index == frame.children.size()) {
+            return null;
+        }
+        int index = frame.index++;
+        Type child = frame.children.get(index);
+        String name = frame.names.get(index);
+        if (name != null) {
+            visitor.beginPropertyProcessing(name, child);
+            frame.inProperty = true;
+        }
+        frame.childOwner = frame.owners.get(index);
+        return child;
+    }
+
+    private void exit(Frame frame) {
+        visitor.finishTypeProcessing(frame.type);
+        path.remove(path.size() - 1);
+        frames.remove(frames.size() - 1);
+    }
+
+    private ClassFileModel modelOf(ClassFileInfo clazz) throws IOException {
+        ClassFileModel result = models.get(clazz.getName());
+        if (result == null) {
+            result = new ClassFileModel(clazz);
+            models.put(clazz.getName(), result);
+        }
+        return result;
+    }
+
+    /**
+     * @param owner parametrized type of class (or any other type, including <code>null</code>).
+     * @return type arguments of owner type, by type variables of class.
+     */
+    private static Map<TypeVariable<?>, Type> bindingsOf(ClassFileModel model, Type owner) {
+        if (!(owner instanceof ParameterizedType) || model.typeVariables.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Type[] arguments = ((ParameterizedType) owner).getActualTypeArguments();
+        Map<TypeVariable<?>, Type> result = new HashMap<>();
+        for (int i = 0; i < arguments.length && i < model.typeVariables.size(); i++) {
+            result.put(model.typeVariables.get(i), arguments[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return type with bound type variables replaced by their type arguments.
+     */
+    private static Type resolve(Type type, Map<TypeVariable<?>, Type> bindings) {
+        if (bindings.isEmpty() || type == null) {
+            return type;
+        } else if (type instanceof TypeVariable) {
+            Type argument = bindings.get(type);
+            return argument == null ? type : argument;
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            Type[] arguments = pType.getActualTypeArguments();
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = resolve(arguments[i], bindings);
+            }
+            return SignatureTypes.parameterized(resolve(pType.getOwnerType(), bindings),
+                    (ClassFileType) pType.getRawType(), arguments);
+        } else if (type instanceof GenericArrayType) {
+            return SignatureTypes.genericArray(resolve(((GenericArrayType) type).getGenericComponentType(), bindings));
+        } else if (type instanceof WildcardType) {
+            WildcardType wType = (WildcardType) type;
+            Type[] upperBounds = wType.getUpperBounds();
+            Type[] lowerBounds = wType.getLowerBounds();
+            for (int i = 0; i < upperBounds.length; i++) {
+                upperBounds[i] = resolve(upperBounds[i], bindings);
+            }
+            for (int i = 0; i < lowerBounds.length; i++) {
+                lowerBounds[i] = resolve(lowerBounds[i], bindings);
+            }
+            return SignatureTypes.wildcard(upperBounds, lowerBounds);
+        }
+        return type;
+    }
+
+    /**
+     * Walked type: its children (with names of properties, if they're properties of bean)
+     * and owner types binding type variables of children.
+     */
+    private static final class Frame {
+
+        private final Type type;
+
+        private final List<String> names = new ArrayList<>();
+
+        private final List<Type> children = new ArrayList<>();
+
+        private final List<Type> owners = new ArrayList<>();
+
+        private int index;
+
+        /**
+         * Child is a property, which is not finished yet.
+         */
+        private boolean inProperty;
+
+        private Type childOwner;
+
+        Frame(Type type) {
+            this.type = type;
+        }
+
+        void add(String name, Type child, Type owner) {
+            names.add(name);
+            children.add(child);
+            owners.add(owner);
+        }
+
+    }
+
+    /**
+     * Types of class, read from its generic signatures (or descriptors).
+     */
+    private static final class ClassFileModel {
+
+        private final List<TypeVariable<?>> typeVariables;
+
+        /**
+         * Generic super class, or <code>null</code>.
+         */
+        private final Type superclass;
+
+        private final String[] propertyNames;
+
+        private final Type[] propertyTypes;
+
+        private final MethodModel[] methods;
+
+        ClassFileModel(ClassFileInfo clazz) throws IOException {
+            Map<String, Variable> variables = new HashMap<>();
+            if (clazz.getSignature() != null) {
+                SignatureParser parser = new SignatureParser(clazz.getSignature(), variables);
+                typeVariables = parser.typeParameters();
+                superclass = parser.type();
+            } else {
+                typeVariables = Collections.emptyList();
+                superclass = clazz.getSuperclassName() == null ? null : new ClassFileType(clazz.getSuperclassName());
+            }
+            List<FieldInfo> fields = clazz.getFields();
+            propertyNames = new String[fields.size()];
+            propertyTypes = new Type[fields.size()];
+            for (int i = 0; i < propertyNames.length; i++) {
+                propertyNames[i] = fields.get(i).getName();
+                propertyTypes[i] = new SignatureParser(fields.get(i).getGenericSignature(), variables).type();
+            }
+            List<MethodModel> result = new ArrayList<>();
+            for (MethodInfo method : clazz.getMethods()) {
+                // constructors and static initializers are not walked
+                if (!method.getName().startsWith("<")) {
+                    String signature = method.getSignature() == null ? method.getDescriptor() : method.getSignature();
+                    result.add(new MethodModel(method, new SignatureParser(signature, new HashMap<>(variables))));
+                }
+            }
+            methods = result.toArray(new MethodModel[result.size()]);
+            Arrays.sort(methods, METHOD_ORDER);
+        }
+
+    }
+
+    /**
+     * Method of class, with its generic result and argument types and declared exceptions.
+     */
+    private static final class MethodModel {
+
+        private final MethodInfo info;
+
+        private final Type resultType;
+
+        private final Type[] argumentTypes;
+
+        private final Type[] exceptionTypes;
+
+        MethodModel(MethodInfo info, SignatureParser signature) throws IOException {
+            this.info = info;
+            signature.typeParameters();
+            this.argumentTypes = signature.argumentTypes();
+            this.resultType = signature.type();
+            List<String> exceptionNames = info.getExceptionNames();
+            this.exceptionTypes = new Type[exceptionNames.size()];
+            for (int i = 0; i < exceptionTypes.length; i++) {
+                exceptionTypes[i] = new ClassFileType(exceptionNames.get(i));
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds service classes in directories and jar files, without loading classes.
+ *
+ * Class files are parsed (see {@link ClassFileInfo}) and filtered using supplied
+ * service filter. Found services could be walked from class files, without loading any
+ * class, using {@link ClassFileWalker}. Otherwise only classes accepted by filter have
+ * to be loaded, in order to visit them with {@link pl.ais.tools.apivisitor.APIWalker}:
+ * <pre>{@code
+ * ClasspathScanner scanner = new ClasspathScanner(Paths.get("target/classes"));
+ * scanner.setServiceFilter(ClasspathScanner.inPackage("com.example.api")
+ *         .and(ClasspathScanner.annotatedWith(Service.class)));
+ * walker.visit(scanner.loadServices(classLoader));
+ * }</pre>
+ *
+ * Filters are created using static methods of this class and combined using
+ * {@link Predicate#and(Predicate)}, {@link Predicate#or(Predicate)} etc.
+ * By default all classes, except <code>module-info</code> and <code>package-info</code>,
+ * are accepted.
+ */
+public class ClasspathScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final List<Path> roots = new ArrayList<>();
+
+    private Predicate<ClassFileInfo> serviceFilter = (any) -> true;
+
+    /**
+     * @param roots directories and jar files to scan.
+     */
+    public ClasspathScanner(Path... roots) {
+        Collections.addAll(this.roots, roots);
+    }
+
+    /**
+     * @return scanner of directories and jar files listed in <code>java.class.path</code> system property.
+     */
+    public static ClasspathScanner fromClassPath() {
+        ClasspathScanner scanner = new ClasspathScanner();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                scanner.roots.add(Paths.get(entry));
+            }
+        }
+        return scanner;
+    }
+
+    /**
+     * @param annotation annotation class.
+     * @return filter accepting classes annotated with given annotation.
+     */
+    public static Predicate<ClassFileInfo> annotatedWith(Class<? extends Annotation> annotation) {
+        return annotatedWith(annotation.getName());
+    }
+
+    /**
+     * @param annotationName name of annotation class.
+     * @return filter accepting classes annotated with given annotation.
+     */
+    public static Predicate<ClassFileInfo> annotatedWith(String annotationName) {
+        return info -> info.getAnnotationNames().contains(annotationName);
+    }
+
+    /**
+     * @param packageName name of package.
+     * @return filter accepting classes from given package and its sub-packages.
+     */
+    public static Predicate<ClassFileInfo> inPackage(String packageName) {
+        String prefix = packageName + ".";
+        return info -> info.getName().startsWith(prefix);
+    }
+
+    /**
+     * @param regex regular expression.
+     * @return filter accepting classes, which names (without package names) match given expression.
+     */
+    public static Predicate<ClassFileInfo> simpleNameMatches(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return info -> pattern.matcher(info.getSimpleName()).matches();
+    }
+
+    public void setServiceFilter(Predicate<ClassFileInfo> serviceFilter) {
+        this.serviceFilter = serviceFilter;
+    }
+
+    /**
+     * @return directories and jar files to scan.
+     */
+    List<Path> getRoots() {
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Scans directories and jar files.
+     *
+     * @return classes accepted by service filter, sorted by names.
+     * @throws IOException if directory, jar or class file could not be read.
+     */
+    public List<ClassFileInfo> findServices() throws IOException {
+        Map<String, ClassFileInfo> result = new TreeMap<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                scanDirectory(root, result);
+            } else if (Files.isRegularFile(root)) {
+                scanJar(root, result);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Scans directories and jar files and loads (without initializing) classes accepted by service filter.
+     *
+     * @param classLoader class loader used to load classes.
+     * @return classes accepted by service filter, sorted by names.
+     * @throws IOException if directory, jar or class file could not be read.
+     * @throws TypeNotPresentException if accepted class could not be loaded.
+     */
+    public Class<?>[] loadServices(ClassLoader classLoader) throws IOException {
+        List<ClassFileInfo> services = findServices();
+        Class<?>[] result = new Class<?>[services.size()];
+        for (int i = 0; i < result.length; i++) {
+            String name = services.get(i).getName();
+            try {
+                result[i] = Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new TypeNotPresentException(name, e);
+            }
+        }
+        return result;
+    }
+
+    private void scanDirectory(Path root, Map<String, ClassFileInfo> result) throws IOException {
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(root)) {
+            classFiles = files.filter(file -> isClassFile(file.getFileName().toString()))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+                accept(ClassFileParser.parse(in), result);
+            }
+        }
+    }
+
+    private void scanJar(Path jar, Map<String, ClassFileInfo> result) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && !name.startsWith("META-INF/")
+                        && isClassFile(name.substring(name.lastIndexOf('/') + 1))) {
+                    try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+                        accept(ClassFileParser.parse(in), result);
+                    }
+                }
+            }
+        }
+    }
+
+    private void accept(ClassFileInfo info, Map<String, ClassFileInfo> result) {
+        if (serviceFilter.test(info)) {
+            result.putIfAbsent(info.getName(), info);
+        }
+    }
+
+    private boolean isClassFile(String fileName) {
+        return fileName.endsWith(CLASS_SUFFIX) && !"module-info.class".equals(fileName)
+                && !"package-info.class".equals(fileName);
+    }
+
+}
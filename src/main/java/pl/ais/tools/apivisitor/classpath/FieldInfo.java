@@ -0,0 +1,31 @@
+package pl.ais.tools.apivisitor.classpath;
+
+/**
+ * Field of class, read from class file.
+ */
+final class FieldInfo {
+
+    private final String name;
+
+    private final String descriptor;
+
+    private final String signature;
+
+    FieldInfo(String name, String descriptor, String signature) {
+        this.name = name;
+        this.descriptor = descriptor;
+        this.signature = signature;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return generic signature of field, or its descriptor if field type is not generic.
+     */
+    String getGenericSignature() {
+        return signature == null ? descriptor : signature;
+    }
+
+}
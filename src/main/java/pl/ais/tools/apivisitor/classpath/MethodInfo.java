@@ -0,0 +1,81 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Method of class, read from class file without loading the class.
+ */
+public final class MethodInfo {
+
+    private final String declaringClassName;
+
+    private final String name;
+
+    private final String descriptor;
+
+    private final String signature;
+
+    private final List<String> exceptionNames;
+
+    private final int modifiers;
+
+    MethodInfo(String declaringClassName, String name, String descriptor, String signature,
+            List<String> exceptionNames, int modifiers) {
+        this.declaringClassName = declaringClassName;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.signature = signature;
+        this.exceptionNames = Collections.unmodifiableList(exceptionNames);
+        this.modifiers = modifiers;
+    }
+
+    /**
+     * @return binary name of class declaring method.
+     */
+    public String getDeclaringClassName() {
+        return declaringClassName;
+    }
+
+    /**
+     * @return name of method, <code>&lt;init&gt;</code> for constructors.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return descriptor of method, like <code>(JLjava/lang/String;)V</code>.
+     */
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * @return generic signature of method, or <code>null</code> if method is not generic.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return unmodifiable list of names of declared exceptions.
+     */
+    public List<String> getExceptionNames() {
+        return exceptionNames;
+    }
+
+    /**
+     * @return method modifiers, see {@link Modifier}.
+     */
+    public int getModifiers() {
+        return modifiers;
+    }
+
+    @Override
+    public String toString() {
+        return declaringClassName + "." + name + descriptor;
+    }
+
+}
@@ -0,0 +1,218 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import pl.ais.tools.apivisitor.classpath.SignatureTypes.Variable;
+
+/**
+ * Parser of descriptors and generic signatures of classes, fields and methods (see JVMS 4.7.9.1),
+ * creating types without loading classes: classes are {@link ClassFileType}s, primitive types
+ * are {@link Class}es of primitives.
+ *
+ * Type variables are looked up by name in given scope, variables not declared there (like type
+ * variables of outer classes) are added to scope, unbounded. Type parameters declared by signature
+ * shadow variables of the scope with the same names.
+ */
+final class SignatureParser {
+
+    private final String signature;
+
+    private final Map<String, Variable> variables;
+
+    private int position;
+
+    /**
+     * Names of variables added to scope by references, before they're declared.
+     */
+    private final Set<String> referenced = new HashSet<>();
+
+    /**
+     * @param signature descriptor or generic signature.
+     * @param variables scope of type variables, variables declared by signature are added to it.
+     */
+    SignatureParser(String signature, Map<String, Variable> variables) {
+        this.signature = signature;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses formal type parameters of class or method, if there are any.
+     *
+     * @return declared type variables.
+     */
+    List<TypeVariable<?>> typeParameters() throws IOException {
+        List<TypeVariable<?>> result = new ArrayList<>();
+        if (!skip('<')) {
+            return result;
+        }
+        while (!skip('>')) {
+            String name = identifier();
+            Variable variable = referenced.contains(name) ? variables.get(name) : SignatureTypes.variable(name);
+            variables.put(name, variable);
+            expect(':');
+            List<Type> bounds = new ArrayList<>();
+            // class bound is optional, interface bounds follow
+            if (peek() != ':') {
+                bounds.add(type());
+            }
+            while (skip(':')) {
+                bounds.add(type());
+            }
+            variable.setBounds(bounds.toArray(new Type[bounds.size()]));
+            result.add(variable);
+        }
+        return result;
+    }
+
+    /**
+     * Parses argument types of method descriptor or signature (after its type parameters).
+     */
+    Type[] argumentTypes() throws IOException {
+        expect('(');
+        List<Type> result = new ArrayList<>();
+        while (!skip(')')) {
+            result.add(type());
+        }
+        return result.toArray(new Type[result.size()]);
+    }
+
+    /**
+     * Parses type (or <code>void</code>).
+     */
+    Type type() throws IOException {
+        char tag = next();
+        switch (tag) {
+            case 'B':
+                return byte.class;
+            case 'C':
+                return char.class;
+            case 'D':
+                return double.class;
+            case 'F':
+                return float.class;
+            case 'I':
+                return int.class;
+            case 'J':
+                return long.class;
+            case 'S':
+                return short.class;
+            case 'Z':
+                return boolean.class;
+            case 'V':
+                return void.class;
+            case '[':
+                return SignatureTypes.genericArray(type());
+            case 'T':
+                Variable variable = variable(identifier());
+                expect(';');
+                return variable;
+            case 'L':
+                return classType();
+            default:
+                throw invalid();
+        }
+    }
+
+    /**
+     * Parses class type (after <code>L</code>), including its type arguments and inner classes.
+     */
+    private Type classType() throws IOException {
+        String name = identifier().replace('/', '.');
+        Type owner = null;
+        while (true) {
+            Type result = new ClassFileType(name);
+            if (peek() == '<') {
+                result = SignatureTypes.parameterized(owner, (ClassFileType) result, typeArguments());
+            } else if (owner instanceof ParameterizedType) {
+                result = SignatureTypes.parameterized(owner, (ClassFileType) result);
+            }
+            if (!skip('.')) {
+                expect(';');
+                return result;
+            }
+            owner = result;
+            name = name + '$' + identifier();
+        }
+    }
+
+    private Type[] typeArguments() throws IOException {
+        expect('<');
+        List<Type> result = new ArrayList<>();
+        while (!skip('>')) {
+            if (skip('*')) {
+                result.add(SignatureTypes.wildcard(new Type[0], new Type[0]));
+            } else if (skip('+')) {
+                result.add(SignatureTypes.wildcard(new Type[] { type() }, new Type[0]));
+            } else if (skip('-')) {
+                result.add(SignatureTypes.wildcard(new Type[0], new Type[] { type() }));
+            } else {
+                result.add(type());
+            }
+        }
+        return result.toArray(new Type[result.size()]);
+    }
+
+    /**
+     * Reads identifier (in case of class types: name with packages), up to the next delimiter.
+     */
+    private String identifier() throws IOException {
+        int start = position;
+        while (position < signature.length() && ".;[<>:".indexOf(signature.charAt(position)) < 0) {
+            position++;
+        }
+        if (position == start) {
+            throw invalid();
+        }
+        return signature.substring(start, position);
+    }
+
+    private Variable variable(String name) {
+        Variable result = variables.get(name);
+        if (result == null) {
+            result = SignatureTypes.variable(name);
+            variables.put(name, result);
+            referenced.add(name);
+        }
+        return result;
+    }
+
+    private char peek() throws IOException {
+        if (position == signature.length()) {
+            throw invalid();
+        }
+        return signature.charAt(position);
+    }
+
+    private char next() throws IOException {
+        char result = peek();
+        position++;
+        return result;
+    }
+
+    private boolean skip(char expected) throws IOException {
+        if (peek() == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw invalid();
+        }
+    }
+
+    private IOException invalid() {
+        return new IOException("invalid signature " + signature + " at " + position);
+    }
+
+}
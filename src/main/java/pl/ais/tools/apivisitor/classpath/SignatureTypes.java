@@ -0,0 +1,273 @@
+package pl.ais.tools.apivisitor.classpath;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementations of generic types, read from generic signatures of class files.
+ *
+ * Names of their classes are {@link ClassFileType}s, their names (see {@link Type#getTypeName()})
+ * are the same as names of types created by reflection.
+ */
+final class SignatureTypes {
+
+    static final ClassFileType OBJECT = new ClassFileType("java.lang.Object");
+
+    private static final Type[] NO_TYPES = new Type[0];
+
+    private static final Type[] OBJECT_BOUNDS = { OBJECT };
+
+    private SignatureTypes() {
+    }
+
+    static ParameterizedType parameterized(Type ownerType, ClassFileType rawType, Type... actualTypeArguments) {
+        return new ParameterizedTypeImpl(ownerType, rawType, actualTypeArguments.clone());
+    }
+
+    static GenericArrayType genericArray(Type componentType) {
+        return new GenericArrayTypeImpl(componentType);
+    }
+
+    static WildcardType wildcard(Type[] upperBounds, Type[] lowerBounds) {
+        return new WildcardTypeImpl(upperBounds.length == 0 ? OBJECT_BOUNDS : upperBounds.clone(),
+                lowerBounds.length == 0 ? NO_TYPES : lowerBounds.clone());
+    }
+
+    /**
+     * @return type variable, bounded by <code>java.lang.Object</code> until its bounds are set.
+     */
+    static Variable variable(String name) {
+        return new Variable(name);
+    }
+
+    private static final class ParameterizedTypeImpl implements ParameterizedType {
+
+        private final Type ownerType;
+
+        private final ClassFileType rawType;
+
+        private final Type[] actualTypeArguments;
+
+        ParameterizedTypeImpl(Type ownerType, ClassFileType rawType, Type[] actualTypeArguments) {
+            this.ownerType = ownerType;
+            this.rawType = rawType;
+            this.actualTypeArguments = actualTypeArguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return actualTypeArguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof ParameterizedType) {
+                ParameterizedType that = (ParameterizedType) other;
+                return this == that || (Objects.equals(ownerType, that.getOwnerType())
+                        && Objects.equals(rawType, that.getRawType())
+                        && Arrays.equals(actualTypeArguments, that.getActualTypeArguments()));
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            if (ownerType instanceof ParameterizedType) {
+                ClassFileType ownerRawType = (ClassFileType) ((ParameterizedType) ownerType).getRawType();
+                result.append(ownerType.getTypeName()).append('$')
+                        .append(rawType.getName().substring(ownerRawType.getName().length() + 1));
+            } else {
+                result.append(rawType.getName());
+            }
+            if (actualTypeArguments.length > 0) {
+                result.append('<');
+                for (int i = 0; i < actualTypeArguments.length; i++) {
+                    if (i > 0) {
+                        result.append(", ");
+                    }
+                    result.append(actualTypeArguments[i].getTypeName());
+                }
+                result.append('>');
+            }
+            return result.toString();
+        }
+
+    }
+
+    private static final class GenericArrayTypeImpl implements GenericArrayType {
+
+        private final Type componentType;
+
+        GenericArrayTypeImpl(Type componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public Type getGenericComponentType() {
+            return componentType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof GenericArrayType
+                    && Objects.equals(componentType, ((GenericArrayType) other).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(componentType);
+        }
+
+        @Override
+        public String toString() {
+            return componentType.getTypeName() + "[]";
+        }
+
+    }
+
+    private static final class WildcardTypeImpl implements WildcardType {
+
+        private final Type[] upperBounds;
+
+        private final Type[] lowerBounds;
+
+        WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+            this.upperBounds = upperBounds;
+            this.lowerBounds = lowerBounds;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return upperBounds.clone();
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return lowerBounds.clone();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof WildcardType) {
+                WildcardType that = (WildcardType) other;
+                return Arrays.equals(lowerBounds, that.getLowerBounds())
+                        && Arrays.equals(upperBounds, that.getUpperBounds());
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(lowerBounds) ^ Arrays.hashCode(upperBounds);
+        }
+
+        @Override
+        public String toString() {
+            Type[] bounds;
+            StringBuilder result = new StringBuilder();
+            if (lowerBounds.length > 0) {
+                bounds = lowerBounds;
+                result.append("? super ");
+            } else if (upperBounds.length > 0 && !upperBounds[0].equals(OBJECT)) {
+                bounds = upperBounds;
+                result.append("? extends ");
+            } else {
+                return "?";
+            }
+            for (int i = 0; i < bounds.length; i++) {
+                if (i > 0) {
+                    result.append(" & ");
+                }
+                result.append(bounds[i].getTypeName());
+            }
+            return result.toString();
+        }
+
+    }
+
+    /**
+     * Type variable of class or method, identified by its instance (like type variables of reflection,
+     * which are equal only when they're declared by the same declaration). Declaration of variable
+     * is not loaded, so it's not available.
+     */
+    static final class Variable implements TypeVariable<GenericDeclaration> {
+
+        private final String name;
+
+        private Type[] bounds = OBJECT_BOUNDS;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        void setBounds(Type[] bounds) {
+            this.bounds = bounds.length == 0 ? OBJECT_BOUNDS : bounds;
+        }
+
+        @Override
+        public Type[] getBounds() {
+            return bounds.clone();
+        }
+
+        @Override
+        public GenericDeclaration getGenericDeclaration() {
+            throw new UnsupportedOperationException("declaration of " + name + " is not loaded");
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public AnnotatedType[] getAnnotatedBounds() {
+            throw new UnsupportedOperationException("annotations of " + name + " are not loaded");
+        }
+
+        @Override
+        public <T extends Annotation> T getAnnotation(Class<T> annotationClass) {
+            return null;
+        }
+
+        @Override
+        public Annotation[] getAnnotations() {
+            return new Annotation[0];
+        }
+
+        @Override
+        public Annotation[] getDeclaredAnnotations() {
+            return new Annotation[0];
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+
+public class AllocationTest {
+
+    @Test
+    public void testPathIsReusedAndEmptiedAfterWalk() {
+        List<List<Type>> paths = new ArrayList<>();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void dependencyCycleDetected(List<Type> path) {
+                paths.add(path);
+            }
+        });
+        walker.visit(pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        walker.visit(pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        Assert.assertFalse(paths.isEmpty());
+        for (List<Type> path : paths) {
+            Assert.assertSame(paths.get(0), path);
+        }
+        Assert.assertTrue(paths.get(0).isEmpty());
+    }
+
+    @Test
+    public void testWalkingKnownTypesDoesNotAllocate() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void beginTypeProcessing(Type type) {
+            }
+        });
+        Class<?>[] services = { OrderRepository.class };
+        walker.visit(services);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        walker.visit(services);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 256);
+    }
+
+}
@@ -0,0 +1,111 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiEventReader;
+import pl.ais.tools.apivisitor.EventKind;
+import pl.ais.tools.apivisitor.VisitorEvent;
+import pl.ais.tools.apivisitor.WalkMetricsRegistry;
+import pl.ais.tools.apivisitor.test.objects.cycle.Service;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class ApiEventReaderTest {
+
+    private static final Class<?>[] SERVICES = { Service.class, OrderRepository.class, OrderService.class,
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class };
+
+    @Test
+    public void testEventsAreTheSameAsReportedToVisitor() {
+        for (int maxDepth : new int[] { 0, 2 }) {
+            APIWalker walker = new APIWalker();
+            walker.setMemoizeTypes(maxDepth == 0);
+            walker.setMaxDepth(maxDepth);
+            RecordingVisitor expected = new RecordingVisitor();
+            walker.setVisitor(expected);
+            walker.visit(SERVICES);
+
+            RecordingVisitor actual = new RecordingVisitor();
+            new ApiEventReader(walker, SERVICES).stream().forEach(event -> event.dispatch(actual));
+            Assert.assertEquals(expected.getEvents(), actual.getEvents());
+        }
+    }
+
+    @Test
+    public void testTypesAreRead() {
+        APIWalker walker = new APIWalker();
+        RecordingVisitor expected = new RecordingVisitor();
+        walker.setVisitor(expected);
+        walker.visitTypes(pl.ais.tools.apivisitor.test.objects.cycle.A.class);
+
+        RecordingVisitor actual = new RecordingVisitor();
+        ApiEventReader.ofTypes(walker, pl.ais.tools.apivisitor.test.objects.cycle.A.class).stream()
+                .forEach(event -> event.dispatch(actual));
+        Assert.assertEquals(expected.getEvents(), actual.getEvents());
+    }
+
+    @Test
+    public void testCursor() {
+        ApiEventReader reader = new ApiEventReader(new APIWalker(), Service.class);
+        Assert.assertEquals(EventKind.BEGIN_SERVICE_PROCESSING, reader.next());
+        Assert.assertEquals(Service.class, reader.getService());
+        Assert.assertTrue(reader.getPath().isEmpty());
+        while (reader.next() != EventKind.BEGIN_PROPERTY_PROCESSING) {
+            Assert.assertTrue(reader.hasNext());
+        }
+        Assert.assertNotNull(reader.getPropertyName());
+        List<Type> path = reader.getPath();
+        Type owner = path.get(path.size() - 1);
+        Assert.assertEquals(EventKind.BEGIN_TYPE_PROCESSING, reader.next());
+        Assert.assertEquals(reader.getType(), path.get(path.size() - 1));
+        Assert.assertEquals(owner, path.get(path.size() - 2));
+        while (reader.hasNext()) {
+            reader.next();
+        }
+        Assert.assertEquals(EventKind.FINISH_SERVICE_PROCESSING, reader.getEventKind());
+        Assert.assertEquals(Service.class, reader.getService());
+        try {
+            reader.next();
+            Assert.fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testServicesAreWalkedWhenTheirEventsArePulled() {
+        WalkMetricsRegistry registry = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setWalkListener(registry);
+        ApiEventReader reader = new ApiEventReader(walker, Service.class, OrderService.class);
+        Assert.assertNull(registry.getMetrics(Service.class));
+        reader.next();
+        Assert.assertNotNull(registry.getMetrics(Service.class));
+        Assert.assertNull(registry.getMetrics(OrderService.class));
+        while (reader.getEventKind() != EventKind.FINISH_SERVICE_PROCESSING) {
+            reader.next();
+        }
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals(EventKind.FINISH_SERVICE_PROCESSING, reader.getEventKind());
+        Assert.assertEquals(Service.class, reader.getService());
+        Assert.assertNotNull(registry.getMetrics(OrderService.class));
+    }
+
+    @Test
+    public void testParallelStream() {
+        APIWalker walker = new APIWalker();
+        List<String> sequential = new ApiEventReader(walker, SERVICES).stream()
+                .map(VisitorEvent::toString).sorted().collect(Collectors.toList());
+        List<String> parallel = new ApiEventReader(walker, SERVICES).stream().parallel()
+                .map(VisitorEvent::toString).sorted().collect(Collectors.toList());
+        Assert.assertEquals(sequential, parallel);
+    }
+
+}
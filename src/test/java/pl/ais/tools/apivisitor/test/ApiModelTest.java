@@ -0,0 +1,211 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.ApiModel.MethodNode;
+import pl.ais.tools.apivisitor.ApiModel.ServiceNode;
+import pl.ais.tools.apivisitor.ApiModel.TypeKind;
+import pl.ais.tools.apivisitor.ApiModel.TypeNode;
+import pl.ais.tools.apivisitor.test.objects.model.BaseService;
+import pl.ais.tools.apivisitor.test.objects.model.Item;
+import pl.ais.tools.apivisitor.test.objects.model.Order;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class ApiModelTest {
+
+    private static final Class<?>[] SERVICES = {
+            OrderService.class,
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class,
+            pl.ais.tools.apivisitor.test.objects.cycle.Service.class,
+            pl.ais.tools.apivisitor.test.objects.memoization.Service.class };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReplayMatchesWalk() {
+        assertReplayMatchesWalk(new APIWalker());
+    }
+
+    @Test
+    public void testReplayMatchesMemoizedWalk() {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(true);
+        assertReplayMatchesWalk(walker);
+    }
+
+    @Test
+    public void testReplayMatchesWalkWithAcceptors() {
+        APIWalker walker = new APIWalker();
+        walker.setMethodAcceptor(method -> !"save".equals(method.getName()));
+        walker.setTypeAcceptor(type -> type != String.class);
+        walker.addTerminatingTypes(Item.class);
+        assertReplayMatchesWalk(walker);
+    }
+
+    @Test
+    public void testQueries() throws Exception {
+        ApiModel model = ApiModel.build(new APIWalker(), OrderService.class);
+        Assert.assertEquals(1, model.getServices().size());
+        ServiceNode service = model.getService(OrderService.class);
+        Assert.assertSame(service, model.getServices().get(0));
+        Assert.assertSame(model.getService(BaseService.class), service.getSuperService());
+
+        Method find = OrderService.class.getMethod("find", long.class, String.class);
+        MethodNode method = service.getMethods().stream().filter(m -> find.equals(m.getMethod())).findFirst().get();
+        Assert.assertEquals(2, method.getArguments().size());
+        Assert.assertEquals(1, method.getThrowables().size());
+
+        TypeNode order = model.getType(Order.class);
+        Assert.assertSame(order, method.getResult().getNode());
+        Assert.assertEquals(TypeKind.CLASS, order.getKind());
+        Assert.assertEquals(TypeKind.PRIMITIVE, model.getType(String.class).getKind());
+        Assert.assertEquals(TypeKind.PARAMETERIZED, order.getProperties().get(0).getNode().getKind());
+
+        TypeNode item = model.getType(Item.class);
+        Assert.assertEquals(TypeKind.ARRAY, model.getType(Item[].class).getKind());
+        Assert.assertSame(item, model.getType(Item[].class).getComponents().get(0));
+        Assert.assertNull("Object is terminating type", item.getProperties().get(3).getNode());
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        APIWalker walker = new APIWalker();
+        RecordingVisitor walked = new RecordingVisitor();
+        walker.setVisitor(walked);
+        walker.visit(SERVICES);
+
+        File file = folder.newFile();
+        ApiModel.build(walker, SERVICES).write(file.toPath());
+        ApiModel model = ApiModel.read(file.toPath(), getClass().getClassLoader());
+        RecordingVisitor replayed = new RecordingVisitor();
+        model.accept(replayed);
+        Assert.assertEquals(walked.getEvents(), replayed.getEvents());
+        Assert.assertSame(model.getService(BaseService.class), model.getService(OrderService.class).getSuperService());
+        Assert.assertNotNull(model.getType(Order.class));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadingInvalidFile() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        ApiModel.read(file.toPath(), getClass().getClassLoader());
+    }
+
+    @Test
+    public void testReadingCorruptedFile() throws IOException {
+        byte[] content = modelFile();
+        File corrupted = folder.newFile();
+        for (int offset = 8; offset < content.length; offset += 3) {
+            for (byte value : new byte[] { -1, 0x7f }) {
+                byte[] bytes = content.clone();
+                bytes[offset] = value;
+                assertReadDoesNotFailUnexpectedly(corrupted, bytes);
+            }
+            // reader consumes the whole file, so any truncation is detected
+            assertReadFails(corrupted, Arrays.copyOf(content, offset));
+        }
+    }
+
+    @Test
+    public void testReadingFileWithInvalidHeader() throws IOException {
+        byte[] content = modelFile();
+        File corrupted = folder.newFile();
+        for (int length = 0; length < 12; length++) {
+            assertReadFails(corrupted, Arrays.copyOf(content, length));
+        }
+        byte[] magic = content.clone();
+        magic[0] ^= 1;
+        assertReadFails(corrupted, magic);
+        byte[] version = content.clone();
+        ByteBuffer.wrap(version).putInt(4, 99);
+        assertReadFails(corrupted, version);
+        for (int count : new int[] { -1, Integer.MAX_VALUE }) {
+            byte[] strings = content.clone();
+            ByteBuffer.wrap(strings).putInt(8, count);
+            assertReadFails(corrupted, strings);
+        }
+    }
+
+    @Test
+    public void testReadingFileWithOutOfRangeIndexes() throws IOException {
+        byte[] content = modelFile();
+        File corrupted = folder.newFile();
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        int strings = buffer.getInt(8);
+        int offset = 12;
+        for (int i = 0; i < strings; i++) {
+            offset += 4 + buffer.getInt(offset);
+        }
+        // element table starts with its size and the first element - a class referring to its name
+        Assert.assertEquals(0, content[offset + 4]);
+        for (int index : new int[] { -2, strings, Integer.MAX_VALUE }) {
+            byte[] bytes = content.clone();
+            ByteBuffer.wrap(bytes).putInt(offset + 5, index);
+            assertReadFails(corrupted, bytes);
+        }
+        // file ends with index of the last top-level service and memoized mode flag
+        for (int index : new int[] { -2, -1, Integer.MAX_VALUE }) {
+            byte[] bytes = content.clone();
+            ByteBuffer.wrap(bytes).putInt(bytes.length - 5, index);
+            assertReadFails(corrupted, bytes);
+        }
+    }
+
+    private byte[] modelFile() throws IOException {
+        File file = folder.newFile();
+        ApiModel.build(new APIWalker(), SERVICES).write(file.toPath());
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Reading may succeed, when corrupted byte is not significant - but it must not fail
+     * with exceptions other than {@link IOException}.
+     */
+    private void assertReadDoesNotFailUnexpectedly(File file, byte[] bytes) throws IOException {
+        Files.write(file.toPath(), bytes);
+        try {
+            ApiModel.read(file.toPath(), getClass().getClassLoader());
+        } catch (IOException e) {
+            // expected, unless corrupted byte is not significant
+        }
+    }
+
+    private void assertReadFails(File file, byte[] bytes) throws IOException {
+        Files.write(file.toPath(), bytes);
+        try {
+            ApiModel.read(file.toPath(), getClass().getClassLoader());
+            Assert.fail("corrupted file was read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private void assertReplayMatchesWalk(APIWalker walker) {
+        RecordingVisitor walked = new RecordingVisitor();
+        walker.setVisitor(walked);
+        walker.visit(SERVICES);
+
+        ApiModel model = ApiModel.build(walker, SERVICES);
+        RecordingVisitor replayed = new RecordingVisitor();
+        model.accept(replayed);
+        Assert.assertEquals(walked.getEvents(), replayed.getEvents());
+
+        RecordingVisitor replayedAgain = new RecordingVisitor();
+        model.accept(replayedAgain);
+        Assert.assertEquals(walked.getEvents(), replayedAgain.getEvents());
+    }
+
+}
@@ -0,0 +1,127 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.AsyncVisitor;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.BatchVisitor;
+import pl.ais.tools.apivisitor.VisitorEvent;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class AsyncVisitorTest {
+
+    private static final Class<?>[] SERVICES = {
+            OrderService.class,
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class,
+            pl.ais.tools.apivisitor.test.objects.cycle.Service.class };
+
+    @Test
+    public void testEventsAreDelivered() {
+        RecordingVisitor expected = walk(new RecordingVisitor());
+        RecordingVisitor target = new RecordingVisitor();
+        try (AsyncVisitor visitor = new AsyncVisitor(target, 8, 3)) {
+            walk(visitor);
+        }
+        Assert.assertEquals(expected.getEvents(), target.getEvents());
+    }
+
+    @Test
+    public void testEventsAreDeliveredInBatches() {
+        RecordingVisitor expected = walk(new RecordingVisitor());
+        RecordingBatchVisitor target = new RecordingBatchVisitor();
+        try (AsyncVisitor visitor = new AsyncVisitor(target, 16, 4)) {
+            walk(visitor);
+        }
+        Assert.assertEquals(expected.getEvents(), target.getEvents());
+        Assert.assertTrue(target.batches > 0);
+        Assert.assertTrue(target.maxBatchSize <= 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailureIsRethrown() {
+        BaseVisitor target = new BaseVisitor() {
+            @Override
+            public void dependencyCycleDetected(List<Type> path) {
+                throw new IllegalArgumentException("cycle");
+            }
+        };
+        try (AsyncVisitor visitor = new AsyncVisitor(target, 2, 1)) {
+            walk(visitor);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testFailureOfConsumerIsRethrownWhenBufferIsFull() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        BaseVisitor target = new BaseVisitor() {
+            @Override
+            public void beginServiceProcessing(Class<?> clazz) {
+                delivered.countDown();
+                try {
+                    // blocks consumer until it's interrupted
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        AtomicReference<Thread> consumer = new AtomicReference<>();
+        AsyncVisitor visitor = new AsyncVisitor(target, 2, 1, command -> {
+            Thread thread = new Thread(command);
+            thread.setDaemon(true);
+            consumer.set(thread);
+            thread.start();
+        });
+        Thread walker = new Thread(() -> walk(visitor));
+        AtomicReference<Throwable> walkFailure = new AtomicReference<>();
+        walker.setUncaughtExceptionHandler((thread, e) -> walkFailure.set(e));
+        walker.start();
+        delivered.await();
+        while (walker.getState() != Thread.State.WAITING && walker.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10);
+        }
+        // buffer of 2 events is full, walker waits for free space
+        consumer.get().interrupt();
+        walker.join();
+        Assert.assertTrue(walkFailure.get() instanceof IllegalStateException);
+        Assert.assertTrue(walkFailure.get().getCause() instanceof InterruptedException);
+        try {
+            visitor.close();
+            Assert.fail("failure of consumer not rethrown");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedException);
+        }
+    }
+
+    private <V extends pl.ais.tools.apivisitor.Visitor> V walk(V visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(SERVICES);
+        return visitor;
+    }
+
+    private static class RecordingBatchVisitor extends RecordingVisitor implements BatchVisitor {
+
+        private int batches;
+
+        private int maxBatchSize;
+
+        @Override
+        public void processEvents(List<VisitorEvent> events) {
+            batches++;
+            maxBatchSize = Math.max(maxBatchSize, events.size());
+            for (VisitorEvent event : events) {
+                event.dispatch(this);
+            }
+        }
+
+    }
+
+}
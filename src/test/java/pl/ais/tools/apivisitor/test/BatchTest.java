@@ -0,0 +1,91 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.ApiModel.TypeNode;
+import pl.ais.tools.apivisitor.test.objects.batch.Address;
+import pl.ais.tools.apivisitor.test.objects.batch.AuditService;
+import pl.ais.tools.apivisitor.test.objects.batch.Customer;
+import pl.ais.tools.apivisitor.test.objects.batch.CustomerService;
+
+public class BatchTest {
+
+    private static final List<Class<?>> BATCH = Arrays.asList(CustomerService.class, AuditService.class);
+
+    @Test
+    public void testSharedTypesAreWalkedOncePerBatch() {
+        List<String> events = visitBatch(BATCH);
+        Assert.assertEquals(1, events.stream().filter(("beginTypeProcessing " + Customer.class.getName())::equals).count());
+        Assert.assertEquals(1, events.stream().filter(("beginTypeProcessing " + Address.class.getName())::equals).count());
+        Assert.assertEquals(2, events.stream().filter(("typeAlreadyVisited " + Customer.class.getName())::equals).count());
+        Assert.assertEquals(1, events.stream().filter(("typeAlreadyVisited " + Address.class.getName())::equals).count());
+    }
+
+    @Test
+    public void testEventsDoNotDependOnOrderOfServices() {
+        List<Class<?>> reversed = Arrays.asList(AuditService.class, CustomerService.class, AuditService.class);
+        List<String> events = visitBatch(BATCH);
+        Assert.assertEquals(events, visitBatch(reversed));
+        Assert.assertEquals("beginServiceProcessing " + AuditService.class.getName(), events.get(0));
+    }
+
+    @Test
+    public void testMemoizedModeIsNotChanged() {
+        APIWalker walker = new APIWalker();
+        RecordingVisitor visitor = new RecordingVisitor();
+        walker.setVisitor(visitor);
+        walker.visitBatch(BATCH);
+        visitor.getEvents().clear();
+        walker.visit(CustomerService.class);
+        Assert.assertEquals(2, visitor.getEvents().stream()
+                .filter(("beginTypeProcessing " + Customer.class.getName())::equals).count());
+    }
+
+    @Test
+    public void testModelOfBatch() {
+        ApiModel model = ApiModel.buildBatch(new APIWalker(), BATCH);
+        Assert.assertEquals(AuditService.class, model.getServices().get(0).getType());
+        TypeNode customer = model.getType(Customer.class);
+        Assert.assertSame(customer, model.getService(AuditService.class).getMethods().get(0).getArguments().get(0).getNode());
+        Assert.assertSame(customer, model.getService(CustomerService.class).getMethods().get(0).getResult().getNode());
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        model.accept(visitor);
+        Assert.assertEquals(visitBatch(BATCH), visitor.getEvents());
+    }
+
+    @Test
+    public void testTypesCutOffByLimitsAreWalkedAgain() {
+        APIWalker walker = new APIWalker();
+        RecordingVisitor visitor = new RecordingVisitor();
+        walker.setVisitor(visitor);
+        walker.setMaxNodes(2);
+        walker.visitBatch(BATCH);
+        List<String> events = visitor.getEvents();
+        Assert.assertEquals(2, events.stream().filter(event -> event.startsWith("limitReached")).count());
+        Assert.assertEquals(2, events.stream().filter(("beginTypeProcessing " + Customer.class.getName())::equals).count());
+        Assert.assertEquals(0, events.stream().filter(("typeAlreadyVisited " + Customer.class.getName())::equals).count());
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        Assert.assertTrue(visitBatch(Collections.emptyList()).isEmpty());
+    }
+
+    private List<String> visitBatch(Collection<Class<?>> classes) {
+        APIWalker walker = new APIWalker();
+        RecordingVisitor visitor = new RecordingVisitor();
+        walker.setVisitor(visitor);
+        walker.visitBatch(classes);
+        return visitor.getEvents();
+    }
+
+}
@@ -0,0 +1,399 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.Limit;
+import pl.ais.tools.apivisitor.Visitor;
+import pl.ais.tools.apivisitor.classpath.ClassFileInfo;
+import pl.ais.tools.apivisitor.classpath.ClassFileType;
+import pl.ais.tools.apivisitor.classpath.ClassFileVisitor;
+import pl.ais.tools.apivisitor.classpath.ClassFileWalker;
+import pl.ais.tools.apivisitor.classpath.ClasspathScanner;
+import pl.ais.tools.apivisitor.classpath.MethodInfo;
+import pl.ais.tools.apivisitor.test.objects.classfile.Bean;
+import pl.ais.tools.apivisitor.test.objects.classfile.Kind;
+import pl.ais.tools.apivisitor.test.objects.classfile.Label;
+import pl.ais.tools.apivisitor.test.objects.classfile.Service;
+import pl.ais.tools.apivisitor.test.objects.generics.Order;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class ClassFileWalkerTest {
+
+    private static final Class<?>[] SERVICES = {
+            OrderService.class,
+            OrderRepository.class,
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class,
+            pl.ais.tools.apivisitor.test.objects.cycle.Service.class,
+            Service.class };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path testClasses;
+
+    @Before
+    public void findTestClasses() throws URISyntaxException {
+        testClasses = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    public void testEventsAreTheSameAsEventsOfReflection() throws IOException {
+        for (Class<?> service : SERVICES) {
+            Recorder expected = new Recorder();
+            APIWalker walker = new APIWalker();
+            walker.setVisitor(expected);
+            walker.visit(service);
+            ClassFileRecorder actual = new ClassFileRecorder();
+            ClassFileWalker classFileWalker = new ClassFileWalker(new ClasspathScanner(testClasses));
+            classFileWalker.setVisitor(actual);
+            classFileWalker.visit(service.getName());
+            Assert.assertEquals(service.getName(), expected.events, actual.events);
+        }
+    }
+
+    @Test
+    public void testWalkingServicesFoundInJar() throws IOException {
+        File jar = folder.newFile("services.jar");
+        String objects = "pl/ais/tools/apivisitor/test/objects/generics/";
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (String name : new String[] { "Entity", "Order", "OrderRepository", "Page", "Repository" }) {
+                out.putNextEntry(new ZipEntry(objects + name + ".class"));
+                Files.copy(testClasses.resolve(objects + name + ".class"), out);
+                out.closeEntry();
+            }
+        }
+        ClasspathScanner scanner = new ClasspathScanner(jar.toPath());
+        scanner.setServiceFilter(ClasspathScanner.simpleNameMatches(".*Repository"));
+        List<String> services = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        ClassFileWalker walker = new ClassFileWalker(scanner);
+        walker.setVisitor(new ClassFileVisitor() {
+
+            @Override
+            public void beginServiceProcessing(ClassFileInfo service) {
+                services.add(service.getName());
+            }
+
+            @Override
+            public void beginTypeProcessing(Type type) {
+                types.add(type);
+            }
+
+        });
+        walker.visit();
+        // OrderRepository, Repository (its super class), Repository (found by scanner)
+        Assert.assertEquals(3, services.size());
+        Assert.assertTrue(types.stream().anyMatch(type -> type instanceof ClassFileType
+                && ((ClassFileType) type).getName().equals(Order.class.getName())));
+        Assert.assertTrue(types.stream().anyMatch(type -> type instanceof ParameterizedType));
+        Assert.assertTrue(types.stream().anyMatch(type -> type instanceof TypeVariable));
+    }
+
+    @Test
+    public void testStaticFieldsAreProperties() throws IOException {
+        List<String> events = classFileEvents(testClasses, Service.class);
+        Assert.assertTrue(events.contains("beginProperty DEFAULT_LABEL " + Label.class.getName()));
+    }
+
+    @Test
+    public void testEnumsAreLeaves() throws IOException {
+        List<String> events = classFileEvents(testClasses, Service.class);
+        int index = events.indexOf("beginType " + Kind.class.getName());
+        Assert.assertTrue(index >= 0);
+        Assert.assertEquals("finishType " + Kind.class.getName(), events.get(index + 1));
+    }
+
+    @Test
+    public void testClassesOutsideRootsAreLeaves() throws IOException {
+        // Label is not in jar, so it's not walked, while reflection walks its properties
+        File jar = folder.newFile("beans.jar");
+        String objects = "pl/ais/tools/apivisitor/test/objects/classfile/";
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (String name : new String[] { "Bean", "Kind", "Service" }) {
+                out.putNextEntry(new ZipEntry(objects + name + ".class"));
+                Files.copy(testClasses.resolve(objects + name + ".class"), out);
+                out.closeEntry();
+            }
+        }
+        List<String> events = classFileEvents(jar.toPath(), Service.class);
+        Assert.assertTrue(events.contains("beginType " + Label.class.getName()));
+        Assert.assertFalse(events.contains("beginProperty text " + String.class.getName()));
+        Assert.assertTrue(reflectionEvents(new APIWalker(), Service.class)
+                .contains("beginProperty text " + String.class.getName()));
+    }
+
+    @Test
+    public void testTypesAreNotMemoized() throws IOException {
+        String bean = "beginType " + Bean.class.getName();
+        List<String> events = classFileEvents(testClasses, Service.class);
+        Assert.assertEquals(2, events.stream().filter(bean::equals).count());
+        APIWalker memoizing = new APIWalker();
+        memoizing.setMemoizeTypes(true);
+        Assert.assertEquals(1, reflectionEvents(memoizing, Service.class).stream().filter(bean::equals).count());
+    }
+
+    @Test
+    public void testOnlyTerminatingServicesAndTypesAreConfigurable() {
+        // there are no acceptors, primitive types, shape rules, memoized mode, limits nor walk listener
+        Set<String> methods = new HashSet<>();
+        for (Method method : ClassFileWalker.class.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers())) {
+                methods.add(method.getName());
+            }
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("setVisitor", "addTerminatingServices",
+                "addTerminatingTypes", "visit")), methods);
+    }
+
+    @Test
+    public void testVisitorCouldNotPrune() {
+        for (Method method : ClassFileVisitor.class.getMethods()) {
+            Assert.assertEquals(method.toString(), void.class, method.getReturnType());
+        }
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingService() throws IOException {
+        ClassFileWalker walker = new ClassFileWalker(new ClasspathScanner(testClasses));
+        walker.setVisitor(new ClassFileVisitor() {
+        });
+        walker.visit("not.existing.Service");
+    }
+
+    private static List<String> classFileEvents(Path root, Class<?> service) throws IOException {
+        ClassFileRecorder recorder = new ClassFileRecorder();
+        ClassFileWalker walker = new ClassFileWalker(new ClasspathScanner(root));
+        walker.setVisitor(recorder);
+        walker.visit(service.getName());
+        return recorder.events;
+    }
+
+    private static List<String> reflectionEvents(APIWalker walker, Class<?> service) {
+        Recorder recorder = new Recorder();
+        walker.setVisitor(recorder);
+        walker.visit(service);
+        return recorder.events;
+    }
+
+    private static void record(List<String> events, String event, Object... arguments) {
+        StringBuilder result = new StringBuilder(event);
+        for (Object argument : arguments) {
+            result.append(' ');
+            if (argument instanceof Type) {
+                result.append(((Type) argument).getTypeName());
+            } else if (argument instanceof List) {
+                result.append(((List<?>) argument).stream().map(type -> ((Type) type).getTypeName())
+                        .collect(Collectors.toList()));
+            } else {
+                result.append(argument);
+            }
+        }
+        events.add(result.toString());
+    }
+
+    /**
+     * Records events of reflection walker, with methods identified by their names.
+     */
+    private static class Recorder implements Visitor {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            record(events, "beginService", clazz);
+        }
+
+        @Override
+        public void finishServiceProcessing(Class<?> clazz) {
+            record(events, "finishService", clazz);
+        }
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            record(events, "beginMethod", method.getName());
+        }
+
+        @Override
+        public void finishMethodProcessing(Method method) {
+            record(events, "finishMethod", method.getName());
+        }
+
+        @Override
+        public void beginResultProcessing(Method method, Type type) {
+            record(events, "beginResult", method.getName(), type);
+        }
+
+        @Override
+        public void finishResultProcessing(Method method, Type type) {
+            record(events, "finishResult", method.getName(), type);
+        }
+
+        @Override
+        public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+            record(events, "beginThrowable", method.getName(), throwable);
+        }
+
+        @Override
+        public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+            record(events, "finishThrowable", method.getName(), throwable);
+        }
+
+        @Override
+        public void beginArgumentProcessing(Method method, int index, Type type) {
+            record(events, "beginArgument", method.getName(), index, type);
+        }
+
+        @Override
+        public void finishArgumentProcessing(Method method, int index, Type type) {
+            record(events, "finishArgument", method.getName(), index, type);
+        }
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            record(events, "beginProperty", name, type);
+        }
+
+        @Override
+        public void finishPropertyProcessing(String name, Type type) {
+            record(events, "finishProperty", name, type);
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            record(events, "beginType", type);
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            record(events, "finishType", type);
+        }
+
+        @Override
+        public void dependencyCycleDetected(List<Type> path) {
+            record(events, "dependencyCycleDetected", path);
+        }
+
+        @Override
+        public void unsupportedType(List<Type> path, Type type) {
+            record(events, "unsupportedType", path, type);
+        }
+
+        @Override
+        public void limitReached(List<Type> path, Limit limit) {
+            record(events, "limitReached", path, limit);
+        }
+
+    }
+
+    /**
+     * Records events of class file walker, like {@link Recorder}.
+     */
+    private static class ClassFileRecorder implements ClassFileVisitor {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginServiceProcessing(ClassFileInfo service) {
+            record(events, "beginService", service.getName());
+        }
+
+        @Override
+        public void finishServiceProcessing(ClassFileInfo service) {
+            record(events, "finishService", service.getName());
+        }
+
+        @Override
+        public void beginMethodProcessing(MethodInfo method) {
+            record(events, "beginMethod", method.getName());
+        }
+
+        @Override
+        public void finishMethodProcessing(MethodInfo method) {
+            record(events, "finishMethod", method.getName());
+        }
+
+        @Override
+        public void beginResultProcessing(MethodInfo method, Type type) {
+            record(events, "beginResult", method.getName(), type);
+        }
+
+        @Override
+        public void finishResultProcessing(MethodInfo method, Type type) {
+            record(events, "finishResult", method.getName(), type);
+        }
+
+        @Override
+        public void beginThrowableProcessing(MethodInfo method, Type throwable) {
+            record(events, "beginThrowable", method.getName(), throwable);
+        }
+
+        @Override
+        public void finishThrowableProcessing(MethodInfo method, Type throwable) {
+            record(events, "finishThrowable", method.getName(), throwable);
+        }
+
+        @Override
+        public void beginArgumentProcessing(MethodInfo method, int index, Type type) {
+            record(events, "beginArgument", method.getName(), index, type);
+        }
+
+        @Override
+        public void finishArgumentProcessing(MethodInfo method, int index, Type type) {
+            record(events, "finishArgument", method.getName(), index, type);
+        }
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            record(events, "beginProperty", name, type);
+        }
+
+        @Override
+        public void finishPropertyProcessing(String name, Type type) {
+            record(events, "finishProperty", name, type);
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            record(events, "beginType", type);
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            record(events, "finishType", type);
+        }
+
+        @Override
+        public void dependencyCycleDetected(List<Type> path) {
+            record(events, "dependencyCycleDetected", path);
+        }
+
+    }
+
+}
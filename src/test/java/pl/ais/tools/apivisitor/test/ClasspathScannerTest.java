@@ -0,0 +1,132 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.classpath.ClassFileInfo;
+import pl.ais.tools.apivisitor.classpath.ClasspathScanner;
+import pl.ais.tools.apivisitor.test.objects.acceptors.A;
+import pl.ais.tools.apivisitor.test.objects.acceptors.AcceptedType;
+import pl.ais.tools.apivisitor.test.objects.model.BaseService;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class ClasspathScannerTest {
+
+    private static final String OBJECTS = "pl.ais.tools.apivisitor.test.objects";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path testClasses;
+
+    @Before
+    public void findTestClasses() throws URISyntaxException {
+        testClasses = Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Test
+    public void testFindingByPackageAndName() throws IOException {
+        ClasspathScanner scanner = new ClasspathScanner(testClasses);
+        scanner.setServiceFilter(ClasspathScanner.inPackage(OBJECTS + ".model")
+                .and(ClasspathScanner.simpleNameMatches(".*Service")));
+        Assert.assertEquals(Arrays.asList(BaseService.class.getName(), OrderService.class.getName()),
+                names(scanner.findServices()));
+    }
+
+    @Test
+    public void testFindingByAnnotation() throws IOException {
+        ClasspathScanner scanner = new ClasspathScanner(testClasses);
+        scanner.setServiceFilter(ClasspathScanner.annotatedWith(AcceptedType.class));
+        Assert.assertEquals(Arrays.asList(A.class.getName()), names(scanner.findServices()));
+    }
+
+    @Test
+    public void testClassFileInfo() throws IOException {
+        ClasspathScanner scanner = new ClasspathScanner(testClasses);
+        scanner.setServiceFilter(info -> info.getName().equals(OrderService.class.getName()));
+        ClassFileInfo info = scanner.findServices().get(0);
+        Assert.assertEquals(OBJECTS + ".model", info.getPackageName());
+        Assert.assertEquals("OrderService", info.getSimpleName());
+        Assert.assertEquals(BaseService.class.getName(), info.getSuperclassName());
+        Assert.assertFalse(info.isInterface());
+        Assert.assertFalse(info.isAbstract());
+    }
+
+    @Test
+    public void testScanningJar() throws IOException {
+        File jar = folder.newFile("services.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar.toPath()))) {
+            for (Class<?> clazz : new Class<?>[] { OrderService.class, A.class }) {
+                String entry = clazz.getName().replace('.', '/') + ".class";
+                out.putNextEntry(new ZipEntry(entry));
+                Files.copy(testClasses.resolve(entry), out);
+                out.closeEntry();
+            }
+        }
+        ClasspathScanner scanner = new ClasspathScanner(jar.toPath());
+        scanner.setServiceFilter(ClasspathScanner.simpleNameMatches(".*Service"));
+        Assert.assertEquals(Arrays.asList(OrderService.class.getName()), names(scanner.findServices()));
+    }
+
+    @Test
+    public void testWalkingFoundServices() throws IOException {
+        ClasspathScanner scanner = new ClasspathScanner(testClasses);
+        scanner.setServiceFilter(ClasspathScanner.inPackage(OBJECTS + ".smoke")
+                .and(ClasspathScanner.simpleNameMatches("Service")));
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(scanner.loadServices(getClass().getClassLoader()));
+        Assert.assertEquals(1, visitor.getVisitedServices().size());
+        Assert.assertEquals(11, visitor.getVisitedTypes().size());
+    }
+
+    @Test
+    public void testInvalidConstantPoolIndex() throws IOException {
+        // this class refers to UTF-8 constant, then to constant beyond constant pool
+        for (int index : new int[] { 1, 7 }) {
+            File root = folder.newFolder();
+            try (DataOutputStream out = new DataOutputStream(
+                    Files.newOutputStream(root.toPath().resolve("Malformed.class")))) {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(52);
+                out.writeShort(2);
+                out.writeByte(1);
+                out.writeUTF("Malformed");
+                out.writeShort(Modifier.PUBLIC);
+                out.writeShort(index);
+            }
+            try {
+                new ClasspathScanner(root.toPath()).findServices();
+                Assert.fail("invalid index not reported");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("invalid index"));
+            }
+        }
+    }
+
+    private List<String> names(List<ClassFileInfo> infos) {
+        return infos.stream().map(ClassFileInfo::getName).collect(Collectors.toList());
+    }
+
+}
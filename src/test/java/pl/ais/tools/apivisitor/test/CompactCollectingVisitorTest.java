@@ -0,0 +1,110 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.CompactCollectingVisitor;
+import pl.ais.tools.apivisitor.ElementIds;
+import pl.ais.tools.apivisitor.test.objects.generics.Order;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.generics.Repository;
+import pl.ais.tools.apivisitor.test.objects.smoke.Service;
+
+public class CompactCollectingVisitorTest {
+
+    @Test
+    public void testCollectsTheSameElementsAsCollectingVisitor() {
+        for (Class<?> service : new Class<?>[] { OrderRepository.class, Service.class }) {
+            APIWalker walker = new APIWalker();
+            CollectingVisitor expected = new CollectingVisitor();
+            walker.setVisitor(expected);
+            walker.visit(service);
+            CompactCollectingVisitor actual = new CompactCollectingVisitor(walker);
+            walker.setVisitor(actual);
+            walker.visit(service);
+            Assert.assertEquals(expected.getVisitedTypes(), actual.getVisitedTypes());
+            Assert.assertEquals(expected.getVisitedServices(), actual.getVisitedServices());
+            Assert.assertEquals(expected.getVisitedMethods(), actual.getVisitedMethods());
+        }
+    }
+
+    @Test
+    public void testIdsAreSharedByVisitors() throws Exception {
+        APIWalker walker = new APIWalker();
+        CompactCollectingVisitor first = new CompactCollectingVisitor(walker);
+        walker.setVisitor(first);
+        walker.visit(OrderRepository.class);
+        int types = walker.getTypeInterner().size();
+        CompactCollectingVisitor second = new CompactCollectingVisitor(walker);
+        walker.setVisitor(second);
+        walker.visit(OrderRepository.class);
+        Assert.assertEquals(types, walker.getTypeInterner().size());
+        Assert.assertEquals(first.getVisitedTypeIds(), second.getVisitedTypeIds());
+        Method find = Repository.class.getMethod("findOne", long.class);
+        Assert.assertTrue(second.getVisitedMethods().contains(find));
+        Assert.assertTrue(walker.getMethodIds().find(find) >= 0);
+        Assert.assertEquals(2, walker.getServiceIds().size());
+    }
+
+    @Test
+    public void testViewsReflectVisiting() {
+        APIWalker walker = new APIWalker();
+        CompactCollectingVisitor visitor = new CompactCollectingVisitor(walker);
+        Assert.assertTrue(visitor.getVisitedTypes().isEmpty());
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        Assert.assertTrue(visitor.getVisitedTypes().contains(Order.class));
+        Assert.assertFalse(visitor.getVisitedTypes().contains("not a type"));
+        int order = walker.getTypeInterner().find(Order.class).getId();
+        Assert.assertTrue(visitor.getVisitedTypeIds().get(order));
+    }
+
+    @Test
+    public void testElementIds() throws Exception {
+        ElementIds<Method> ids = new ElementIds<>();
+        Method[] methods = Object.class.getMethods();
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < methods.length; i++) {
+                Assert.assertEquals(i, ids.id(methods[i]));
+            }
+        }
+        Assert.assertEquals(methods.length, ids.size());
+        Method hashCode = Object.class.getMethod("hashCode");
+        Assert.assertEquals(ids.find(hashCode), ids.id(hashCode));
+        Assert.assertEquals(hashCode, ids.get(ids.find(hashCode)));
+        Assert.assertEquals(-1, ids.find(null));
+        Assert.assertEquals(-1, ids.find(String.class.getMethod("length")));
+        ids.clear();
+        Assert.assertEquals(0, ids.size());
+        Assert.assertEquals(-1, ids.find(hashCode));
+        Assert.assertEquals(0, ids.id(hashCode));
+    }
+
+    @Test
+    public void testElementIdsOfManyElements() {
+        ElementIds<Integer> ids = new ElementIds<>();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, ids.id(i * 1024));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, ids.find(i * 1024));
+            Assert.assertEquals(Integer.valueOf(i * 1024), ids.get(i));
+        }
+        Assert.assertEquals(-1, ids.find(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnknownElementId() {
+        new ElementIds<Method>().get(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreUnmodifiable() {
+        new CompactCollectingVisitor(new APIWalker()).getVisitedServices().add(Order.class);
+    }
+
+}
@@ -0,0 +1,158 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.CompositeVisitor;
+import pl.ais.tools.apivisitor.PruningVisitor;
+import pl.ais.tools.apivisitor.Traversal;
+import pl.ais.tools.apivisitor.WalkMetricsRegistry;
+import pl.ais.tools.apivisitor.test.objects.memoization.A;
+import pl.ais.tools.apivisitor.test.objects.memoization.B;
+import pl.ais.tools.apivisitor.test.objects.memoization.Service;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class CompositeVisitorTest {
+
+    private static final Function<Type, Traversal> SKIP_CHILDREN_OF_SHARED =
+            type -> type == Shared.class ? Traversal.SKIP_CHILDREN : Traversal.CONTINUE;
+
+    private static final List<Consumer<PruningRecorder>> DECISIONS = Arrays.asList(
+            visitor -> visitor.typeDecision = SKIP_CHILDREN_OF_SHARED,
+            visitor -> visitor.typeDecision = type -> type == Shared.class ? Traversal.SKIP_SIBLINGS : Traversal.CONTINUE,
+            visitor -> visitor.typeDecision = type -> type == Shared.class ? Traversal.STOP : Traversal.CONTINUE,
+            visitor -> visitor.methodDecision = Traversal.SKIP_SIBLINGS,
+            visitor -> visitor.methodDecision = Traversal.SKIP_CHILDREN,
+            visitor -> visitor.argumentDecision = Traversal.SKIP_CHILDREN,
+            visitor -> visitor.argumentDecision = Traversal.SKIP_SIBLINGS,
+            visitor -> visitor.propertyDecision = Traversal.SKIP_SIBLINGS);
+
+    @Test
+    public void testEventsAreSentToAllVisitors() {
+        for (Class<?> service : new Class<?>[] { Service.class, pl.ais.tools.apivisitor.test.objects.cycle.Service.class }) {
+            RecordingVisitor alone = new RecordingVisitor();
+            walk(service, false, alone);
+            RecordingVisitor first = new RecordingVisitor();
+            RecordingVisitor second = new RecordingVisitor();
+            walk(service, false, new CompositeVisitor().add(first).add(second));
+            Assert.assertEquals(alone.getEvents(), first.getEvents());
+            Assert.assertEquals(alone.getEvents(), second.getEvents());
+        }
+    }
+
+    @Test
+    public void testPruningVisitorsReceiveTheSameEventsAsWalkingAlone() {
+        for (Consumer<PruningRecorder> decision : DECISIONS) {
+            PruningRecorder alone = new PruningRecorder();
+            decision.accept(alone);
+            walk(Service.class, false, alone);
+            PruningRecorder otherAlone = new PruningRecorder();
+            otherAlone.typeDecision = SKIP_CHILDREN_OF_SHARED;
+            walk(Service.class, false, otherAlone);
+            RecordingVisitor everythingAlone = new RecordingVisitor();
+            walk(Service.class, false, everythingAlone);
+
+            PruningRecorder pruning = new PruningRecorder();
+            decision.accept(pruning);
+            PruningRecorder other = new PruningRecorder();
+            other.typeDecision = SKIP_CHILDREN_OF_SHARED;
+            RecordingVisitor everything = new RecordingVisitor();
+            walk(Service.class, false, new CompositeVisitor().add(everything).add(pruning).add(other));
+            Assert.assertEquals(alone.events, pruning.events);
+            Assert.assertEquals(otherAlone.events, other.events);
+            Assert.assertEquals(everythingAlone.getEvents(), everything.getEvents());
+        }
+    }
+
+    @Test
+    public void testTypesAreMemoizedForTheWholeWalk() {
+        PruningRecorder pruning = new PruningRecorder();
+        pruning.argumentDecision = Traversal.SKIP_CHILDREN;
+        PruningRecorder pruningAlone = new PruningRecorder();
+        pruningAlone.argumentDecision = Traversal.SKIP_CHILDREN;
+        walk(Service.class, true, pruningAlone);
+        RecordingVisitor everything = new RecordingVisitor();
+        RecordingVisitor everythingAlone = new RecordingVisitor();
+        walk(Service.class, true, everythingAlone);
+        walk(Service.class, true, new CompositeVisitor().add(everything).add(pruning));
+        Assert.assertEquals(everythingAlone.getEvents(), everything.getEvents());
+        // argument of the first method was walked for the other visitor, so result of the second one is already visited
+        List<String> results = Arrays.asList("alreadyVisited " + A.class.getName(), "alreadyVisited " + B.class.getName());
+        Assert.assertFalse(pruningAlone.events.stream().anyMatch(results::contains));
+        Assert.assertTrue(pruning.events.stream().anyMatch(results::contains));
+    }
+
+    @Test
+    public void testCompositeDescendsOnlyWhileAnyVisitorIsInterested() {
+        PruningRecorder alone = new PruningRecorder();
+        alone.typeDecision = SKIP_CHILDREN_OF_SHARED;
+        WalkMetricsRegistry aloneMetrics = new WalkMetricsRegistry();
+        walk(Service.class, false, alone, aloneMetrics);
+
+        PruningRecorder first = new PruningRecorder();
+        first.typeDecision = SKIP_CHILDREN_OF_SHARED;
+        PruningRecorder second = new PruningRecorder();
+        second.typeDecision = SKIP_CHILDREN_OF_SHARED;
+        WalkMetricsRegistry compositeMetrics = new WalkMetricsRegistry();
+        walk(Service.class, false, new CompositeVisitor().add(first).add(second), compositeMetrics);
+
+        Assert.assertEquals(0, compositeMetrics.getTypeWalks(String.class));
+        Assert.assertEquals(aloneMetrics.getTotal().getNodes(), compositeMetrics.getTotal().getNodes());
+    }
+
+    @Test
+    public void testStopsWhenAllVisitorsStopped() {
+        PruningRecorder first = new PruningRecorder();
+        first.methodDecision = Traversal.STOP;
+        PruningRecorder second = new PruningRecorder();
+        second.typeDecision = type -> Traversal.STOP;
+        WalkMetricsRegistry metrics = new WalkMetricsRegistry();
+        walk(Service.class, false, new CompositeVisitor().add(first).add(second), metrics);
+        Assert.assertEquals(1, metrics.getTotal().getNodes());
+        Assert.assertEquals("finishService " + Service.class.getName(), first.events.get(first.events.size() - 1));
+        Assert.assertEquals("finishService " + Service.class.getName(), second.events.get(second.events.size() - 1));
+    }
+
+    @Test
+    public void testAsyncVisitors() {
+        RecordingVisitor alone = new RecordingVisitor();
+        walk(Service.class, false, alone);
+        RecordingVisitor first = new RecordingVisitor();
+        RecordingVisitor second = new RecordingVisitor();
+        try (CompositeVisitor visitor = new CompositeVisitor().addAsync(first).addAsync(second)) {
+            walk(Service.class, false, visitor);
+        }
+        Assert.assertEquals(alone.getEvents(), first.getEvents());
+        Assert.assertEquals(alone.getEvents(), second.getEvents());
+    }
+
+    private void walk(Class<?> service, boolean memoized, RecordingVisitor visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(memoized);
+        walker.setVisitor(visitor);
+        walker.visit(service);
+    }
+
+    private void walk(Class<?> service, boolean memoized, PruningVisitor visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(memoized);
+        walker.setVisitor(visitor);
+        walker.visit(service);
+    }
+
+    private void walk(Class<?> service, boolean memoized, PruningVisitor visitor, WalkMetricsRegistry metrics) {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(memoized);
+        walker.setVisitor(visitor);
+        walker.setWalkListener(metrics);
+        walker.visit(service);
+    }
+
+}
@@ -0,0 +1,182 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.AsyncVisitor;
+import pl.ais.tools.apivisitor.BasePruningVisitor;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.CompositeVisitor;
+import pl.ais.tools.apivisitor.ConsumedEvents;
+import pl.ais.tools.apivisitor.EventKind;
+import pl.ais.tools.apivisitor.PruningVisitor;
+import pl.ais.tools.apivisitor.Traversal;
+import pl.ais.tools.apivisitor.Visitor;
+import pl.ais.tools.apivisitor.WalkMetricsRegistry;
+import pl.ais.tools.apivisitor.test.objects.memoization.Service;
+
+public class ConsumedEventsTest {
+
+    @Test
+    public void testTypesAreNotWalkedWhenTheirEventsAreNotConsumed() {
+        MethodCounter visitor = new MethodCounter();
+        WalkMetricsRegistry metrics = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setWalkListener(metrics);
+        walker.visit(Service.class);
+        Assert.assertEquals(2, visitor.methods);
+        Assert.assertEquals(0, metrics.getTotal().getNodes());
+    }
+
+    @Test
+    public void testMethodsAreNotWalkedWhenTheirEventsAreNotConsumed() {
+        AtomicInteger services = new AtomicInteger();
+        AtomicInteger acceptedMethods = new AtomicInteger();
+        APIWalker walker = new APIWalker();
+        walker.setMethodAcceptor(method -> acceptedMethods.incrementAndGet() > 0);
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void beginServiceProcessing(Class<?> clazz) {
+                services.incrementAndGet();
+            }
+
+            @Override
+            public Set<EventKind> consumedEvents() {
+                return EnumSet.of(EventKind.BEGIN_SERVICE_PROCESSING);
+            }
+        });
+        walker.visit(Service.class);
+        Assert.assertEquals(1, services.get());
+        Assert.assertEquals(0, acceptedMethods.get());
+    }
+
+    @Test
+    public void testOnlyDeclaredEventsAreReported() {
+        DeclaringVisitor visitor = new DeclaringVisitor();
+        TypeCounter all = new TypeCounter();
+        walk(visitor);
+        walk(all);
+        Assert.assertEquals(all.begins, visitor.begins);
+        Assert.assertEquals(0, visitor.finishes);
+    }
+
+    @Test
+    public void testPruningVisitorNotConsumingBeginsContinues() {
+        AtomicInteger finishes = new AtomicInteger();
+        TypeCounter all = new TypeCounter();
+        walk(all);
+        walk(new BasePruningVisitor() {
+            @Override
+            public Traversal beginTypeProcessing(Type type) {
+                return Traversal.SKIP_CHILDREN;
+            }
+
+            @Override
+            public void finishTypeProcessing(Type type) {
+                finishes.incrementAndGet();
+            }
+
+            @Override
+            public Set<EventKind> consumedEvents() {
+                return EnumSet.of(EventKind.FINISH_TYPE_PROCESSING);
+            }
+        });
+        Assert.assertEquals(all.finishes, finishes.get());
+    }
+
+    @Test
+    public void testCompositeReportsEventsConsumedByEachVisitor() {
+        MethodCounter methods = new MethodCounter();
+        DeclaringVisitor declaring = new DeclaringVisitor();
+        TypeCounter all = new TypeCounter();
+        walk(all);
+        walk(new CompositeVisitor().add(methods).add(declaring));
+        Assert.assertEquals(2, methods.methods);
+        Assert.assertEquals(all.begins, declaring.begins);
+        Assert.assertEquals(0, declaring.finishes);
+    }
+
+    @Test
+    public void testVisitorWithoutDeclarationConsumesAllEvents() {
+        WalkMetricsRegistry metrics = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void beginMethodProcessing(Method method) {
+            }
+        });
+        walker.setWalkListener(metrics);
+        walker.visit(Service.class);
+        Assert.assertTrue(metrics.getTotal().getNodes() > 0);
+    }
+
+    @Test
+    public void testWrappersDelegateDeclaration() {
+        DeclaringVisitor visitor = new DeclaringVisitor();
+        Assert.assertEquals(EnumSet.of(EventKind.BEGIN_TYPE_PROCESSING), visitor.consumedEvents());
+        TypeCounter all = new TypeCounter();
+        walk(all);
+        try (AsyncVisitor async = new AsyncVisitor(visitor)) {
+            Assert.assertEquals(visitor.consumedEvents(), async.consumedEvents());
+            walk(async);
+        }
+        Assert.assertEquals(all.begins, visitor.begins);
+        Assert.assertEquals(0, visitor.finishes);
+        Assert.assertEquals(EnumSet.of(EventKind.BEGIN_TYPE_PROCESSING, EventKind.BEGIN_METHOD_PROCESSING),
+                new CompositeVisitor().add(new DeclaringVisitor()).add(new MethodCounter()).consumedEvents());
+    }
+
+    private void walk(Visitor visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(Service.class);
+    }
+
+    private void walk(PruningVisitor visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(Service.class);
+    }
+
+    @ConsumedEvents(EventKind.BEGIN_METHOD_PROCESSING)
+    private static class MethodCounter extends BaseVisitor {
+
+        private int methods;
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            methods++;
+        }
+
+    }
+
+    private static class TypeCounter extends BaseVisitor {
+
+        int begins;
+        int finishes;
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            begins++;
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            finishes++;
+        }
+
+    }
+
+    @ConsumedEvents(EventKind.BEGIN_TYPE_PROCESSING)
+    private static class DeclaringVisitor extends TypeCounter {
+    }
+
+}
@@ -1,6 +1,8 @@
 package pl.ais.tools.apivisitor.test;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -9,6 +11,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
 import pl.ais.tools.apivisitor.CollectingVisitor;
 import pl.ais.tools.apivisitor.test.objects.cycle.A;
 import pl.ais.tools.apivisitor.test.objects.cycle.B;
@@ -52,6 +55,27 @@ public class CycleDetectionTest {
         Assert.assertTrue(visitedTypes.contains(A.class));
     }
 
+    @Test
+    public void testCyclePath() {
+        final List<List<Type>> paths = new ArrayList<>();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void dependencyCycleDetected(List<Type> path) {
+                paths.add(new ArrayList<>(path));
+                try {
+                    path.add(A.class);
+                    Assert.fail("path must not be modifiable");
+                } catch (UnsupportedOperationException e) {
+                    // expected
+                }
+            }
+        });
+        walker.visitTypes(A.class);
+        Assert.assertEquals(1, paths.size());
+        Assert.assertEquals(Arrays.asList(A.class, B.class), paths.get(0));
+    }
+
     private class CycleDetecionVisitor extends CollectingVisitor {
 
         @Override
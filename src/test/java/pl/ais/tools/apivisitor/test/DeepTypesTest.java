@@ -0,0 +1,192 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.BaseVisitor;
+
+public class DeepTypesTest {
+
+    private static final int DEPTH = 100000;
+
+    private static final int CHAIN_LENGTH = 5000;
+
+    @Test
+    public void testDeeplyNestedTypesDoNotOverflowStack() throws Exception {
+        Type type = String.class;
+        for (int i = 0; i < DEPTH; i++) {
+            type = new Wildcard(type);
+        }
+        DepthVisitor visitor = new DepthVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        Type root = type;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                walker.visitTypes(root);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(DEPTH + 1, visitor.types);
+        Assert.assertEquals(DEPTH + 1, visitor.maxDepth);
+        Assert.assertEquals(0, visitor.depth);
+    }
+
+    @Test
+    public void testReplayOfDeepChainOfClassesDoesNotOverflowStack() throws Exception {
+        Class<?> service = new ChainClassLoader().loadClass(ChainClassLoader.SERVICE);
+        ApiModel model = ApiModel.build(new APIWalker(), service);
+        DepthVisitor visitor = new DepthVisitor();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                model.accept(visitor);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        }, "small-stack", 128 * 1024);
+        thread.start();
+        thread.join();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(CHAIN_LENGTH, visitor.types);
+        Assert.assertEquals(CHAIN_LENGTH, visitor.maxDepth);
+        Assert.assertEquals(0, visitor.depth);
+    }
+
+    private static class DepthVisitor extends BaseVisitor {
+
+        private int types;
+        private int depth;
+        private int maxDepth;
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            types++;
+            maxDepth = Math.max(maxDepth, ++depth);
+        }
+
+        @Override
+        public void finishTypeProcessing(Type type) {
+            depth--;
+        }
+
+    }
+
+    /**
+     * Wildcard with a single upper bound, equal only to itself.
+     */
+    private static class Wildcard implements WildcardType {
+
+        private final Type bound;
+
+        Wildcard(Type bound) {
+            this.bound = bound;
+        }
+
+        @Override
+        public Type[] getUpperBounds() {
+            return new Type[] { bound };
+        }
+
+        @Override
+        public Type[] getLowerBounds() {
+            return new Type[0];
+        }
+
+    }
+
+    /**
+     * Defines a service interface (<code>deep.Service</code>) with a method returning the first class
+     * of a chain of classes, each one with a field of the next class (<code>deep.C0</code>,
+     * <code>deep.C1</code>...).
+     */
+    private static class ChainClassLoader extends ClassLoader {
+
+        private static final String SERVICE = "deep.Service";
+
+        ChainClassLoader() {
+            super(DeepTypesTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile;
+            try {
+                if (name.equals(SERVICE)) {
+                    classFile = classFile(name, 0x0601, null, "get", "()Ldeep/C0;");
+                } else if (name.startsWith("deep.C")) {
+                    int index = Integer.parseInt(name.substring("deep.C".length()));
+                    classFile = classFile(name, 0x0021, index + 1 < CHAIN_LENGTH
+                            ? "Ldeep/C" + (index + 1) + ";" : null, null, null);
+                } else {
+                    throw new ClassNotFoundException(name);
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+
+        /**
+         * @return class file of class with an optional public field <code>next</code>
+         *         and an optional public abstract method.
+         */
+        private static byte[] classFile(String name, int access, String fieldDescriptor, String methodName,
+                String methodDescriptor) throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(result);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            out.writeShort(7);
+            out.writeByte(1);
+            out.writeUTF(name.replace('.', '/'));
+            out.writeByte(7);
+            out.writeShort(1);
+            out.writeByte(1);
+            out.writeUTF("java/lang/Object");
+            out.writeByte(7);
+            out.writeShort(3);
+            out.writeByte(1);
+            out.writeUTF(methodName != null ? methodName : "next");
+            out.writeByte(1);
+            out.writeUTF(methodDescriptor != null ? methodDescriptor : fieldDescriptor != null ? fieldDescriptor : "I");
+            out.writeShort(access);
+            out.writeShort(2);
+            out.writeShort(4);
+            out.writeShort(0);
+            writeMember(out, fieldDescriptor != null ? 0x0001 : -1);
+            writeMember(out, methodName != null ? 0x0401 : -1);
+            out.writeShort(0);
+            return result.toByteArray();
+        }
+
+        private static void writeMember(DataOutputStream out, int access) throws IOException {
+            if (access < 0) {
+                out.writeShort(0);
+            } else {
+                out.writeShort(1);
+                out.writeShort(access);
+                out.writeShort(5);
+                out.writeShort(6);
+                out.writeShort(0);
+            }
+        }
+
+    }
+
+}
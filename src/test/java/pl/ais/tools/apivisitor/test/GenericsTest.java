@@ -0,0 +1,128 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.ApiModel.TypeKind;
+import pl.ais.tools.apivisitor.ApiModel.TypeNode;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.test.objects.generics.Entity;
+import pl.ais.tools.apivisitor.test.objects.generics.Order;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.generics.Page;
+import pl.ais.tools.apivisitor.test.objects.generics.Repository;
+
+public class GenericsTest {
+
+    private static final String PAGE = Page.class.getName();
+
+    private static final String ORDER = Order.class.getName();
+
+    private static final String ENTITY = Entity.class.getName();
+
+    @Test
+    public void testTypeVariablesOfServiceAreResolved() throws Exception {
+        Method find = Repository.class.getMethod("find", Page.class);
+        Method saveAll = Repository.class.getMethod("saveAll", List.class);
+        List<String> events = walk(new APIWalker());
+        Assert.assertTrue(events.contains("beginResultProcessing " + find + " " + PAGE + "<" + ORDER + ">"));
+        Assert.assertTrue(events.contains("beginArgumentProcessing " + find + " 0 " + PAGE + "<" + ORDER + ">"));
+        Assert.assertTrue(events.contains("beginArgumentProcessing " + saveAll + " 0 java.util.List<? extends " + ORDER + ">"));
+    }
+
+    @Test
+    public void testGenericTypesAreSupported() {
+        final List<Type> unsupported = new ArrayList<>();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new BaseVisitor() {
+
+            @Override
+            public void unsupportedType(List<Type> path, Type type) {
+                unsupported.add(type);
+            }
+
+        });
+        walker.visit(OrderRepository.class);
+        Assert.assertTrue(unsupported.toString(), unsupported.isEmpty());
+    }
+
+    @Test
+    public void testPropertiesAreResolvedAgainstOwner() {
+        List<String> events = walk(new APIWalker());
+        int order = events.indexOf("beginTypeProcessing " + PAGE + "<" + ORDER + ">");
+        Assert.assertEquals("beginTypeProcessing " + PAGE, events.get(order + 1));
+        Assert.assertEquals("beginPropertyProcessing first " + ORDER, events.get(order + 2));
+        Assert.assertTrue(events.contains("beginPropertyProcessing content " + ORDER + "[]"));
+        int entity = events.indexOf("beginTypeProcessing " + PAGE + "<" + ENTITY + ">");
+        Assert.assertEquals("beginPropertyProcessing first " + ENTITY, events.get(entity + 2));
+    }
+
+    @Test
+    public void testUnresolvedVariablesAndWildcardsAreWalkedThroughBounds() {
+        List<String> events = walk(new APIWalker());
+        int variable = events.indexOf("beginTypeProcessing E");
+        Assert.assertEquals("beginTypeProcessing " + ENTITY, events.get(variable + 1));
+        int wildcard = events.indexOf("beginTypeProcessing ? extends " + ORDER);
+        Assert.assertEquals("beginTypeProcessing " + ORDER, events.get(wildcard + 1));
+    }
+
+    @Test
+    public void testRawServiceIsWalkedThroughBounds() throws Exception {
+        Method find = Repository.class.getMethod("find", Page.class);
+        RecordingVisitor visitor = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(Repository.class);
+        List<String> events = visitor.getEvents();
+        Assert.assertTrue(events.contains("beginResultProcessing " + find + " " + PAGE + "<T>"));
+        int variable = events.indexOf("beginTypeProcessing T");
+        Assert.assertEquals("beginTypeProcessing " + ENTITY, events.get(variable + 1));
+    }
+
+    @Test
+    public void testModelKeepsNodePerParametrization() throws Exception {
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(true);
+        List<String> walked = walk(walker);
+        ApiModel model = ApiModel.build(walker, OrderRepository.class);
+        RecordingVisitor replayed = new RecordingVisitor();
+        model.accept(replayed);
+        Assert.assertEquals(walked, replayed.getEvents());
+        TypeVariable<?> variable = Repository.class.getMethod("findOne", long.class).getTypeParameters()[0];
+        Assert.assertEquals(TypeKind.TYPE_VARIABLE, model.getType(variable).getKind());
+        int pages = 0;
+        for (TypeNode node : model.getTypes()) {
+            if (node.getType() == Page.class) {
+                pages++;
+            }
+        }
+        Assert.assertEquals("Page<Order> and Page<Entity>", 2, pages);
+        Path file = Files.createTempFile("generics", ".model");
+        try {
+            model.write(file);
+            RecordingVisitor read = new RecordingVisitor();
+            ApiModel.read(file, getClass().getClassLoader()).accept(read);
+            Assert.assertEquals(walked, read.getEvents());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<String> walk(APIWalker walker) {
+        RecordingVisitor visitor = new RecordingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        return visitor.getEvents();
+    }
+
+}
@@ -0,0 +1,157 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BasePruningVisitor;
+import pl.ais.tools.apivisitor.IncrementalAPIWalker;
+import pl.ais.tools.apivisitor.Traversal;
+import pl.ais.tools.apivisitor.test.objects.model.Item;
+import pl.ais.tools.apivisitor.test.objects.model.OrderService;
+
+public class IncrementalAPIWalkerTest {
+
+    private static final Class<?>[] SERVICES = {
+            OrderService.class,
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path stateDirectory;
+
+    private String changedClass;
+
+    @Before
+    public void createStateDirectory() throws IOException {
+        stateDirectory = folder.newFolder().toPath();
+    }
+
+    @Test
+    public void testUnchangedServicesAreReused() {
+        RecordingVisitor expected = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(expected);
+        walker.visit(SERVICES);
+
+        RecordingVisitor first = new RecordingVisitor();
+        IncrementalAPIWalker incremental = createWalker(first);
+        incremental.visit(SERVICES);
+        Assert.assertEquals(Arrays.asList(SERVICES), incremental.getWalkedServices());
+        Assert.assertEquals(expected.getEvents(), first.getEvents());
+
+        RecordingVisitor second = new RecordingVisitor();
+        incremental = createWalker(second);
+        incremental.visit(SERVICES);
+        Assert.assertEquals(Collections.emptyList(), incremental.getWalkedServices());
+        Assert.assertEquals(Arrays.asList(SERVICES), incremental.getReusedServices());
+        Assert.assertEquals(expected.getEvents(), second.getEvents());
+    }
+
+    @Test
+    public void testOnlyAffectedServicesAreWalked() {
+        createWalker(new RecordingVisitor()).visit(SERVICES);
+
+        changedClass = Item.class.getName();
+        RecordingVisitor visitor = new RecordingVisitor();
+        IncrementalAPIWalker incremental = createWalker(visitor);
+        incremental.visit(SERVICES);
+        Assert.assertEquals(Collections.singletonList(OrderService.class), incremental.getWalkedServices());
+        Assert.assertEquals(Collections.singletonList(SERVICES[1]), incremental.getReusedServices());
+    }
+
+    @Test
+    public void testStopEndsVisit() {
+        List<Class<?>> expected = new ArrayList<>();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new StoppingVisitor(expected));
+        walker.visit(SERVICES);
+        Assert.assertEquals(Collections.singletonList(SERVICES[0]), expected);
+
+        for (int i = 0; i < 2; i++) {
+            // walked and then replayed
+            List<Class<?>> services = new ArrayList<>();
+            IncrementalAPIWalker incremental = new IncrementalAPIWalker(stateDirectory);
+            incremental.setVisitor(new StoppingVisitor(services));
+            incremental.visit(SERVICES);
+            Assert.assertEquals(expected, services);
+            Assert.assertEquals(Collections.singletonList(SERVICES[0]), i == 0
+                    ? incremental.getWalkedServices() : incremental.getReusedServices());
+        }
+    }
+
+    @Test
+    public void testChangedConfigurationWalksServicesAgain() {
+        createWalker(new RecordingVisitor()).visit(SERVICES);
+
+        RecordingVisitor expected = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.addPrimitiveTypes(Item.class);
+        walker.setVisitor(expected);
+        walker.visit(SERVICES);
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        IncrementalAPIWalker incremental = createWalker(visitor);
+        incremental.addPrimitiveTypes(Item.class);
+        incremental.visit(SERVICES);
+        Assert.assertEquals(Arrays.asList(SERVICES), incremental.getWalkedServices());
+        Assert.assertEquals(expected.getEvents(), visitor.getEvents());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLimitsAreRejected() {
+        IncrementalAPIWalker incremental = createWalker(new RecordingVisitor());
+        incremental.setMaxDepth(3);
+        incremental.visit(SERVICES);
+    }
+
+    private IncrementalAPIWalker createWalker(RecordingVisitor visitor) {
+        IncrementalAPIWalker walker = new IncrementalAPIWalker(stateDirectory) {
+
+            @Override
+            protected String fingerprint(String className, ClassLoader classLoader) throws IOException {
+                String fingerprint = super.fingerprint(className, classLoader);
+                return className.equals(changedClass) ? "changed" + fingerprint : fingerprint;
+            }
+
+        };
+        walker.setVisitor(visitor);
+        return walker;
+    }
+
+    /**
+     * Records begun services and stops walking at the first method.
+     */
+    private static class StoppingVisitor extends BasePruningVisitor {
+
+        private final List<Class<?>> services;
+
+        StoppingVisitor(List<Class<?>> services) {
+            this.services = services;
+        }
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            services.add(clazz);
+        }
+
+        @Override
+        public Traversal beginMethodProcessing(Method method) {
+            return Traversal.STOP;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.Limit;
+import pl.ais.tools.apivisitor.test.objects.memoization.A;
+import pl.ais.tools.apivisitor.test.objects.memoization.Service;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class LimitsTest {
+
+    @Test
+    public void testMaxDepth() {
+        RecordingVisitor visitor = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMaxDepth(2);
+        walker.visit(Service.class);
+        List<String> events = visitor.getEvents();
+        // String is a property of Shared, which is a property of results and arguments
+        Assert.assertEquals(4, count(events, "limitReached"));
+        Assert.assertTrue(events.contains("limitReached " + Arrays.asList(A.class, Shared.class, String.class)
+                + " " + Limit.MAX_DEPTH));
+        Assert.assertFalse(events.contains("beginTypeProcessing java.lang.String"));
+        Assert.assertEquals(4, Collections.frequency(events, "beginTypeProcessing " + Shared.class.getName()));
+    }
+
+    @Test
+    public void testMaxNodes() {
+        RecordingVisitor visitor = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMaxNodes(2);
+        walker.visit(Service.class, Service.class);
+        List<String> events = visitor.getEvents();
+        // budget is per service
+        Assert.assertEquals(2, count(events, "limitReached"));
+        Assert.assertEquals(4, count(events, "beginTypeProcessing"));
+        assertBalanced(events);
+    }
+
+    @Test
+    public void testTimeBudget() {
+        RecordingVisitor visitor = new RecordingVisitor() {
+
+            @Override
+            public void beginServiceProcessing(Class<?> clazz) {
+                super.beginServiceProcessing(clazz);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+        };
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setTimeBudget(5, TimeUnit.MILLISECONDS);
+        walker.visit(Service.class);
+        List<String> events = visitor.getEvents();
+        Assert.assertEquals(1, count(events, "limitReached"));
+        Assert.assertTrue(events.get(events.size() - 4).endsWith(" " + Limit.TIME_BUDGET));
+        Assert.assertEquals(0, count(events, "beginTypeProcessing"));
+        assertBalanced(events);
+    }
+
+    @Test
+    public void testTypesCutOffByLimitsAreNotMemoized() {
+        RecordingVisitor visitor = new RecordingVisitor();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMemoizeTypes(true);
+        walker.setMaxDepth(2);
+        walker.visit(Service.class);
+        List<String> events = visitor.getEvents();
+        // String is beyond the limit, so no subtree containing it is complete
+        Assert.assertEquals(4, count(events, "limitReached"));
+        Assert.assertEquals(4, Collections.frequency(events, "beginTypeProcessing " + Shared.class.getName()));
+        Assert.assertEquals(0, count(events, "typeAlreadyVisited"));
+
+        visitor.getEvents().clear();
+        walker.setMaxDepth(0);
+        walker.setMaxNodes(2);
+        walker.visit(Service.class, Service.class);
+        Assert.assertEquals(2, count(events, "limitReached"));
+        Assert.assertEquals(2, Collections.frequency(events, "beginTypeProcessing " + A.class.getName()));
+        Assert.assertEquals(0, count(events, "typeAlreadyVisited"));
+    }
+
+    private static void assertBalanced(List<String> events) {
+        Assert.assertEquals(count(events, "begin"), count(events, "finish"));
+    }
+
+    private static int count(List<String> events, String prefix) {
+        int result = 0;
+        for (String event : events) {
+            if (event.startsWith(prefix)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,97 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.test.objects.memoization.A;
+import pl.ais.tools.apivisitor.test.objects.memoization.B;
+import pl.ais.tools.apivisitor.test.objects.memoization.Service;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class MemoizationTest {
+
+    private CountingVisitor visitor;
+
+    @Before
+    public void createVisitor() {
+        visitor = new CountingVisitor();
+    }
+
+    @Test
+    public void testTypesAreWalkedEachTimeByDefault() {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(Service.class);
+        Assert.assertEquals(4, visitor.begins.get(Shared.class).intValue());
+        Assert.assertEquals(4, visitor.begins.get(String.class).intValue());
+        Assert.assertTrue(visitor.alreadyVisited.isEmpty());
+    }
+
+    @Test
+    public void testTypesAreWalkedOnceWhenMemoized() {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMemoizeTypes(true);
+        walker.visit(Service.class);
+        Assert.assertEquals(1, visitor.begins.get(A.class).intValue());
+        Assert.assertEquals(1, visitor.begins.get(B.class).intValue());
+        Assert.assertEquals(1, visitor.begins.get(Shared.class).intValue());
+        Assert.assertEquals(1, visitor.begins.get(String.class).intValue());
+        Assert.assertEquals(1, visitor.alreadyVisited.get(Shared.class).intValue());
+        Assert.assertEquals(1, visitor.alreadyVisited.get(A.class).intValue());
+        Assert.assertEquals(1, visitor.alreadyVisited.get(B.class).intValue());
+    }
+
+    @Test
+    public void testMemoizationIsResetForEachVisit() {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMemoizeTypes(true);
+        walker.visitTypes(Shared.class);
+        walker.visitTypes(Shared.class);
+        Assert.assertEquals(2, visitor.begins.get(Shared.class).intValue());
+        Assert.assertTrue(visitor.alreadyVisited.isEmpty());
+    }
+
+    @Test
+    public void testCycleDetectionWhenMemoized() {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.setMemoizeTypes(true);
+        walker.visit(pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        // cycle is reported while walking A for the first time, B is not walked again
+        Assert.assertEquals(1, visitor.cycles);
+        Assert.assertEquals(1, visitor.alreadyVisited.get(pl.ais.tools.apivisitor.test.objects.cycle.B.class).intValue());
+    }
+
+    private static class CountingVisitor extends BaseVisitor {
+
+        private final Map<Type, Integer> begins = new HashMap<>();
+        private final Map<Type, Integer> alreadyVisited = new HashMap<>();
+        private int cycles;
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            begins.merge(type, 1, Integer::sum);
+        }
+
+        @Override
+        public void typeAlreadyVisited(Type type) {
+            alreadyVisited.merge(type, 1, Integer::sum);
+        }
+
+        @Override
+        public void dependencyCycleDetected(List<Type> path) {
+            cycles++;
+        }
+
+    }
+}
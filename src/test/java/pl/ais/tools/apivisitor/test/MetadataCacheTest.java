@@ -0,0 +1,118 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.TypeMetadataCache;
+import pl.ais.tools.apivisitor.test.objects.generics.Order;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.smoke.Service;
+
+public class MetadataCacheTest {
+
+    @Test
+    public void testDefaultCacheIsShared() {
+        Assert.assertSame(TypeMetadataCache.getDefault(), TypeMetadataCache.getDefault());
+    }
+
+    @Test
+    public void testCacheSharedByWalkers() {
+        TypeMetadataCache cache = new TypeMetadataCache();
+        CollectingVisitor first = walk(cache);
+        CollectingVisitor second = walk(cache);
+        Assert.assertEquals(first.getVisitedTypes(), second.getVisitedTypes());
+        Assert.assertEquals(first.getVisitedMethods(), second.getVisitedMethods());
+        Assert.assertEquals(walk(TypeMetadataCache.getDefault()).getVisitedTypes(), first.getVisitedTypes());
+    }
+
+    @Test
+    public void testInvalidatedClassIsReadAgain() {
+        TypeMetadataCache cache = new TypeMetadataCache();
+        CollectingVisitor first = walk(cache);
+        cache.invalidate(Service.class);
+        CollectingVisitor second = walk(cache);
+        Assert.assertEquals(first.getVisitedMethods(), second.getVisitedMethods());
+    }
+
+    @Test
+    public void testOwnerTypesDoNotRetainClassLoaders() throws Exception {
+        // Repository and Page are loaded by parent class loader and resolved against
+        // parametrizations with Order loaded by child class loader
+        WeakReference<ClassLoader> loader = walkInChildLoader();
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(loader.get());
+    }
+
+    private WeakReference<ClassLoader> walkInChildLoader() throws Exception {
+        ChildLoader loader = new ChildLoader(Order.class, OrderRepository.class);
+        Class<?> service = loader.loadClass(OrderRepository.class.getName());
+        Assert.assertNotSame(OrderRepository.class, service);
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(service);
+        Assert.assertTrue(visitor.getVisitedTypes().contains(loader.loadClass(Order.class.getName())));
+        return new WeakReference<>(loader);
+    }
+
+    private CollectingVisitor walk(TypeMetadataCache cache) {
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor();
+        walker.setVisitor(visitor);
+        walker.setMetadataCache(cache);
+        walker.visit(Service.class);
+        return visitor;
+    }
+
+    /**
+     * Loads given classes itself, other classes are loaded by parent.
+     */
+    private static class ChildLoader extends ClassLoader {
+
+        private final Class<?>[] classes;
+
+        ChildLoader(Class<?>... classes) {
+            super(MetadataCacheTest.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                for (Class<?> type : classes) {
+                    if (type.getName().equals(name)) {
+                        Class<?> result = findLoadedClass(name);
+                        return result != null ? result : define(type);
+                    }
+                }
+                return super.loadClass(name, resolve);
+            }
+        }
+
+        private Class<?> define(Class<?> type) throws ClassNotFoundException {
+            String resource = type.getName().replace('.', '/') + ".class";
+            try (InputStream input = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                    bytes.write(buffer, 0, read);
+                }
+                return defineClass(type.getName(), bytes.toByteArray(), 0, bytes.size());
+            } catch (IOException e) {
+                throw new ClassNotFoundException(type.getName(), e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.MethodFilter;
+import pl.ais.tools.apivisitor.TypeMetadataCache;
+import pl.ais.tools.apivisitor.WalkMetricsRegistry;
+import pl.ais.tools.apivisitor.test.objects.filter.BaseService;
+import pl.ais.tools.apivisitor.test.objects.filter.Operation;
+import pl.ais.tools.apivisitor.test.objects.filter.OrderService;
+
+public class MethodFilterTest {
+
+    @Test
+    public void testAllMethodsAreWalkedByDefault() {
+        List<Method> methods = walk(APIWalker.DEFAULT_METHOD_ACCEPTOR);
+        Assert.assertTrue(methods.stream().anyMatch(Method::isBridge));
+        Assert.assertTrue(methods.stream().anyMatch(method -> method.getName().startsWith("lambda$")));
+        Assert.assertEquals(methods.size(), walk(MethodFilter.ALL).size());
+    }
+
+    @Test
+    public void testPublicApi() {
+        List<Method> methods = walk(MethodFilter.PUBLIC_API);
+        Assert.assertEquals(Arrays.asList("cancel", "find", "save", "task", "count", "find", "save"), names(methods));
+        Assert.assertTrue(methods.stream().noneMatch(Method::isSynthetic));
+    }
+
+    @Test
+    public void testUniqueSignatures() {
+        List<Method> methods = walk(MethodFilter.PUBLIC_API.uniqueSignatures());
+        Assert.assertEquals(Arrays.asList("cancel", "find", "save", "task", "count"), names(methods));
+        Assert.assertEquals(BaseService.class, methods.get(4).getDeclaringClass());
+    }
+
+    @Test
+    public void testAnnotationsAndNames() {
+        Assert.assertEquals(Arrays.asList("cancel", "save"), names(walk(MethodFilter.PUBLIC_API.annotatedWith(Operation.class))));
+        Assert.assertEquals(Arrays.asList("save"),
+                names(walk(MethodFilter.PUBLIC_API.annotatedWith(Operation.class).nameMatches("s.*"))));
+        Assert.assertEquals(Arrays.asList("find", "find"), names(walk(MethodFilter.PUBLIC_API.nameMatches("f.*"))));
+    }
+
+    @Test
+    public void testAcceptedMethodsAreComputedOncePerClass() {
+        AtomicInteger tests = new AtomicInteger();
+        MethodFilter filter = MethodFilter.PUBLIC_API.and(method -> tests.incrementAndGet() > 0);
+        APIWalker walker = new APIWalker();
+        walker.setMetadataCache(new TypeMetadataCache());
+        walker.setMethodAcceptor(filter);
+        walker.setVisitor(new MethodRecorder());
+        walker.visit(OrderService.class);
+        int tested = tests.get();
+        walker.visit(OrderService.class, OrderService.class);
+        Assert.assertEquals(7, tested);
+        Assert.assertEquals(tested, tests.get());
+    }
+
+    @Test
+    public void testAcceptedMethodsAreKeptForManyFilters() {
+        TypeMetadataCache cache = new TypeMetadataCache();
+        AtomicInteger publicTests = new AtomicInteger();
+        AtomicInteger allTests = new AtomicInteger();
+        List<APIWalker> walkers = Arrays.asList(
+                filteringWalker(cache, MethodFilter.PUBLIC_API.and(method -> publicTests.incrementAndGet() > 0)),
+                filteringWalker(cache, MethodFilter.ALL.and(method -> allTests.incrementAndGet() > 0)));
+        for (APIWalker walker : walkers) {
+            walker.visit(OrderService.class);
+        }
+        int publicTested = publicTests.get();
+        int allTested = allTests.get();
+        for (APIWalker walker : walkers) {
+            walker.visit(OrderService.class);
+        }
+        Assert.assertEquals(publicTested, publicTests.get());
+        Assert.assertEquals(allTested, allTests.get());
+    }
+
+    @Test
+    public void testMetricsOfFilteredMethods() {
+        WalkMetricsRegistry registry = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setMetadataCache(new TypeMetadataCache());
+        walker.setMethodAcceptor(MethodFilter.PUBLIC_API);
+        walker.setVisitor(new MethodRecorder());
+        walker.setWalkListener(registry);
+        walker.visit(OrderService.class);
+        Assert.assertTrue(registry.getMetrics(OrderService.class).getMetadataMisses() > 0);
+        walker.visit(OrderService.class);
+        Assert.assertEquals(0, registry.getMetrics(OrderService.class).getMetadataMisses());
+        Assert.assertEquals(0, registry.getMetrics(OrderService.class).getReflectionCalls());
+    }
+
+    private APIWalker filteringWalker(TypeMetadataCache cache, MethodFilter filter) {
+        APIWalker walker = new APIWalker();
+        walker.setMetadataCache(cache);
+        walker.setMethodAcceptor(filter);
+        walker.setVisitor(new MethodRecorder());
+        return walker;
+    }
+
+    private List<Method> walk(Predicate<Method> acceptor) {
+        MethodRecorder visitor = new MethodRecorder();
+        APIWalker walker = new APIWalker();
+        walker.setMethodAcceptor(acceptor);
+        walker.setVisitor(visitor);
+        walker.visit(OrderService.class);
+        return visitor.methods;
+    }
+
+    private static List<String> names(List<Method> methods) {
+        List<String> result = new ArrayList<>();
+        for (Method method : methods) {
+            result.add(method.getName());
+        }
+        return result;
+    }
+
+    private static class MethodRecorder extends BaseVisitor {
+
+        private final List<Method> methods = new ArrayList<>();
+
+        @Override
+        public void beginMethodProcessing(Method method) {
+            methods.add(method);
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BasePruningVisitor;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.ParallelAPIWalker;
+import pl.ais.tools.apivisitor.Traversal;
+
+public class ParallelAPIWalkerTest {
+
+    private static final Class<?>[] SERVICES = {
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class,
+            pl.ais.tools.apivisitor.test.objects.memoization.Service.class,
+            pl.ais.tools.apivisitor.test.objects.cycle.Service.class,
+            pl.ais.tools.apivisitor.test.objects.primitives.Service.class };
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testVisitorPerService() {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        List<CollectingVisitor> visitors = walker.visitAll(clazz -> new CollectingVisitor(), SERVICES);
+        Assert.assertEquals(SERVICES.length, visitors.size());
+        for (int i = 0; i < SERVICES.length; i++) {
+            CollectingVisitor expected = new CollectingVisitor();
+            APIWalker sequential = new APIWalker();
+            sequential.setVisitor(expected);
+            sequential.visit(SERVICES[i]);
+            Assert.assertEquals(expected.getVisitedServices(), visitors.get(i).getVisitedServices());
+            Assert.assertEquals(expected.getVisitedMethods(), visitors.get(i).getVisitedMethods());
+            Assert.assertEquals(expected.getVisitedTypes(), visitors.get(i).getVisitedTypes());
+        }
+    }
+
+    @Test
+    public void testSharedVisitor() {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        CountingVisitor visitor = new CountingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(SERVICES);
+        Assert.assertEquals(SERVICES.length, visitor.services.get());
+    }
+
+    @Test
+    public void testConfigurationIsShared() {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        walker.addTerminatingTypes(pl.ais.tools.apivisitor.test.objects.cycle.A.class);
+        List<CollectingVisitor> visitors = walker.visitAll(clazz -> new CollectingVisitor(),
+                pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        Assert.assertEquals(1, visitors.get(0).getVisitedTypes().size());
+    }
+
+    @Test
+    public void testConfigurationIsTakenOncePerVisit() {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        List<CollectingVisitor> visitors = walker.visitAll(clazz -> {
+            // visiting already started, so workers do not see it
+            walker.addTerminatingTypes(pl.ais.tools.apivisitor.test.objects.cycle.A.class);
+            return new CollectingVisitor();
+        }, pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        Assert.assertTrue(visitors.get(0).getVisitedTypes().size() > 1);
+        visitors = walker.visitAll(clazz -> new CollectingVisitor(),
+                pl.ais.tools.apivisitor.test.objects.cycle.Service.class);
+        Assert.assertEquals(1, visitors.get(0).getVisitedTypes().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWorkerFailureIsRethrown() {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        walker.setVisitor(new BaseVisitor() {
+            @Override
+            public void dependencyCycleDetected(List<Type> path) {
+                throw new IllegalArgumentException("cycle");
+            }
+        });
+        walker.visit(SERVICES);
+    }
+
+    @Test(timeout = 10000)
+    public void testStopSkipsServicesNotStarted() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            ParallelAPIWalker walker = new ParallelAPIWalker(single);
+            StoppingVisitor visitor = new StoppingVisitor(new CountDownLatch(0), 0);
+            walker.setVisitor(visitor);
+            walker.visit(SERVICES);
+            int events = visitor.events.get();
+            single.shutdown();
+            Assert.assertTrue(single.awaitTermination(5, TimeUnit.SECONDS));
+            Assert.assertEquals(Arrays.asList(SERVICES[0]), visitor.begun);
+            Assert.assertEquals(Arrays.asList(SERVICES[0]), visitor.finished);
+            Assert.assertEquals(events, visitor.events.get());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testStopWaitsForStartedWorkers() throws InterruptedException {
+        ParallelAPIWalker walker = new ParallelAPIWalker(executor);
+        CountDownLatch returned = new CountDownLatch(1);
+        // the other two threads of executor walk service classes, when the first one stops
+        StoppingVisitor visitor = new StoppingVisitor(returned, 2);
+        walker.setVisitor(visitor);
+        walker.visit(SERVICES);
+        int events = visitor.events.get();
+        List<Class<?>> begun = new ArrayList<>(visitor.begun);
+        List<Class<?>> finished = new ArrayList<>(visitor.finished);
+        returned.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue(begun.contains(SERVICES[0]));
+        Assert.assertEquals(begun.size(), finished.size());
+        Assert.assertEquals(events, visitor.events.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNPEWhenVisitorIsNotProvided() {
+        new ParallelAPIWalker(executor).visit(SERVICES);
+    }
+
+    /**
+     * Stops walking at the first method. If visiting method returns too early, events reported
+     * after it returns are counted: the first service class stops once the other started service
+     * classes (<code>started</code>) have begun, and they wait (for a while) until visiting method returns.
+     */
+    private static class StoppingVisitor extends BasePruningVisitor {
+
+        private final CountDownLatch returned;
+
+        private final CountDownLatch started;
+
+        private final AtomicInteger events = new AtomicInteger();
+
+        private final List<Class<?>> begun = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Class<?>> finished = Collections.synchronizedList(new ArrayList<>());
+
+        StoppingVisitor(CountDownLatch returned, int started) {
+            this.returned = returned;
+            this.started = new CountDownLatch(started);
+        }
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            events.incrementAndGet();
+            begun.add(clazz);
+            if (clazz != SERVICES[0]) {
+                started.countDown();
+                await(returned);
+            }
+        }
+
+        @Override
+        public void finishServiceProcessing(Class<?> clazz) {
+            events.incrementAndGet();
+            finished.add(clazz);
+        }
+
+        @Override
+        public Traversal beginMethodProcessing(Method method) {
+            events.incrementAndGet();
+            if (method.getDeclaringClass() == SERVICES[0]) {
+                await(started);
+            }
+            return Traversal.STOP;
+        }
+
+        @Override
+        public void finishMethodProcessing(Method method) {
+            events.incrementAndGet();
+        }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                latch.await(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+    private static class CountingVisitor extends BaseVisitor {
+
+        private final AtomicInteger services = new AtomicInteger();
+
+        @Override
+        public void beginServiceProcessing(Class<?> clazz) {
+            services.incrementAndGet();
+        }
+
+    }
+}
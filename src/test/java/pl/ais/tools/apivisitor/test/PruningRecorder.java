@@ -0,0 +1,87 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import pl.ais.tools.apivisitor.BasePruningVisitor;
+import pl.ais.tools.apivisitor.Traversal;
+
+/**
+ * Records events as strings and returns configured decisions.
+ */
+public class PruningRecorder extends BasePruningVisitor {
+
+    final List<String> events = new ArrayList<>();
+    Function<Type, Traversal> typeDecision = type -> Traversal.CONTINUE;
+    Traversal methodDecision = Traversal.CONTINUE;
+    Traversal argumentDecision = Traversal.CONTINUE;
+    Traversal propertyDecision = Traversal.CONTINUE;
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        events.add("beginService " + clazz.getName());
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        events.add("finishService " + clazz.getName());
+    }
+
+    @Override
+    public Traversal beginMethodProcessing(Method method) {
+        events.add("beginMethod " + method.getName());
+        return methodDecision;
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        events.add("finishMethod " + method.getName());
+    }
+
+    @Override
+    public Traversal beginArgumentProcessing(Method method, int index, Type type) {
+        events.add("beginArgument " + index);
+        return argumentDecision;
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        events.add("finishArgument " + index);
+    }
+
+    @Override
+    public Traversal beginPropertyProcessing(String name, Type type) {
+        events.add("beginProperty " + name);
+        return propertyDecision;
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        events.add("finishProperty " + name);
+    }
+
+    @Override
+    public Traversal beginTypeProcessing(Type type) {
+        events.add("beginType " + type.getTypeName());
+        return typeDecision.apply(type);
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        events.add("finishType " + type.getTypeName());
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        events.add("dependencyCycle " + path);
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        events.add("alreadyVisited " + type.getTypeName());
+    }
+
+}
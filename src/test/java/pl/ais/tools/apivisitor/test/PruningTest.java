@@ -0,0 +1,131 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.ApiModel;
+import pl.ais.tools.apivisitor.Traversal;
+import pl.ais.tools.apivisitor.test.objects.memoization.A;
+import pl.ais.tools.apivisitor.test.objects.memoization.B;
+import pl.ais.tools.apivisitor.test.objects.memoization.Service;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class PruningTest {
+
+    @Test
+    public void testSkipChildrenOfType() {
+        PruningRecorder visitor = new PruningRecorder();
+        visitor.typeDecision = type -> type == Shared.class ? Traversal.SKIP_CHILDREN : Traversal.CONTINUE;
+        walk(visitor);
+        Assert.assertEquals(4, Collections.frequency(visitor.events, "beginType " + Shared.class.getName()));
+        Assert.assertEquals(4, Collections.frequency(visitor.events, "finishType " + Shared.class.getName()));
+        Assert.assertFalse(visitor.events.contains("beginType " + String.class.getName()));
+        Assert.assertFalse(visitor.events.contains("beginProperty name"));
+    }
+
+    @Test
+    public void testSkipSiblingsOfMethod() {
+        PruningRecorder visitor = new PruningRecorder();
+        visitor.methodDecision = Traversal.SKIP_SIBLINGS;
+        walk(visitor);
+        Assert.assertEquals(1, count(visitor.events, "beginMethod"));
+        Assert.assertEquals(1, count(visitor.events, "finishMethod"));
+        // children of method are still visited
+        Assert.assertEquals(2, Collections.frequency(visitor.events, "beginType " + Shared.class.getName()));
+    }
+
+    @Test
+    public void testSkipChildrenOfArgument() {
+        PruningRecorder visitor = new PruningRecorder();
+        visitor.argumentDecision = Traversal.SKIP_CHILDREN;
+        walk(visitor);
+        Assert.assertEquals(2, count(visitor.events, "beginMethod"));
+        // only results are walked
+        Assert.assertEquals(2, Collections.frequency(visitor.events, "beginType " + Shared.class.getName()));
+    }
+
+    @Test
+    public void testSkipSiblingsOfProperty() {
+        PruningRecorder visitor = new PruningRecorder();
+        visitor.propertyDecision = Traversal.SKIP_SIBLINGS;
+        walk(visitor);
+        // each of A and B has a single property, so nothing is skipped
+        Assert.assertEquals(4, Collections.frequency(visitor.events, "beginType " + String.class.getName()));
+    }
+
+    @Test
+    public void testStop() {
+        PruningRecorder visitor = new PruningRecorder();
+        visitor.typeDecision = type -> type == Shared.class ? Traversal.STOP : Traversal.CONTINUE;
+        walk(visitor);
+        int stop = visitor.events.indexOf("beginType " + Shared.class.getName());
+        Assert.assertTrue(stop > 0);
+        for (String event : visitor.events.subList(stop + 1, visitor.events.size())) {
+            Assert.assertTrue(event, event.startsWith("finish"));
+        }
+        Assert.assertEquals(count(visitor.events, "begin"), count(visitor.events, "finish"));
+        Assert.assertEquals("finishService " + Service.class.getName(), visitor.events.get(visitor.events.size() - 1));
+    }
+
+    @Test
+    public void testModelReplayIsPruned() {
+        Function<Type, Traversal> typeDecision = type -> type == Shared.class ? Traversal.SKIP_SIBLINGS : Traversal.CONTINUE;
+        PruningRecorder walked = new PruningRecorder();
+        walked.typeDecision = typeDecision;
+        walked.argumentDecision = Traversal.SKIP_CHILDREN;
+        walk(walked);
+        PruningRecorder replayed = new PruningRecorder();
+        replayed.typeDecision = typeDecision;
+        replayed.argumentDecision = Traversal.SKIP_CHILDREN;
+        ApiModel.build(new APIWalker(), Service.class).accept(replayed);
+        Assert.assertEquals(walked.events, replayed.events);
+    }
+
+    @Test
+    public void testSkippedTypesAreNotMemoized() {
+        int[] shared = new int[1];
+        PruningRecorder visitor = new PruningRecorder();
+        // children of the first occurrence of Shared (in result of doA) are skipped
+        visitor.typeDecision = type -> type == Shared.class && shared[0]++ == 0
+                ? Traversal.SKIP_CHILDREN : Traversal.CONTINUE;
+        APIWalker walker = new APIWalker();
+        walker.setMemoizeTypes(true);
+        walker.setVisitor(visitor);
+        walker.visit(Service.class);
+        Assert.assertEquals(2, Collections.frequency(visitor.events, "beginType " + Shared.class.getName()));
+        Assert.assertEquals(1, Collections.frequency(visitor.events, "beginType " + String.class.getName()));
+        Assert.assertEquals(1, Collections.frequency(visitor.events, "alreadyVisited " + Shared.class.getName()));
+        // A is walked again, its first occurrence was not walked completely
+        Assert.assertEquals(2, Collections.frequency(visitor.events, "beginType " + A.class.getName()));
+        Assert.assertEquals(1, Collections.frequency(visitor.events, "alreadyVisited " + B.class.getName()));
+
+        shared[0] = 0;
+        PruningRecorder replayed = new PruningRecorder();
+        replayed.typeDecision = visitor.typeDecision;
+        ApiModel.build(walker, Service.class).accept(replayed);
+        Assert.assertEquals(visitor.events, replayed.events);
+    }
+
+    private void walk(PruningRecorder visitor) {
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(visitor);
+        walker.visit(Service.class);
+    }
+
+    private static int count(List<String> events, String prefix) {
+        int result = 0;
+        for (String event : events) {
+            if (event.startsWith(prefix)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,120 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import pl.ais.tools.apivisitor.Limit;
+import pl.ais.tools.apivisitor.Visitor;
+
+/**
+ * Records all events as strings, so sequences of events could be compared.
+ */
+public class RecordingVisitor implements Visitor {
+
+    private final List<String> events = new ArrayList<>();
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    @Override
+    public void beginServiceProcessing(Class<?> clazz) {
+        record("beginServiceProcessing", clazz);
+    }
+
+    @Override
+    public void finishServiceProcessing(Class<?> clazz) {
+        record("finishServiceProcessing", clazz);
+    }
+
+    @Override
+    public void beginMethodProcessing(Method method) {
+        record("beginMethodProcessing", method);
+    }
+
+    @Override
+    public void finishMethodProcessing(Method method) {
+        record("finishMethodProcessing", method);
+    }
+
+    @Override
+    public void beginResultProcessing(Method method, Type type) {
+        record("beginResultProcessing", method, type);
+    }
+
+    @Override
+    public void finishResultProcessing(Method method, Type type) {
+        record("finishResultProcessing", method, type);
+    }
+
+    @Override
+    public void beginThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        record("beginThrowableProcessing", method, throwable);
+    }
+
+    @Override
+    public void finishThrowableProcessing(Method method, Class<? extends Throwable> throwable) {
+        record("finishThrowableProcessing", method, throwable);
+    }
+
+    @Override
+    public void beginArgumentProcessing(Method method, int index, Type type) {
+        record("beginArgumentProcessing", method, index, type);
+    }
+
+    @Override
+    public void finishArgumentProcessing(Method method, int index, Type type) {
+        record("finishArgumentProcessing", method, index, type);
+    }
+
+    @Override
+    public void beginPropertyProcessing(String name, Type type) {
+        record("beginPropertyProcessing", name, type);
+    }
+
+    @Override
+    public void finishPropertyProcessing(String name, Type type) {
+        record("finishPropertyProcessing", name, type);
+    }
+
+    @Override
+    public void beginTypeProcessing(Type type) {
+        record("beginTypeProcessing", type);
+    }
+
+    @Override
+    public void finishTypeProcessing(Type type) {
+        record("finishTypeProcessing", type);
+    }
+
+    @Override
+    public void dependencyCycleDetected(List<Type> path) {
+        record("dependencyCycleDetected", path);
+    }
+
+    @Override
+    public void unsupportedType(List<Type> path, Type type) {
+        record("unsupportedType", path, type);
+    }
+
+    @Override
+    public void typeAlreadyVisited(Type type) {
+        record("typeAlreadyVisited", type);
+    }
+
+    @Override
+    public void limitReached(List<Type> path, Limit limit) {
+        record("limitReached", path, limit);
+    }
+
+    private void record(String event, Object... arguments) {
+        StringBuilder result = new StringBuilder(event);
+        for (Object argument : arguments) {
+            result.append(' ').append(argument instanceof Type ? ((Type) argument).getTypeName() : String.valueOf(argument));
+        }
+        events.add(result.toString());
+    }
+
+}
@@ -0,0 +1,114 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.ShapeRule;
+import pl.ais.tools.apivisitor.TypeShape;
+import pl.ais.tools.apivisitor.test.objects.shapes.Bean;
+import pl.ais.tools.apivisitor.test.objects.shapes.Color;
+import pl.ais.tools.apivisitor.test.objects.shapes.Item;
+import pl.ais.tools.apivisitor.test.objects.shapes.Items;
+
+public class ShapesTest {
+
+    @Test
+    public void testBuiltInShapes() {
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(int.class));
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(Color.class));
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(Boolean.class));
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(Character.class));
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(Instant.class));
+        Assert.assertEquals(TypeShape.LEAF, TypeShape.of(UUID.class));
+        Assert.assertEquals(TypeShape.CONTAINER, TypeShape.of(Optional.class));
+        Assert.assertEquals(TypeShape.CONTAINER, TypeShape.of(ArrayList.class));
+        Assert.assertEquals(TypeShape.ARRAY, TypeShape.of(Item[].class));
+        Assert.assertEquals(TypeShape.BEAN, TypeShape.of(Items.class));
+        Assert.assertEquals(TypeShape.BEAN, TypeShape.of(File.class));
+    }
+
+    @Test
+    public void testLeavesAndContainersAreNotWalked() {
+        APIWalker walker = new APIWalker();
+        walker.addShapeRules(ShapeRule.JAVA_LEAVES);
+        ShapeVisitor visitor = walk(walker);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("color", "active", "initial", "created", "id",
+                "item", "items", "moreItems", "file", "name")), visitor.properties);
+        Assert.assertTrue(visitor.types.contains(Color.class));
+        Assert.assertTrue(visitor.types.contains(Boolean.class));
+        Assert.assertTrue(visitor.types.contains(Item.class));
+        Assert.assertTrue(visitor.unsupported.isEmpty());
+    }
+
+    @Test
+    public void testJavaBeansAreWalkedWithoutRules() {
+        ShapeVisitor visitor = walk(new APIWalker());
+        Assert.assertTrue(visitor.properties.contains("path"));
+        Assert.assertFalse(visitor.properties.contains("elementData"));
+        Assert.assertFalse(visitor.properties.contains("value"));
+    }
+
+    @Test
+    public void testConfigurationOverridesBuiltInShapes() throws Exception {
+        Type items = Bean.class.getDeclaredField("items").getGenericType();
+        APIWalker walker = new APIWalker();
+        Assert.assertEquals(TypeShape.BEAN, walker.getShape(Item.class));
+        Assert.assertEquals(TypeShape.CONTAINER, walker.getShape(items));
+        walker.addShapeRules((type) -> type == Item.class ? TypeShape.LEAF : null);
+        walker.addPrimitiveTypes(Color.class);
+        walker.addTerminatingTypes(Items.class, items);
+        Assert.assertEquals(TypeShape.LEAF, walker.getShape(Item.class));
+        Assert.assertEquals(TypeShape.LEAF, walker.getShape(Color.class));
+        Assert.assertEquals(TypeShape.TERMINATING, walker.getShape(Items.class));
+        Assert.assertEquals(TypeShape.TERMINATING, walker.getShape(items));
+
+        ShapeVisitor visitor = walk(walker);
+        Assert.assertFalse(visitor.properties.contains("name"));
+        Assert.assertFalse(visitor.types.contains(Items.class));
+        Assert.assertTrue(visitor.types.contains(Item.class));
+    }
+
+    private ShapeVisitor walk(APIWalker walker) {
+        ShapeVisitor visitor = new ShapeVisitor();
+        walker.setVisitor(visitor);
+        walker.visitTypes(Bean.class);
+        return visitor;
+    }
+
+    private static class ShapeVisitor extends BaseVisitor {
+
+        private final Set<String> properties = new HashSet<>();
+        private final Set<Type> types = new HashSet<>();
+        private final List<Type> unsupported = new ArrayList<>();
+
+        @Override
+        public void beginPropertyProcessing(String name, Type type) {
+            properties.add(name);
+        }
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            types.add(type);
+        }
+
+        @Override
+        public void unsupportedType(List<Type> path, Type type) {
+            unsupported.add(type);
+        }
+
+    }
+
+}
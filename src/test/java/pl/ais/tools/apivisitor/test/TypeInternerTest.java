@@ -0,0 +1,124 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.TypeInterner;
+import pl.ais.tools.apivisitor.TypeKey;
+import pl.ais.tools.apivisitor.test.objects.generics.Entity;
+import pl.ais.tools.apivisitor.test.objects.generics.Order;
+import pl.ais.tools.apivisitor.test.objects.generics.OrderRepository;
+import pl.ais.tools.apivisitor.test.objects.generics.Page;
+import pl.ais.tools.apivisitor.test.objects.generics.Repository;
+
+public class TypeInternerTest {
+
+    @Test
+    public void testEqualTypesShareKey() throws Exception {
+        Method find = Repository.class.getMethod("find", Page.class);
+        Type result = find.getGenericReturnType();
+        Type argument = find.getGenericParameterTypes()[0];
+        Assert.assertEquals(result, argument);
+        TypeInterner interner = new TypeInterner();
+        TypeKey key = interner.intern(result);
+        Assert.assertSame(key, interner.intern(argument));
+        Assert.assertSame(result, key.getType());
+        Assert.assertEquals(result.hashCode(), key.hashCode());
+        Assert.assertEquals(0, key.getId());
+    }
+
+    @Test
+    public void testIdsAreDense() {
+        TypeInterner interner = new TypeInterner();
+        Assert.assertNull(interner.find(Order.class));
+        TypeKey order = interner.intern(Order.class);
+        TypeKey entity = interner.intern(Entity.class);
+        Assert.assertEquals(0, order.getId());
+        Assert.assertEquals(1, entity.getId());
+        Assert.assertEquals(2, interner.size());
+        Assert.assertSame(entity, interner.get(1));
+        Assert.assertSame(order, interner.find(Order.class));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testUnknownId() {
+        new TypeInterner().get(0);
+    }
+
+    @Test
+    public void testClearingInstancesKeepsKeys() throws Exception {
+        Method find = Repository.class.getMethod("find", Page.class);
+        Type result = find.getGenericReturnType();
+        TypeInterner interner = new TypeInterner();
+        TypeKey order = interner.intern(Order.class);
+        TypeKey page = interner.intern(result);
+        interner.clearInstances();
+        Assert.assertEquals(2, interner.size());
+        Assert.assertSame(page, interner.find(result));
+        Assert.assertSame(page, interner.intern(find.getGenericParameterTypes()[0]));
+        Assert.assertSame(order, interner.intern(Order.class));
+        Assert.assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void testIdsAreStableAcrossVisits() {
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor(walker);
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        int size = walker.getTypeInterner().size();
+        TypeKey order = walker.getTypeInterner().find(Order.class);
+        visitor = new CollectingVisitor(walker);
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        Assert.assertEquals(size, walker.getTypeInterner().size());
+        Assert.assertSame(order, walker.getTypeInterner().find(Order.class));
+        Assert.assertTrue(visitor.getVisitedTypes().contains(Order.class));
+    }
+
+    @Test
+    public void testVisitorWithoutWalkerKeepsVisitedInstances() throws Exception {
+        Method find = Repository.class.getMethod("find", Page.class);
+        Type result = find.getGenericReturnType();
+        CollectingVisitor visitor = new CollectingVisitor();
+        visitor.beginTypeProcessing(result);
+        visitor.beginTypeProcessing(find.getGenericParameterTypes()[0]);
+        Assert.assertEquals(1, visitor.getVisitedTypes().size());
+        Assert.assertSame(result, visitor.getVisitedTypes().iterator().next());
+        Assert.assertTrue(visitor.getVisitedTypes().contains(find.getGenericParameterTypes()[0]));
+    }
+
+    @Test
+    public void testVisitorSharesWalkerInterner() {
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor(walker);
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        for (Type type : visitor.getVisitedTypes()) {
+            Assert.assertNotNull(type.getTypeName(), walker.getTypeInterner().find(type));
+        }
+        Assert.assertTrue(visitor.getVisitedTypes().contains(Order.class));
+    }
+
+    @Test
+    public void testConfigurationChangesAreApplied() {
+        APIWalker walker = new APIWalker();
+        CollectingVisitor visitor = new CollectingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        Assert.assertTrue(visitor.getVisitedTypes().contains(Entity.class));
+        // Order is already interned by walker, it must not be walked anymore
+        walker.addTerminatingTypes(Order.class, Entity.class);
+        visitor = new CollectingVisitor();
+        walker.setVisitor(visitor);
+        walker.visit(OrderRepository.class);
+        Assert.assertFalse(visitor.getVisitedTypes().contains(Order.class));
+        Assert.assertFalse(visitor.getVisitedTypes().contains(Entity.class));
+    }
+
+}
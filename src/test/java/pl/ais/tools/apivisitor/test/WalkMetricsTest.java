@@ -0,0 +1,90 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.TypeMetadataCache;
+import pl.ais.tools.apivisitor.WalkMetrics;
+import pl.ais.tools.apivisitor.WalkMetricsRegistry;
+import pl.ais.tools.apivisitor.test.objects.cycle.Service;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class WalkMetricsTest {
+
+    @Test
+    public void testMetricsOfService() {
+        CountingVisitor visitor = new CountingVisitor();
+        WalkMetricsRegistry registry = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setMetadataCache(new TypeMetadataCache());
+        walker.setVisitor(visitor);
+        walker.setWalkListener(registry);
+        walker.visit(Service.class);
+
+        WalkMetrics metrics = registry.getMetrics(Service.class);
+        Assert.assertEquals(Service.class, metrics.getElement());
+        Assert.assertEquals(visitor.types, metrics.getNodes());
+        Assert.assertEquals(visitor.cycles, metrics.getCycles());
+        Assert.assertTrue(metrics.getCycles() > 0);
+        Assert.assertTrue(metrics.getMaxDepth() > 1);
+        Assert.assertTrue(metrics.getReflectionCalls() > 0);
+        Assert.assertTrue(metrics.getVisitorNanos() <= metrics.getNanos());
+        Assert.assertEquals(metrics.getNanos() - metrics.getVisitorNanos(), metrics.getWalkerNanos());
+        Assert.assertEquals(visitor.types, registry.getTotal().getNodes());
+    }
+
+    @Test
+    public void testMetadataIsCachedBetweenWalks() {
+        WalkMetricsRegistry registry = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setMetadataCache(new TypeMetadataCache());
+        walker.setVisitor(new CountingVisitor());
+        walker.setWalkListener(registry);
+        walker.visit(Service.class);
+        walker.visit(Service.class);
+
+        WalkMetrics metrics = registry.getMetrics(Service.class);
+        Assert.assertEquals(0, metrics.getMetadataMisses());
+        Assert.assertEquals(0, metrics.getReflectionCalls());
+        Assert.assertEquals(1.0, metrics.getMetadataHitRate(), 0.0);
+        Assert.assertTrue(registry.getTotal().getMetadataMisses() > 0);
+    }
+
+    @Test
+    public void testTypeMetrics() {
+        WalkMetricsRegistry registry = new WalkMetricsRegistry();
+        APIWalker walker = new APIWalker();
+        walker.setVisitor(new CountingVisitor());
+        walker.setWalkListener(registry);
+        walker.visitTypes(Shared.class, Shared.class);
+        Assert.assertEquals(2, registry.getTypeWalks(Shared.class));
+        Assert.assertEquals(2, registry.getTypeWalks(String.class));
+        Assert.assertTrue(registry.getTypeNanos(Shared.class) >= registry.getTypeNanos(String.class));
+        registry.clear();
+        Assert.assertEquals(0, registry.getTypeWalks(Shared.class));
+        Assert.assertEquals(0, registry.getTotal().getNodes());
+    }
+
+    private static class CountingVisitor extends BaseVisitor {
+
+        private int types;
+        private int cycles;
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            types++;
+        }
+
+        @Override
+        public void dependencyCycleDetected(List<Type> path) {
+            cycles++;
+        }
+
+    }
+
+}
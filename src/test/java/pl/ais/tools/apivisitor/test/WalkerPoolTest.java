@@ -0,0 +1,111 @@
+package pl.ais.tools.apivisitor.test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import pl.ais.tools.apivisitor.APIWalker;
+import pl.ais.tools.apivisitor.BaseVisitor;
+import pl.ais.tools.apivisitor.CollectingVisitor;
+import pl.ais.tools.apivisitor.WalkerPool;
+import pl.ais.tools.apivisitor.test.objects.memoization.Shared;
+
+public class WalkerPoolTest {
+
+    private static final Class<?>[] SERVICES = {
+            pl.ais.tools.apivisitor.test.objects.smoke.Service.class,
+            pl.ais.tools.apivisitor.test.objects.memoization.Service.class,
+            pl.ais.tools.apivisitor.test.objects.cycle.Service.class,
+            pl.ais.tools.apivisitor.test.objects.primitives.Service.class };
+
+    private APIWalker walker;
+
+    private WalkerPool pool;
+
+    @Before
+    public void createPool() {
+        walker = new APIWalker();
+        walker.setMemoizeTypes(true);
+        pool = new WalkerPool(walker);
+    }
+
+    @After
+    public void closePool() {
+        pool.close();
+    }
+
+    @Test
+    public void testConcurrentWalks() throws Exception {
+        List<CompletableFuture<CollectingVisitor>> results = new ArrayList<>();
+        for (int i = 0; i < 50 * SERVICES.length; i++) {
+            results.add(pool.submit(SERVICES[i % SERVICES.length], new CollectingVisitor()));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            CollectingVisitor expected = new CollectingVisitor();
+            walker.setVisitor(expected);
+            walker.visit(SERVICES[i % SERVICES.length]);
+            CollectingVisitor actual = results.get(i).get();
+            Assert.assertEquals(expected.getVisitedServices(), actual.getVisitedServices());
+            Assert.assertEquals(expected.getVisitedMethods(), actual.getVisitedMethods());
+            Assert.assertEquals(expected.getVisitedTypes(), actual.getVisitedTypes());
+        }
+    }
+
+    @Test
+    public void testWalksDoNotShareMemoizedTypes() {
+        Class<?> service = pl.ais.tools.apivisitor.test.objects.memoization.Service.class;
+        TypeCounter first = pool.walk(service, new TypeCounter());
+        TypeCounter second = pool.walk(service, new TypeCounter());
+        Assert.assertTrue(first.shared > 0);
+        Assert.assertEquals(first.shared, second.shared);
+    }
+
+    @Test
+    public void testConfigurationIsTakenOnce() {
+        Class<?> service = pl.ais.tools.apivisitor.test.objects.memoization.Service.class;
+        walker.addTerminatingTypes(Shared.class);
+        Assert.assertTrue(pool.walk(service, new TypeCounter()).shared > 0);
+        try (WalkerPool terminating = new WalkerPool(walker)) {
+            Assert.assertEquals(0, terminating.walk(service, new TypeCounter()).shared);
+        }
+    }
+
+    @Test
+    public void testFailedWalk() throws Exception {
+        CompletableFuture<BaseVisitor> result = pool.submit(SERVICES[0], new BaseVisitor() {
+
+            @Override
+            public void beginServiceProcessing(Class<?> clazz) {
+                throw new IllegalArgumentException(clazz.getName());
+            }
+
+        });
+        try {
+            result.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+        }
+    }
+
+    private static class TypeCounter extends BaseVisitor {
+
+        private int shared;
+
+        @Override
+        public void beginTypeProcessing(Type type) {
+            if (type == Shared.class) {
+                shared++;
+            }
+        }
+
+    }
+
+}
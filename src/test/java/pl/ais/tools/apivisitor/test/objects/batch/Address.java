@@ -0,0 +1,8 @@
+package pl.ais.tools.apivisitor.test.objects.batch;
+
+public class Address {
+
+    private String street;
+    private String city;
+
+}
@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.batch;
+
+public interface AuditService {
+
+    void audit(Customer customer, Address address);
+
+}
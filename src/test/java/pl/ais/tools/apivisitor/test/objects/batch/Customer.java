@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.test.objects.batch;
+
+public class Customer {
+
+    private long id;
+    private String name;
+    private Address address;
+
+}
@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.test.objects.batch;
+
+public interface CustomerService {
+
+    Customer find(long id);
+
+    void save(Customer customer);
+
+}
@@ -0,0 +1,11 @@
+package pl.ais.tools.apivisitor.test.objects.classfile;
+
+public class Bean {
+
+    public static final Label DEFAULT_LABEL = new Label();
+
+    private Kind kind;
+
+    private Label label;
+
+}
@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.test.objects.classfile;
+
+public enum Kind {
+
+    SIMPLE;
+
+    private Label label;
+
+}
@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.classfile;
+
+public class Label {
+
+    private String text;
+
+}
@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.classfile;
+
+public interface Service {
+
+    Bean get(Bean bean);
+
+}
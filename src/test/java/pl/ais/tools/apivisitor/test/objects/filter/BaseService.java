@@ -0,0 +1,19 @@
+package pl.ais.tools.apivisitor.test.objects.filter;
+
+public class BaseService<T> {
+
+    public T find(long id) {
+        return null;
+    }
+
+    public void save(T entity) {
+    }
+
+    public long count() {
+        return 0;
+    }
+
+    protected void flush() {
+    }
+
+}
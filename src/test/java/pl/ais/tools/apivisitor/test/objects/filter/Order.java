@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.filter;
+
+public class Order {
+
+    private long id;
+
+}
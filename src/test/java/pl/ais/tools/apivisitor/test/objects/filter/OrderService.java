@@ -0,0 +1,26 @@
+package pl.ais.tools.apivisitor.test.objects.filter;
+
+public class OrderService extends BaseService<Order> {
+
+    @Override
+    public Order find(long id) {
+        return null;
+    }
+
+    @Operation
+    @Override
+    public void save(Order order) {
+    }
+
+    @Operation
+    public void cancel(long id) {
+    }
+
+    public Runnable task() {
+        return () -> cancel(0);
+    }
+
+    void internal() {
+    }
+
+}
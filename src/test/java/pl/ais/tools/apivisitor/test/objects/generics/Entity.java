@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.generics;
+
+public class Entity {
+
+    private long id;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+}
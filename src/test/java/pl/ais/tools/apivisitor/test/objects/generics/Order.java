@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.generics;
+
+public class Order extends Entity {
+
+    private String number;
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+}
@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.test.objects.generics;
+
+public class OrderRepository extends Repository<Order> {
+
+    public Page<Entity> findEntities() {
+        return null;
+    }
+
+}
@@ -0,0 +1,25 @@
+package pl.ais.tools.apivisitor.test.objects.generics;
+
+public class Page<T> {
+
+    private T first;
+
+    private T[] content;
+
+    public T getFirst() {
+        return first;
+    }
+
+    public void setFirst(T first) {
+        this.first = first;
+    }
+
+    public T[] getContent() {
+        return content;
+    }
+
+    public void setContent(T[] content) {
+        this.content = content;
+    }
+
+}
@@ -0,0 +1,18 @@
+package pl.ais.tools.apivisitor.test.objects.generics;
+
+import java.util.List;
+
+public class Repository<T extends Entity> {
+
+    public Page<T> find(Page<T> example) {
+        return null;
+    }
+
+    public <E extends Entity> E findOne(long id) {
+        return null;
+    }
+
+    public void saveAll(List<? extends T> entities) {
+    }
+
+}
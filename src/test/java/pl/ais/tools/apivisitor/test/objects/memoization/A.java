@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.memoization;
+
+public class A {
+
+    private Shared shared;
+
+    public Shared getShared() {
+        return shared;
+    }
+
+    public void setShared(Shared shared) {
+        this.shared = shared;
+    }
+
+}
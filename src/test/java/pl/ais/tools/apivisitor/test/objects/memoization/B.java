@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.memoization;
+
+public class B {
+
+    private Shared shared;
+
+    public Shared getShared() {
+        return shared;
+    }
+
+    public void setShared(Shared shared) {
+        this.shared = shared;
+    }
+
+}
@@ -0,0 +1,13 @@
+package pl.ais.tools.apivisitor.test.objects.memoization;
+
+public class Service {
+
+    public A doA(B b) {
+        return null;
+    }
+
+    public B doB(A a) {
+        return null;
+    }
+
+}
@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.memoization;
+
+public class Shared {
+
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+}
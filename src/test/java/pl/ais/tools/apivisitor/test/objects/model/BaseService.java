@@ -0,0 +1,14 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+import java.util.List;
+
+public abstract class BaseService<T extends Entity> {
+
+    public List<T> findAll() {
+        return null;
+    }
+
+    public void saveAll(T[] entities) {
+    }
+
+}
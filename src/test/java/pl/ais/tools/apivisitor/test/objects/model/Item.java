@@ -0,0 +1,15 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+import java.util.List;
+
+public class Item {
+
+    private String name;
+
+    private List<Item> children;
+
+    private Item[] related;
+
+    private Object any;
+
+}
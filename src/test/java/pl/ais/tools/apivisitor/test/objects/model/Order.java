@@ -0,0 +1,11 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+import java.util.Map;
+
+public class Order extends Entity {
+
+    private Map<String, Item> items;
+
+    private Status status;
+
+}
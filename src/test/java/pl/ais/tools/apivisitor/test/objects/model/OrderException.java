@@ -0,0 +1,9 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+public class OrderException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private Order order;
+
+}
@@ -0,0 +1,20 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class OrderService extends BaseService<Order> {
+
+    public Order find(long id, String name) throws OrderException {
+        return null;
+    }
+
+    public void save(Order order, Set<Item> items) {
+    }
+
+    public <E extends Item> Map.Entry<String, E> merge(List<? extends Order> orders, List<? super E> items) {
+        return null;
+    }
+
+}
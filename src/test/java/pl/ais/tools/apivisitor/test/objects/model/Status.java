@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.model;
+
+public enum Status {
+
+    NEW, CLOSED
+
+}
@@ -0,0 +1,21 @@
+package pl.ais.tools.apivisitor.test.objects.shapes;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class Bean {
+
+    private Color color;
+    private Boolean active;
+    private Character initial;
+    private Instant created;
+    private UUID id;
+    private Optional<Item> item;
+    private List<Item> items;
+    private Items moreItems;
+    private File file;
+
+}
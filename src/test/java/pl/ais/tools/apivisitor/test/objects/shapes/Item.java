@@ -0,0 +1,7 @@
+package pl.ais.tools.apivisitor.test.objects.shapes;
+
+public class Item {
+
+    private String name;
+
+}
@@ -0,0 +1,8 @@
+package pl.ais.tools.apivisitor.test.objects.shapes;
+
+import java.util.ArrayList;
+
+@SuppressWarnings("serial")
+public class Items extends ArrayList<Item> {
+
+}